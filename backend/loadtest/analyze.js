@@ -0,0 +1,74 @@
+// 🧪 /api/ai/analyze 부하 테스트 (k6)
+//
+// k6 run -e BASE_URL=http://localhost:8081 -e EMAIL=... -e PASSWORD=... loadtest/analyze.js
+//
+// 도착률(req/s)을 단계적으로 올려서 처리량이 더 이상 따라오지 않는 지점을 찾는다.
+// 같은 힙(-Xmx)으로 VIRTUAL_THREADS_ENABLED=false / true 를 각각 실행해 비교 (README.md 참고)
+import http from "k6/http";
+import { check } from "k6";
+import { Trend } from "k6/metrics";
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8081";
+const PEAK_RATE = Number(__ENV.PEAK_RATE || 400);
+
+// 로컬 사전 라우터로 분류되는 문장 — 라우팅 LLM 호출 없이 분석기 1~2건이 Gemini(스텁)를 기다림
+const SENTENCES = [
+  "점심에 김밥 한 줄 먹었어",
+  "저녁으로 라면 두 개 먹었어",
+  "아침에 30분 조깅했어",
+  "헬스장에서 스쿼트 50개 했어",
+  "오늘 좀 우울했어",
+  "김밥 두 줄 먹고 조깅 30분 했어",
+];
+
+const analyzeLatency = new Trend("analyze_latency", true);
+
+export const options = {
+  scenarios: {
+    analyze: {
+      executor: "ramping-arrival-rate",
+      startRate: 10,
+      timeUnit: "1s",
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+      stages: [
+        { target: PEAK_RATE / 4, duration: "30s" },
+        { target: PEAK_RATE / 2, duration: "30s" },
+        { target: PEAK_RATE, duration: "60s" },
+        { target: PEAK_RATE, duration: "60s" },
+      ],
+    },
+  },
+  thresholds: {
+    http_req_failed: ["rate<0.01"],
+  },
+  summaryTrendStats: ["avg", "p(50)", "p(95)", "p(99)", "max"],
+};
+
+export function setup() {
+  const res = http.post(
+    `${BASE_URL}/api/auth/login`,
+    JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+    { headers: { "Content-Type": "application/json" } },
+  );
+  check(res, { "login 200": (r) => r.status === 200 });
+
+  const token = res.cookies.access_token?.[0]?.value;
+  if (!token) throw new Error("access_token 쿠키 없음 — EMAIL/PASSWORD 확인");
+  return { token };
+}
+
+export default function (data) {
+  const text = SENTENCES[Math.floor(Math.random() * SENTENCES.length)];
+
+  const res = http.post(`${BASE_URL}/api/ai/analyze`, JSON.stringify({ text }), {
+    headers: {
+      "Content-Type": "application/json",
+      Cookie: `access_token=${data.token}`,
+    },
+    timeout: "60s",
+  });
+
+  analyzeLatency.add(res.timings.duration);
+  check(res, { "analyze 200": (r) => r.status === 200 });
+}
@@ -0,0 +1,66 @@
+// 🧪 Gemini generateContent 스텁 — 부하 테스트에서 실제 API 쿼터/비용 없이 "수 초 대기하는 외부 호출"을 재현
+//
+// 실행: node loadtest/gemini-stub.mjs            (STUB_PORT=8089, STUB_DELAY_MS=2000, STUB_JITTER_MS=500)
+// 앱:   --gemini.api.base-url=http://localhost:8089/v1beta/models
+//
+// 요청의 generationConfig.responseSchema 를 보고 타입별 기본값으로 채운 JSON 을 돌려준다.
+// (문자열 "", 숫자 0, enum 첫 값, 배열 [], 객체는 재귀) → 각 분석기의 파서를 그대로 통과
+import http from "node:http";
+
+const port = Number(process.env.STUB_PORT ?? 8089);
+const delayMs = Number(process.env.STUB_DELAY_MS ?? 2000);
+const jitterMs = Number(process.env.STUB_JITTER_MS ?? 500);
+
+function sample(schema) {
+  if (!schema) return {};
+  switch (schema.type) {
+    case "OBJECT": {
+      const out = {};
+      for (const [name, prop] of Object.entries(schema.properties ?? {})) out[name] = sample(prop);
+      return out;
+    }
+    case "ARRAY":
+      return [];
+    case "INTEGER":
+    case "NUMBER":
+      return 0;
+    case "BOOLEAN":
+      return false;
+    default:
+      return schema.enum?.[0] ?? "";
+  }
+}
+
+let inFlight = 0;
+let served = 0;
+
+http
+  .createServer((req, res) => {
+    let raw = "";
+    req.on("data", (chunk) => (raw += chunk));
+    req.on("end", () => {
+      if (req.method !== "POST" || !req.url.includes(":generateContent")) {
+        res.writeHead(404).end();
+        return;
+      }
+
+      const body = raw ? JSON.parse(raw) : {};
+      const text = JSON.stringify(sample(body.generationConfig?.responseSchema));
+
+      inFlight++;
+      setTimeout(() => {
+        inFlight--;
+        served++;
+        res.writeHead(200, { "Content-Type": "application/json" });
+        res.end(
+          JSON.stringify({
+            candidates: [{ content: { parts: [{ text }] } }],
+            usageMetadata: { promptTokenCount: 0, candidatesTokenCount: 0, totalTokenCount: 0 },
+          }),
+        );
+      }, delayMs + Math.random() * jitterMs);
+    });
+  })
+  .listen(port, () => console.log(`gemini-stub :${port} (delay ${delayMs}ms ±${jitterMs}ms)`));
+
+setInterval(() => console.log(`in-flight=${inFlight} served=${served}`), 5000).unref();
@@ -0,0 +1,117 @@
+package com.healthchat.backend.service.rag.simd;
+
+import com.healthchat.backend.service.rag.EmbeddingQuantizer;
+import com.healthchat.backend.service.rag.EmbeddingUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스칼라 vs Vector API 커널 비교
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimilarityKernelBenchmark {
+
+    /** gemini-embedding-001 기본 차원(3072)과 축소 차원(768) */
+    @Param({"768", "3072"})
+    public int dim;
+
+    /** 인덱스 행 수 */
+    @Param({"1000"})
+    public int rows;
+
+    private SimilarityKernel scalar;
+    private SimilarityKernel simd;
+
+    private float[] query;
+    private float[] matrix;
+    private FloatBuffer offHeap;
+    private byte[] codes;
+
+    @Setup
+    public void setup() {
+        scalar = SimilarityKernels.scalar();
+        simd = SimilarityKernels.vectorApi();
+        if (simd == null) {
+            throw new IllegalStateException("--add-modules jdk.incubator.vector --enable-preview 필요");
+        }
+
+        Random random = new Random(7);
+        query = EmbeddingUtil.normalize(randomVector(random));
+        matrix = new float[rows * dim];
+        codes = new byte[rows * dim];
+
+        for (int r = 0; r < rows; r++) {
+            float[] v = EmbeddingUtil.normalize(randomVector(random));
+            System.arraycopy(v, 0, matrix, r * dim, dim);
+            System.arraycopy(EmbeddingQuantizer.toInt8(v).codes(), 0, codes, r * dim, dim);
+        }
+
+        // 매핑 스냅샷과 같은 형태: little-endian direct 버퍼의 float 뷰
+        ByteBuffer bytes = ByteBuffer.allocateDirect(matrix.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asFloatBuffer().put(matrix);
+        offHeap = bytes.asFloatBuffer().asReadOnlyBuffer();
+    }
+
+    @Benchmark
+    public void scanScalar(Blackhole bh) {
+        scan(scalar, bh);
+    }
+
+    @Benchmark
+    public void scanVectorApi(Blackhole bh) {
+        scan(simd, bh);
+    }
+
+    @Benchmark
+    public void scanOffHeapScalar(Blackhole bh) {
+        scanOffHeap(scalar, bh);
+    }
+
+    @Benchmark
+    public void scanOffHeapVectorApi(Blackhole bh) {
+        scanOffHeap(simd, bh);
+    }
+
+    @Benchmark
+    public void scanInt8Scalar(Blackhole bh) {
+        scanInt8(scalar, bh);
+    }
+
+    @Benchmark
+    public void scanInt8VectorApi(Blackhole bh) {
+        scanInt8(simd, bh);
+    }
+
+    private void scan(SimilarityKernel kernel, Blackhole bh) {
+        for (int r = 0, offset = 0; r < rows; r++, offset += dim) {
+            bh.consume(kernel.dot(query, matrix, offset));
+        }
+    }
+
+    private void scanOffHeap(SimilarityKernel kernel, Blackhole bh) {
+        for (int r = 0, offset = 0; r < rows; r++, offset += dim) {
+            bh.consume(kernel.dot(query, offHeap, offset));
+        }
+    }
+
+    private void scanInt8(SimilarityKernel kernel, Blackhole bh) {
+        for (int r = 0, offset = 0; r < rows; r++, offset += dim) {
+            bh.consume(kernel.dotInt8(query, codes, offset));
+        }
+    }
+
+    private float[] randomVector(Random random) {
+        float[] v = new float[dim];
+        for (int i = 0; i < dim; i++) v[i] = (float) random.nextGaussian();
+        return v;
+    }
+}
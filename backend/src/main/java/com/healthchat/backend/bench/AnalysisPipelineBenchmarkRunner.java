@@ -0,0 +1,155 @@
+package com.healthchat.backend.bench;
+
+import com.healthchat.backend.entity.User;
+import com.healthchat.backend.repository.UserRepository;
+import com.healthchat.backend.service.AnalysisPipelineMode;
+import com.healthchat.backend.service.GeminiUnifiedAnalysisService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 🏁 ROUTED / FUSED / SPECULATIVE 파이프라인 지연/토큰 비교
+ * - 운영과 같은 GeminiUnifiedAnalysisService.analyze(..., save=false) 를 호출 (DB 저장·삭제 없음)
+ *
+ * 실행: SPRING_PROFILES_ACTIVE=pipeline-bench ./gradlew bootRun --args='--bench.pipeline.user-id=1 --gemini.cache.enabled=false'
+ * - 입력 문장: classpath bench/pipeline-samples.txt
+ * - 문장마다 모드 실행 순서를 번갈아 뒤집음 (실행 순서에 따른 편향 완화)
+ * - 토큰은 GeminiClient 의 gemini.tokens 카운터 증가분 (hedge 로 추가된 flash 호출 포함)
+ */
+@Slf4j
+@Component
+@Profile("pipeline-bench")
+@RequiredArgsConstructor
+public class AnalysisPipelineBenchmarkRunner implements CommandLineRunner {
+
+    private final ConfigurableApplicationContext context;
+    private final MeterRegistry meterRegistry;
+    private final UserRepository userRepository;
+    private final GeminiUnifiedAnalysisService analysisService;
+
+    @Value("${bench.pipeline.user-id}")
+    private Long userId;
+
+    @Value("${bench.pipeline.iterations:3}")
+    private int iterations;
+
+    @Value("${gemini.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        if (cacheEnabled) {
+            log.warn("⚠ [Bench] 응답 캐시가 켜져 있음 — 2회차부터 캐시 히트로 측정됨 (--gemini.cache.enabled=false 권장)");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+
+        List<String> samples = loadSamples();
+
+        Map<AnalysisPipelineMode, Stats> stats = new EnumMap<>(AnalysisPipelineMode.class);
+        for (AnalysisPipelineMode mode : AnalysisPipelineMode.values()) stats.put(mode, new Stats());
+
+        int turn = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String text : samples) {
+                List<AnalysisPipelineMode> order = new ArrayList<>(List.of(AnalysisPipelineMode.values()));
+                if (turn++ % 2 == 1) Collections.reverse(order);
+
+                for (AnalysisPipelineMode mode : order) {
+                    measure(mode, user, text, stats.get(mode));
+                }
+            }
+        }
+
+        log.info("===== 🏁 파이프라인 벤치마크 ({}문장 × {}회) =====", samples.size(), iterations);
+        stats.forEach((mode, s) -> log.info("{}", s.summary(mode)));
+        log.info("==================================================");
+
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private void measure(AnalysisPipelineMode mode, User user, String text, Stats stats) {
+        double promptBefore = tokens("prompt");
+        double outputBefore = tokens("candidates");
+        long start = System.nanoTime();
+
+        boolean ok;
+        try {
+            ok = analysisService.analyze(user, text, mode, false) != null;
+        } catch (Exception e) {
+            log.warn("⚠ [Bench] {} 실패: {}", mode, e.getMessage());
+            ok = false;
+        }
+
+        stats.add((System.nanoTime() - start) / 1_000_000,
+                tokens("prompt") - promptBefore,
+                tokens("candidates") - outputBefore,
+                ok);
+    }
+
+    private double tokens(String type) {
+        return meterRegistry.find("gemini.tokens").tag("type", type).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private List<String> loadSamples() throws Exception {
+        String content = new ClassPathResource("bench/pipeline-samples.txt")
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        return content.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+    }
+
+
+    /* ============================================================
+     * 🔸 모드별 집계
+     * ============================================================ */
+    private static final class Stats {
+        private final List<Long> latencies = new ArrayList<>();
+        private double promptTokens;
+        private double outputTokens;
+        private int failures;
+
+        void add(long millis, double prompt, double output, boolean ok) {
+            latencies.add(millis);
+            promptTokens += prompt;
+            outputTokens += output;
+            if (!ok) failures++;
+        }
+
+        String summary(AnalysisPipelineMode mode) {
+            int n = latencies.size();
+            if (n == 0) return mode + ": 측정 없음";
+
+            List<Long> sorted = latencies.stream().sorted().toList();
+            double mean = sorted.stream().mapToLong(Long::longValue).average().orElse(0);
+
+            return String.format(
+                    "%-6s n=%d | p50=%dms p95=%dms mean=%.0fms | 평균 토큰 prompt=%.0f output=%.0f | 실패=%d",
+                    mode, n, percentile(sorted, 0.5), percentile(sorted, 0.95), mean,
+                    promptTokens / n, outputTokens / n, failures);
+        }
+
+        private static long percentile(List<Long> sorted, double p) {
+            int idx = (int) Math.ceil(p * sorted.size()) - 1;
+            return sorted.get(Math.max(0, Math.min(idx, sorted.size() - 1)));
+        }
+    }
+}
@@ -1,24 +1,85 @@
 package com.healthchat.backend.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+@Slf4j
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    /** 가상 스레드 모드여도 SMTP 동시 연결 수는 그대로 제한 (풀 크기 = 동시 발송 상한) */
     @Bean(name = "mailExecutor")
-    public Executor mailExecutor() {
+    public Executor mailExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4);    // 동시에 처리할 기본 스레드 수
         executor.setMaxPoolSize(8);     // 최대 스레드 수
         executor.setQueueCapacity(50);  // 대기 큐 용량
         executor.setThreadNamePrefix("MailAsync-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("MailAsync-", 0).factory());
+        }
         executor.initialize();
         return executor;
     }
+
+    /**
+     * AI 분석기 전용 executor (식단/운동/감정)
+     * - 프롬프트 준비(DB 조회) + 응답 파싱만 여기서 실행 — Gemini 응답 대기는 WebClient 논블로킹이라 스레드를 쓰지 않음
+     * - 가상 스레드 여부는 ai.executor.virtual-threads (spring.threads.virtual.enabled 와 별개, 기본 true)
+     * - 가상 스레드 + 동시 실행 상한(pool size) + 대기 큐 상한 → 분석 요청 폭주가 메일/웹 스레드를 잠식하지 않음
+     * - 큐까지 차면 거절 (RejectedExecutionException) → 각 분석기가 fallback 결과로 응답
+     * - 메트릭: executor.active / executor.queued / executor.queue.remaining {name=aiExecutor}, ai.executor.rejected
+     */
+    @Bean(name = "aiExecutor")
+    public ThreadPoolTaskExecutor aiExecutor(MeterRegistry meterRegistry,
+                                             @Value("${ai.executor.max-concurrency:32}") int maxConcurrency,
+                                             @Value("${ai.executor.queue-capacity:200}") int queueCapacity,
+                                             @Value("${ai.executor.virtual-threads:true}") boolean virtualThreads) {
+
+        Counter rejected = meterRegistry.counter("ai.executor.rejected");
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // 가상 스레드도 풀로 고정 — 풀 크기가 곧 동시 실행 상한, 넘치는 작업은 큐에서 대기
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("AiAsync-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("AiAsync-", 0).factory());
+        }
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("aiExecutor 포화 (동시 " + maxConcurrency + ", 대기 " + queueCapacity + ")");
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "aiExecutor", List.of()).bindTo(meterRegistry);
+
+        log.info("🧵 [AiExecutor] 동시 {} / 대기 큐 {} (가상 스레드: {})", maxConcurrency, queueCapacity, virtualThreads);
+        return executor;
+    }
+
+    /** 분석기 Mono 체인용 — 구독 취소 시 대기 중/실행 중 작업도 취소됨 */
+    @Bean(name = "aiScheduler")
+    public Scheduler aiScheduler(@Qualifier("aiExecutor") ThreadPoolTaskExecutor aiExecutor) {
+        return Schedulers.fromExecutorService(aiExecutor.getThreadPoolExecutor(), "aiExecutor");
+    }
 }
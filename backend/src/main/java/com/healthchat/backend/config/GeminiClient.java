@@ -1,15 +1,41 @@
 package com.healthchat.backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthchat.backend.config.gemini.EmbedContentResponse;
+import com.healthchat.backend.config.gemini.GeminiCallGuard;
+import com.healthchat.backend.config.gemini.GeminiCaller;
+import com.healthchat.backend.config.gemini.GeminiHedgePolicy;
+import com.healthchat.backend.config.gemini.GeminiHttpException;
+import com.healthchat.backend.config.gemini.GeminiPriority;
+import com.healthchat.backend.config.gemini.GeminiRateLimiter;
+import com.healthchat.backend.config.gemini.GeminiResponseCache;
+import com.healthchat.backend.config.gemini.GeminiSchema;
+import com.healthchat.backend.config.gemini.GeminiUnavailableException;
+import com.healthchat.backend.config.gemini.GenerateContentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Component
@@ -28,103 +54,235 @@ public class GeminiClient {
     @Value("${gemini.api.key}")
     private String apiKey;
 
+    /** batchEmbedContents 한 번에 보낼 최대 텍스트 수 (API 제한 100) */
+    @Value("${gemini.embed.batch-size:100}")
+    private int embedBatchSize;
+
+    /** 배치 하나의 최대 총 글자 수 — 요청 크기 제한 */
+    @Value("${gemini.embed.batch-max-chars:60000}")
+    private int embedBatchMaxChars;
+
+    /** 동시에 진행할 배치 요청 수 */
+    @Value("${gemini.embed.batch-concurrency:4}")
+    private int embedBatchConcurrency;
+
+    /** responseSchema 구조화 출력 사용 여부 — 끄면 스키마 없이 일반 텍스트 응답 */
+    @Value("${gemini.structured-output.enabled:true}")
+    private boolean structuredOutputEnabled;
+
+    /** 프롬프트 최대 글자 수 — 너무 길면 모델이 silence (호출자별: gemini.prompt.callers.{caller}.max-chars) */
+    @Value("${gemini.prompt.max-chars:6000}")
+    private int promptMaxChars;
+
     private final WebClient geminiWebClient;
+    private final GeminiResponseCache responseCache;
+    private final GeminiCallGuard callGuard;
+    private final GeminiHedgePolicy hedgePolicy;
+    private final GeminiRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Environment env;
 
     private static final int MAX_RETRIES = 5;
     private static final long BASE_DELAY_MS = 300L;
+    private static final int EMBED_MAX_CHARS = 3000;
+    private static final ObjectMapper JSON = new ObjectMapper();
 
 
     /* ============================================================
-     *  ⭐ pro → flash 자동 fallback 스마트 요청
+     *  ⭐ pro → flash 자동 fallback 스마트 요청 (blocking 어댑터)
      * ============================================================ */
     public String generateSmartJson(String prompt) {
+        return generateSmartJson(prompt, GeminiCaller.DEFAULT);
+    }
 
-        // 1) pro 모델 우선 요청
-        String proResult = generateJson(proModel, prompt);
+    public String generateSmartJson(String prompt, GeminiCaller caller) {
+        return generateSmartJson(prompt, caller, GeminiPriority.INTERACTIVE);
+    }
 
-        if (proResult != null && !proResult.isBlank()) {
-            log.info("✨ Gemini Smart: pro 모델 응답 성공");
-            return proResult;
-        }
+    /** 배치 작업 등은 BACKGROUND 로 호출해 사용자 요청에 쿼터를 양보 */
+    public String generateSmartJson(String prompt, GeminiCaller caller, GeminiPriority priority) {
+        return blockOrEmpty(generateSmartJsonAsync(prompt, caller).contextWrite(priority.context()));
+    }
 
-        log.warn("⚠️ Gemini Smart: pro 실패 → flash fallback 실행");
+    /** 응답 형식을 DTO 스키마로 강제 (responseMimeType=application/json) */
+    public String generateSmartJson(String prompt, GeminiCaller caller, GeminiSchema schema) {
+        return blockOrEmpty(generateSmartJsonAsync(prompt, caller, schema));
+    }
 
-        // 2) flash fallback
-        String flashResult = generateJson(flashModel, prompt);
+    public Mono<String> generateSmartJsonAsync(String prompt) {
+        return generateSmartJsonAsync(prompt, GeminiCaller.DEFAULT);
+    }
 
-        if (flashResult != null && !flashResult.isBlank()) {
-            log.info("✨ Gemini Smart: flash fallback 성공");
-            return flashResult;
-        }
+    public Mono<String> generateSmartJsonAsync(String prompt, GeminiCaller caller) {
+        return generateSmartJsonAsync(prompt, caller, null);
+    }
 
-        // 3) flash도 실패하면 빈 문자열 반환
-        log.error("❌ Gemini Smart: flash까지 실패 → 최종 빈 응답 반환");
-        return "";
+    /** 호출자 설정에 따라 hedging 또는 순차 fallback — schema 가 null 이면 일반 텍스트 응답 */
+    public Mono<String> generateSmartJsonAsync(String prompt, GeminiCaller caller, GeminiSchema schema) {
+        String limited = limitPrompt(prompt, caller);
+        return hedgePolicy.isEnabled(caller)
+                ? hedgedSmartJson(limited, caller, schema)
+                : sequentialSmartJson(limited, schema);
+    }
+
+    /** 호출자별 최대 글자 수로 자름 — 공개 진입점에서 한 번만 적용 (내부 경로는 자른 프롬프트를 그대로 전달) */
+    private String limitPrompt(String prompt, GeminiCaller caller) {
+        int maxChars = env.getProperty(
+                "gemini.prompt.callers." + caller.key() + ".max-chars", Integer.class, promptMaxChars);
+
+        return prompt.length() > maxChars
+                ? prompt.substring(0, maxChars) + "\n...(truncated)..."
+                : prompt;
+    }
+
+    /**
+     * pro 응답이 비면 flash 로 한 번 더, 둘 다 실패하면 빈 문자열
+     * pro 가 차단(서킷 오픈/한도 초과)되면 바로 flash, flash 까지 차단되면 GeminiUnavailableException
+     */
+    private Mono<String> sequentialSmartJson(String prompt, GeminiSchema schema) {
+
+        // 1) pro 모델 우선 요청
+        return generateJsonAsync(proModel, prompt, schema, new AtomicBoolean())
+                .onErrorResume(GeminiUnavailableException.class, e -> Mono.just(""))
+                .flatMap(proResult -> {
+                    if (!proResult.isBlank()) {
+                        log.info("✨ Gemini Smart: pro 모델 응답 성공");
+                        return Mono.just(proResult);
+                    }
+
+                    log.warn("⚠️ Gemini Smart: pro 실패 → flash fallback 실행");
+
+                    // 2) flash fallback
+                    return generateJsonAsync(flashModel, prompt, schema, new AtomicBoolean())
+                            .doOnNext(flashResult -> {
+                                if (!flashResult.isBlank()) {
+                                    log.info("✨ Gemini Smart: flash fallback 성공");
+                                } else {
+                                    // 3) flash도 실패하면 빈 문자열 반환
+                                    log.error("❌ Gemini Smart: flash까지 실패 → 최종 빈 응답 반환");
+                                }
+                            });
+                });
     }
 
 
     /* ============================================================
-     *  🔥 generateJson — 안정화 버전
+     *  🏁 hedging — pro 가 지연 기준(percentile) 안에 답하지 않으면 flash 동시 요청
+     *  먼저 도착한 유효 JSON 을 반환하고 나머지 요청은 취소
      * ============================================================ */
-    public String generateJson(String model, String prompt) {
+    private Mono<String> hedgedSmartJson(String prompt, GeminiCaller caller, GeminiSchema schema) {
+
+        hedgePolicy.deposit();
+        Duration delay = hedgePolicy.hedgeDelay(caller);
+
+        // flash 는 한 번만 요청 — pro 무효 응답 fallback 과 hedge 가 같은 결과를 공유
+        AtomicBoolean flashStarted = new AtomicBoolean(false);
+        Mono<String> flash = Mono.defer(() -> {
+                    flashStarted.set(true);
+                    return validFlash(prompt, schema);
+                })
+                .cache();
+
+        // pro 가 flash fallback 을 시작했거나 종료(실패 포함)하면 hedge 대기도 즉시 끝냄
+        // → pro·flash 가 모두 빨리 실패하면 hedge 지연을 기다리지 않고 바로 빈 응답
+        Sinks.One<Boolean> hedgeNotNeeded = Sinks.one();
+
+        // 1) pro 요청 — 실패/무효 응답이면 hedge 를 기다리지 않고 바로 flash
+        //    지연 샘플은 캐시를 거치지 않은 실제 호출만 (캐시 적중 ~0ms 가 percentile 을 끌어내리지 않도록)
+        Mono<String> primary = Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    AtomicBoolean called = new AtomicBoolean(false);
+                    return generateJsonAsync(proModel, prompt, schema, called)
+                            .doOnNext(v -> {
+                                if (called.get() && !v.isBlank()) hedgePolicy.recordProLatency(elapsedMillis(start));
+                            })
+                            // hedge 에 져서 취소된 pro 호출 — 실제 소요는 최소 hedge 지연 이상
+                            .doOnCancel(() -> {
+                                if (called.get()) {
+                                    hedgePolicy.recordProLatency(Math.max(elapsedMillis(start), delay.toMillis()));
+                                }
+                            })
+                            .onErrorResume(GeminiUnavailableException.class, e -> Mono.just(""));
+                })
+                .flatMap(proResult -> {
+                    if (isValidJson(proResult)) {
+                        hedgePolicy.record(caller, "won-pro");
+                        return Mono.just(proResult);
+                    }
+                    log.warn("⚠️ Gemini Smart: pro 실패 → flash fallback 실행");
+                    hedgeNotNeeded.tryEmitValue(true);
+                    return flash;
+                })
+                .doFinally(signal -> hedgeNotNeeded.tryEmitValue(true));
+
+        // 2) 지연 기준 초과 시 flash 추가 요청 (budget 이 있을 때만, pro 무효 응답으로 이미 요청 중이면 생략)
+        Mono<String> hedge = Mono.delay(delay)
+                .takeUntilOther(hedgeNotNeeded.asMono())
+                .flatMap(tick -> {
+                    if (flashStarted.get()) return Mono.empty();
+                    if (!hedgePolicy.tryWithdraw()) {
+                        hedgePolicy.record(caller, "skipped-budget");
+                        return Mono.empty();
+                    }
+                    hedgePolicy.record(caller, "fired");
+                    log.info("🏁 Gemini Smart: pro {}ms 초과 → flash hedge 요청 ({})", delay.toMillis(), caller.key());
+                    return flash.doOnNext(v -> hedgePolicy.record(caller, "won-flash"));
+                });
+
+        // 3) 먼저 값을 낸 쪽 채택, 나머지는 취소 — 둘 다 실패하면 빈 문자열 (차단이면 예외 유지)
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorResume(NoSuchElementException.class, e -> {
+                    log.error("❌ Gemini Smart: flash까지 실패 → 최종 빈 응답 반환");
+                    GeminiUnavailableException unavailable = findUnavailable(e);
+                    return unavailable != null ? Mono.error(unavailable) : Mono.just("");
+                });
+    }
 
-        // prompt 길이 제한 — 너무 길면 모델이 silence
-        if (prompt.length() > 6000) {
-            prompt = prompt.substring(0, 6000) + "\n...(truncated)...";
-        }
+    private Mono<String> validFlash(String prompt, GeminiSchema schema) {
+        return generateJsonAsync(flashModel, prompt, schema, new AtomicBoolean()).filter(this::isValidJson);
+    }
 
-        for (int retry = 0; retry < MAX_RETRIES; retry++) {
-            try {
-                String endpoint = String.format("/%s:generateContent", model);
-
-                Map<String, Object> body = Map.of(
-                        "contents", List.of(
-                                Map.of(
-                                        "parts", List.of(
-                                                Map.of("text", prompt)
-                                        )
-                                )
-                        )
-                );
+    /** 응답 전체가 JSON 객체인지 — 분석기의 엄격 파싱(readValue)과 같은 기준 */
+    private boolean isValidJson(String text) {
+        if (text == null || text.isBlank()) return false;
 
-                Map<?, ?> response = geminiWebClient.post()
-                        .uri(uri -> uri
-                                .path(endpoint)
-                                .queryParam("key", apiKey)
-                                .build())
-                        .bodyValue(body)
-                        .retrieve()
-                        .onStatus(
-                                status -> status.is4xxClientError(),
-                                res -> Mono.error(new RuntimeException("Gemini 요청 오류(4xx): " + res.statusCode()))
-                        )
-                        .onStatus(
-                                status -> status.is5xxServerError(),
-                                res -> Mono.error(new RuntimeException("Gemini 서버 오류(5xx): " + res.statusCode()))
-                        )
-                        .bodyToMono(Map.class)
-                        .timeout(Duration.ofSeconds(30))
-                        .block();
+        try {
+            return JSON.readTree(text).isObject();
+        } catch (Exception ex) {
+            return false;
+        }
+    }
 
-                if (response != null) {
-                    return extractText(response);
-                }
+    private GeminiUnavailableException findUnavailable(Throwable e) {
+        if (e == null) return null;
+        if (e instanceof GeminiUnavailableException unavailable) return unavailable;
 
-                throw new RuntimeException("Gemini 응답 null");
+        for (Throwable suppressed : e.getSuppressed()) {
+            GeminiUnavailableException found = findUnavailable(suppressed);
+            if (found != null) return found;
+        }
+        return e.getCause() == e ? null : findUnavailable(e.getCause());
+    }
 
-            } catch (Exception e) {
+    private long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
 
-                long delay = (long) (BASE_DELAY_MS * Math.pow(2, retry));
 
-                log.warn("⚠️ Gemini retry {}/{} after {}ms — reason: {}",
-                        retry + 1, MAX_RETRIES, delay, e.getMessage());
+    /* ============================================================
+     *  🔥 generateJson — blocking 어댑터
+     * ============================================================ */
+    public String generateJson(String model, String prompt) {
+        return blockOrEmpty(generateJsonAsync(model, prompt));
+    }
 
-                try { Thread.sleep(delay); } catch (InterruptedException ignored) {}
-            }
+    /** 동기 호출자는 기존처럼 차단 시에도 빈 문자열을 받는다 */
+    private String blockOrEmpty(Mono<String> call) {
+        try {
+            return call.block();
+        } catch (GeminiUnavailableException e) {
+            return "";
         }
-
-        log.error("❌ Gemini generateJson 실패 — 모든 재시도 끝");
-        return "";
     }
 
     /** flash 기본 */
@@ -134,119 +292,351 @@ public class GeminiClient {
 
 
     /* ============================================================
-     *  🔥 embed — 안정화 버전
+     *  🔥 generateJsonAsync — 논블로킹 + retryWhen 지수 백오프
+     *  재시도 대기 중에도 스레드를 점유하지 않으며, 최종 실패 시 빈 문자열
+     *  같은 (model, prompt) 는 응답 캐시에서 바로 반환
+     *  서킷 오픈/동시성 한도 초과 시 재시도 없이 GeminiUnavailableException
      * ============================================================ */
-    public float[] embed(String text) {
+    public Mono<String> generateJsonAsync(String model, String prompt) {
+        return generateJsonAsync(model, prompt, null);
+    }
 
-        if (text == null || text.isBlank()) {
-            return new float[0];
-        }
+    /** 스키마가 다르면 응답도 다르므로 캐시 키에 스키마를 포함 */
+    public Mono<String> generateJsonAsync(String model, String prompt, GeminiSchema schema) {
+        return generateJsonAsync(model, limitPrompt(prompt, GeminiCaller.DEFAULT), schema, new AtomicBoolean());
+    }
 
-        if (text.length() > 3000) {
-            text = text.substring(0, 3000);
-        }
+    /**
+     * called: 캐시 미스로 실제 요청을 보냈으면 true (hedge 지연 샘플 판별용)
+     * 스키마 없이 보낸 요청(스키마 미지정 / structured-output 꺼짐)은 코드블록·설명이 섞일 수 있으므로
+     * 응답에서 JSON 객체만 남겨 반환 → 호출자는 어느 모드든 응답 전체를 그대로 DTO 로 파싱
+     */
+    private Mono<String> generateJsonAsync(String model, String prompt, GeminiSchema schema, AtomicBoolean called) {
+        GeminiSchema effective = structuredOutputEnabled ? schema : null;
+        String cacheKey = effective == null ? prompt : prompt + "\0" + effective.json();
+        Mono<String> response = responseCache.getOrLoad(model, cacheKey, () -> {
+            called.set(true);
+            return requestGenerate(model, prompt, effective);
+        });
+        return effective == null ? response.map(GeminiClient::extractJsonObject) : response;
+    }
 
-        for (int retry = 0; retry < MAX_RETRIES; retry++) {
-            try {
+    /** ```json 코드블록 / 앞뒤 설명 제거 — 첫 '{' ~ 마지막 '}' (없으면 그대로) */
+    static String extractJsonObject(String text) {
+        if (text == null || text.isBlank()) return text;
 
-                String endpoint = String.format("/%s:embedContent", embedModel);
+        int s = text.indexOf('{');
+        int e = text.lastIndexOf('}');
+        return s >= 0 && e > s ? text.substring(s, e + 1) : text;
+    }
 
-                Map<String, Object> body = Map.of(
-                        "model", embedModel,
-                        "content", Map.of(
-                                "parts", List.of(
-                                        Map.of("text", text)
-                                )
-                        )
-                );
+    private Mono<String> requestGenerate(String model, String prompt, GeminiSchema schema) {
 
-                Map<?, ?> response = geminiWebClient.post()
-                        .uri(uri -> uri
-                                .path(endpoint)
-                                .queryParam("key", apiKey)
-                                .build())
-                        .bodyValue(body)
-                        .retrieve()
-                        .onStatus(
-                                status -> status.is4xxClientError(),
-                                res -> Mono.error(new RuntimeException("Gemini 임베딩 오류(4xx): " + res.statusCode()))
-                        )
-                        .onStatus(
-                                status -> status.is5xxServerError(),
-                                res -> Mono.error(new RuntimeException("Gemini 임베딩 서버 오류(5xx): " + res.statusCode()))
+        Map<String, Object> body = generateBody(prompt, schema);
+
+        return post(model, String.format("/%s:generateContent", model), body,
+                        GenerateContentResponse.class, "Gemini", Duration.ofSeconds(30))
+                .doOnNext(response -> recordUsage(model, response.usageMetadata()))
+                .map(GenerateContentResponse::text)
+                .retryWhen(backoff("generateJson"))
+                .onErrorResume(e -> !(e instanceof GeminiUnavailableException), e -> {
+                    log.error("❌ Gemini generateJson 실패 — 모든 재시도 끝: {}", e.getMessage());
+                    return Mono.just("");
+                });
+    }
+
+    /** prompt 는 limitPrompt 로 이미 길이 제한된 상태 */
+    private Map<String, Object> generateBody(String text, GeminiSchema schema) {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("contents", List.of(
+                Map.of(
+                        "parts", List.of(
+                                Map.of("text", text)
                         )
-                        .bodyToMono(Map.class)
-                        .timeout(Duration.ofSeconds(30))
-                        .block();
+                )
+        ));
+
+        // 구조화 출력 — 모델이 스키마에 맞는 JSON 만 생성 (코드블록/설명 없음)
+        if (schema != null) {
+            body.put("generationConfig", Map.of(
+                    "responseMimeType", "application/json",
+                    "responseSchema", schema.schema()
+            ));
+        }
+        return body;
+    }
 
-                if (response != null) {
-                    return extractEmbedding(response);
-                }
+    /** flash 기본 */
+    public Mono<String> generateJsonAsync(String prompt) {
+        return generateJsonAsync(flashModel, prompt);
+    }
 
-                throw new RuntimeException("Gemini 임베딩 응답 null");
 
-            } catch (Exception e) {
+    /* ============================================================
+     *  🌊 streamGenerateContent — 생성되는 대로 텍스트 조각 전달
+     *  pro 스트림이 첫 조각 전에 실패/차단되면 일반 smart 호출(pro → flash)의 전체 응답을 한 조각으로
+     *  첫 조각 이후의 실패는 그대로 에러 (이미 보낸 조각을 되돌릴 수 없으므로 재시도 없음)
+     *  응답 캐시 / hedge 는 적용하지 않음
+     * ============================================================ */
+    public Flux<String> streamSmartJson(String prompt, GeminiCaller caller, GeminiSchema schema) {
+        return Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean(false);
+            Mono<String> whole = Mono.defer(() -> generateSmartJsonAsync(prompt, caller, schema));
+
+            return stream(proModel, limitPrompt(prompt, caller), schema)
+                    .doOnNext(chunk -> emitted.set(true))
+                    .onErrorResume(e -> !emitted.get(), e -> {
+                        log.warn("⚠️ Gemini stream 실패 (첫 조각 전) → 일반 호출로 fallback: {}", e.getMessage());
+                        return whole.flux();
+                    })
+                    .switchIfEmpty(whole.flux());
+        });
+    }
 
-                long delay = (long) (BASE_DELAY_MS * Math.pow(2, retry));
+    public Flux<String> streamGenerate(String model, String prompt, GeminiSchema schema) {
+        return stream(model, limitPrompt(prompt, GeminiCaller.DEFAULT), schema);
+    }
 
-                log.warn("⚠️ Gemini embed retry {}/{} after {}ms — reason: {}",
-                        retry + 1, MAX_RETRIES, delay, e.getMessage());
+    private Flux<String> stream(String model, String prompt, GeminiSchema schema) {
+        GeminiSchema effective = structuredOutputEnabled ? schema : null;
+        Map<String, Object> body = generateBody(prompt, effective);
+        AtomicReference<GenerateContentResponse.UsageMetadata> usage = new AtomicReference<>();
+
+        // alt=sse — 청크마다 GenerateContentResponse 하나 (data: {...})
+        Flux<String> http = retrieve(String.format("/%s:streamGenerateContent", model), body, "Gemini stream",
+                        MediaType.TEXT_EVENT_STREAM, Map.of("alt", "sse"))
+                .bodyToFlux(GenerateContentResponse.class)
+                // 청크 사이 간격 기준 (전체 생성 시간이 아님)
+                .timeout(Duration.ofSeconds(30))
+                .doOnNext(chunk -> {
+                    if (chunk.usageMetadata() != null) usage.set(chunk.usageMetadata());
+                })
+                .doOnComplete(() -> recordUsage(model, usage.get()))
+                .map(GenerateContentResponse::text)
+                .filter(text -> !text.isEmpty())
+                .doOnError(GeminiHttpException.class, e -> {
+                    if (e.getStatus() == 429) rateLimiter.onRateLimited(model, e.getRetryAfter());
+                });
+
+        return rateLimiter.acquire(model).thenMany(callGuard.protectStream(model, http));
+    }
 
-                try { Thread.sleep(delay); } catch (InterruptedException ignored) {}
-            }
+    /** 모델별 토큰 사용량 — 캐시 히트는 호출이 없으므로 집계되지 않음 */
+    private void recordUsage(String model, GenerateContentResponse.UsageMetadata usage) {
+        if (usage == null) return;
+        meterRegistry.counter("gemini.tokens", "model", model, "type", "prompt")
+                .increment(usage.promptTokenCount());
+        meterRegistry.counter("gemini.tokens", "model", model, "type", "candidates")
+                .increment(usage.candidatesTokenCount());
+    }
+
+
+    /* ============================================================
+     *  🔥 embed — blocking 어댑터
+     * ============================================================ */
+    public float[] embed(String text) {
+        return embedAsync(text).block();
+    }
+
+    /** 단건 임베딩 — 최종 실패 시 빈 배열 */
+    public Mono<float[]> embedAsync(String text) {
+
+        if (text == null || text.isBlank()) {
+            return Mono.just(new float[0]);
         }
 
-        log.error("❌ Gemini embed 실패 — 모든 재시도 끝");
-        return new float[0];
+        Map<String, Object> body = Map.of(
+                "model", embedModel,
+                "content", Map.of(
+                        "parts", List.of(
+                                Map.of("text", truncateForEmbedding(text))
+                        )
+                )
+        );
+
+        return post(embedModel, String.format("/%s:embedContent", embedModel), body,
+                        EmbedContentResponse.class, "Gemini 임베딩", Duration.ofSeconds(30))
+                .map(EmbedContentResponse::values)
+                .retryWhen(backoff("embed"))
+                .onErrorResume(e -> {
+                    log.error("❌ Gemini embed 실패 — 모든 재시도 끝: {}", e.getMessage());
+                    return Mono.just(new float[0]);
+                });
     }
 
 
     /* ============================================================
-     *  🔍 응답 텍스트 추출
+     *  🔥 embedBatch — batchEmbedContents 로 여러 청크를 한 번에
+     *  - 개수(batch-size)와 총 글자 수(batch-max-chars)로 배치를 나누고
+     *  - 최대 batch-concurrency 개의 배치를 동시에 요청
+     *  결과는 입력 순서와 같으며, 실패한 배치의 항목은 빈 배열
      * ============================================================ */
-    private String extractText(Map<?, ?> response) {
-        try {
-            var candidates = (List<?>) response.get("candidates");
-            if (candidates == null || candidates.isEmpty()) return "";
+    public List<float[]> embedBatch(List<String> texts) {
 
-            Map<?, ?> first = (Map<?, ?>) candidates.get(0);
-            Map<?, ?> content = (Map<?, ?>) first.get("content");
-            if (content == null) return "";
+        if (texts == null || texts.isEmpty()) return List.of();
 
-            List<?> parts = (List<?>) content.get("parts");
-            if (parts == null || parts.isEmpty()) return "";
+        List<List<String>> batches = splitBatches(texts);
 
-            Map<?, ?> part = (Map<?, ?>) parts.get(0);
+        List<List<float[]>> results = Flux.fromIterable(batches)
+                .flatMapSequential(this::embedBatchRequest, Math.max(1, embedBatchConcurrency))
+                .collectList()
+                // 문서 임포트는 백그라운드 작업 — 사용자 요청에 쿼터 양보
+                .contextWrite(GeminiPriority.BACKGROUND.context())
+                .block();
 
-            return part.get("text") == null ? "" : part.get("text").toString();
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        if (results != null) results.forEach(vectors::addAll);
 
-        } catch (Exception e) {
-            log.error("❌ extractText 오류: {}", e.getMessage());
-            return "";
+        log.info("🧬 Gemini embedBatch: {}개 텍스트 / {}개 배치", texts.size(), batches.size());
+        return vectors;
+    }
+
+    /** 배치 1건 요청 — 지수 백오프 재시도 후에도 실패하면 빈 벡터로 채움 */
+    private Mono<List<float[]>> embedBatchRequest(List<String> batch) {
+
+        String endpoint = String.format("/%s:batchEmbedContents", embedModel);
+
+        List<Map<String, Object>> requests = batch.stream()
+                .map(text -> Map.<String, Object>of(
+                        "model", "models/" + embedModel,
+                        "content", Map.of("parts", List.of(Map.of("text", text)))
+                ))
+                .toList();
+
+        return post(embedModel, endpoint, Map.of("requests", requests),
+                        EmbedContentResponse.Batch.class, "Gemini 배치 임베딩", Duration.ofSeconds(60))
+                .map(response -> extractBatchEmbeddings(response, batch.size()))
+                .retryWhen(backoff("embedBatch"))
+                .onErrorResume(e -> {
+                    log.error("❌ Gemini embedBatch 실패 — {}개 항목: {}", batch.size(), e.getMessage());
+                    return Mono.just(emptyVectors(batch.size()));
+                });
+    }
+
+    /** 개수/글자 수 한도를 넘지 않도록 순서대로 묶기 */
+    private List<List<String>> splitBatches(List<String> texts) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int chars = 0;
+
+        for (String text : texts) {
+            String t = text == null || text.isBlank() ? " " : truncateForEmbedding(text);
+
+            boolean full = current.size() >= embedBatchSize
+                    || (!current.isEmpty() && chars + t.length() > embedBatchMaxChars);
+            if (full) {
+                batches.add(current);
+                current = new ArrayList<>();
+                chars = 0;
+            }
+            current.add(t);
+            chars += t.length();
         }
+
+        if (!current.isEmpty()) batches.add(current);
+        return batches;
+    }
+
+    private String truncateForEmbedding(String text) {
+        return text.length() > EMBED_MAX_CHARS ? text.substring(0, EMBED_MAX_CHARS) : text;
+    }
+
+    private List<float[]> emptyVectors(int size) {
+        float[][] empty = new float[size][0];
+        return Arrays.asList(empty);
     }
 
 
     /* ============================================================
-     *  🔍 임베딩 추출
+     *  🔸 공통 POST — 4xx/5xx 는 에러 신호로 변환
+     *  시도마다 쿼터 토큰 획득 → 모델별 서킷/동시성 제한 → HTTP
+     *  429 의 Retry-After 는 토큰 버킷에 반영
      * ============================================================ */
-    private float[] extractEmbedding(Map<?, ?> response) {
-        try {
-            Map<?, ?> embedding = (Map<?, ?>) response.get("embedding");
-            if (embedding == null) return new float[0];
+    private <T> Mono<T> post(String model, String endpoint, Map<String, ?> body,
+                             Class<T> responseType, String label, Duration timeout) {
+        Mono<T> http = retrieve(endpoint, body, label, MediaType.APPLICATION_JSON, Map.of())
+                .bodyToMono(responseType)
+                .timeout(timeout)
+                .doOnError(GeminiHttpException.class, e -> {
+                    if (e.getStatus() == 429) rateLimiter.onRateLimited(model, e.getRetryAfter());
+                });
+
+        return rateLimiter.acquire(model).then(callGuard.protect(model, http));
+    }
 
-            List<?> values = (List<?>) embedding.get("values");
-            if (values == null) return new float[0];
+    private WebClient.ResponseSpec retrieve(String endpoint, Map<String, ?> body, String label,
+                                            MediaType accept, Map<String, String> params) {
+        return geminiWebClient.post()
+                .uri(uri -> {
+                    uri.path(endpoint).queryParam("key", apiKey);
+                    params.forEach(uri::queryParam);
+                    return uri.build();
+                })
+                .accept(accept)
+                .bodyValue(body)
+                .retrieve()
+                .onStatus(
+                        status -> status.value() == 429,
+                        res -> Mono.error(new GeminiHttpException(label + " 쿼터 초과(429)", 429,
+                                parseRetryAfter(res.headers().asHttpHeaders().getFirst("Retry-After"))))
+                )
+                .onStatus(
+                        status -> status.is4xxClientError(),
+                        res -> Mono.error(new GeminiHttpException(label + " 요청 오류(4xx): " + res.statusCode(),
+                                res.statusCode().value()))
+                )
+                .onStatus(
+                        status -> status.is5xxServerError(),
+                        res -> Mono.error(new GeminiHttpException(label + " 서버 오류(5xx): " + res.statusCode(),
+                                res.statusCode().value()))
+                );
+    }
 
-            float[] vector = new float[values.size()];
-            for (int i = 0; i < values.size(); i++) {
-                vector[i] = ((Number) values.get(i)).floatValue();
+    /** Retry-After: 초 단위 숫자 또는 HTTP-date */
+    private Duration parseRetryAfter(String header) {
+        if (header == null || header.isBlank()) return null;
+        try {
+            return Duration.ofSeconds(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration d = Duration.between(ZonedDateTime.now(), at);
+                return d.isNegative() ? Duration.ZERO : d;
+            } catch (Exception ignored) {
+                return null;
             }
-            return vector;
+        }
+    }
+
+    /**
+     * 300ms 부터 두 배씩 (jitter 포함) 최대 MAX_RETRIES 회 시도 — Thread.sleep 없이 타이머로 대기
+     * 차단(GeminiUnavailableException)과 429 외 4xx 는 재시도해도 같은 결과이므로 바로 종료
+     */
+    private Retry backoff(String operation) {
+        return Retry.backoff(MAX_RETRIES - 1, Duration.ofMillis(BASE_DELAY_MS))
+                .filter(e -> !(e instanceof GeminiUnavailableException)
+                        && !(e instanceof GeminiHttpException http && !http.isServerSide()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure())
+                .doBeforeRetry(signal -> log.warn("⚠️ Gemini {} retry {}/{} — reason: {}",
+                        operation, signal.totalRetries() + 1, MAX_RETRIES - 1, signal.failure().getMessage()));
+    }
+
+
+    /* ============================================================
+     *  🔍 batchEmbedContents 응답 — embeddings[i] 가 requests[i] 에 대응
+     * ============================================================ */
+    private List<float[]> extractBatchEmbeddings(EmbedContentResponse.Batch response, int expected) {
+        List<EmbedContentResponse.ContentEmbedding> embeddings = response.embeddings();
+        if (embeddings == null || embeddings.size() != expected) {
+            throw new RuntimeException("Gemini 배치 임베딩 응답 개수 불일치: "
+                    + (embeddings == null ? 0 : embeddings.size()) + " != " + expected);
+        }
 
-        } catch (Exception e) {
-            log.error("❌ extractEmbedding 오류: {}", e.getMessage());
-            return new float[0];
+        List<float[]> vectors = new ArrayList<>(expected);
+        for (EmbedContentResponse.ContentEmbedding embedding : embeddings) {
+            vectors.add(embedding == null ? new float[0] : embedding.valuesOrEmpty());
         }
+        return vectors;
     }
 }
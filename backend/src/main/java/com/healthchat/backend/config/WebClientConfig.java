@@ -10,10 +10,11 @@ public class WebClientConfig {
 
     @Bean
     public WebClient geminiWebClient(WebClient.Builder builder,
-                                     @Value("${gemini.api.key}") String apiKey) {
+                                     @Value("${gemini.api.key}") String apiKey,
+                                     @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta/models}") String baseUrl) {
 
         return builder
-                .baseUrl("https://generativelanguage.googleapis.com/v1beta/models")
+                .baseUrl(baseUrl)
                 .defaultHeader("Content-Type", "application/json")
                 .defaultHeader("x-goog-api-key", apiKey)
                 .build();
@@ -0,0 +1,63 @@
+package com.healthchat.backend.config.gemini;
+
+/**
+ * ✨ AIMD 동시성 제한 (모델 엔드포인트별)
+ * - 성공: limit += 1 / limit (한 "창"마다 +1 씩 천천히 증가)
+ * - 장애(429/5xx/타임아웃) 또는 느린 응답: limit × backoffRatio 로 즉시 감소
+ * 진행 중 요청이 limit 이상이면 대기하지 않고 바로 거절한다.
+ */
+class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long slowCallNanos;
+
+    private double limit;
+    private int inFlight;
+
+    AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long slowCallNanos) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.slowCallNanos = slowCallNanos;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) return false;
+        inFlight++;
+        return true;
+    }
+
+    synchronized void onSuccess(long latencyNanos) {
+        inFlight--;
+        if (latencyNanos > slowCallNanos) {
+            decrease();
+        } else if (limit < maxLimit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    synchronized void onDropped() {
+        inFlight--;
+        decrease();
+    }
+
+    /** 결과와 무관하게 끝난 호출 (4xx, 취소) — 한도는 그대로 */
+    synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
@@ -0,0 +1,108 @@
+package com.healthchat.backend.config.gemini;
+
+import java.time.Duration;
+
+/**
+ * ✨ 모델별 서킷 브레이커 (closed → open → half-open)
+ * - closed: 최근 window 개 호출의 실패율이 임계값 이상이면 open
+ * - open: openDuration 동안 모든 호출 즉시 거절
+ * - half-open: 시험 호출 halfOpenCalls 개만 허용, 모두 성공하면 closed / 하나라도 실패하면 다시 open
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int window;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    /** 최근 호출 결과 링버퍼 (true = 실패) */
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    CircuitBreaker(int window, int minCalls, double failureRate, Duration openDuration, int halfOpenCalls) {
+        this.window = window;
+        this.minCalls = minCalls;
+        this.failureRate = failureRate;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.outcomes = new boolean[window];
+    }
+
+    /** 호출 허용 여부 — open 시간이 지나면 half-open 으로 전환 */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) return false;
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) return false;
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) close();
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+
+        if (state == State.CLOSED && recorded >= minCalls && (double) failures / recorded >= failureRate) {
+            open();
+        }
+    }
+
+    /** 허용됐지만 결과 없이 끝난 호출 (취소 등) — half-open 시험 슬롯 반환 */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) trialsStarted--;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window) {
+            if (outcomes[next]) failures--;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) failures++;
+        next = (next + 1) % window;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        failures = 0;
+        next = 0;
+    }
+}
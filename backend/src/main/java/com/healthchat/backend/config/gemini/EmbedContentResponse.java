@@ -0,0 +1,28 @@
+package com.healthchat.backend.config.gemini;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * embedContent / batchEmbedContents 응답
+ * values 는 Jackson 이 float[] 로 바로 읽는다. (List&lt;Double&gt; 박싱 없음)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EmbedContentResponse(ContentEmbedding embedding) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ContentEmbedding(float[] values) {
+
+        public float[] valuesOrEmpty() {
+            return values == null ? new float[0] : values;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Batch(List<ContentEmbedding> embeddings) {}
+
+    public float[] values() {
+        return embedding == null ? new float[0] : embedding.valuesOrEmpty();
+    }
+}
@@ -0,0 +1,196 @@
+package com.healthchat.backend.config.gemini;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✨ Gemini 호출 보호막 (모델별 서킷 브레이커 + AIMD 동시성 제한)
+ * HTTP 시도 1회 단위로 감싸므로 재시도 중에 서킷이 열리면 남은 재시도도 즉시 중단된다.
+ * 차단된 호출은 네트워크 없이 GeminiUnavailableException 으로 끝난다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeminiCallGuard {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gemini.guard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.guard.circuit.window:20}")
+    private int circuitWindow;
+
+    @Value("${gemini.guard.circuit.min-calls:10}")
+    private int circuitMinCalls;
+
+    @Value("${gemini.guard.circuit.failure-rate:0.5}")
+    private double circuitFailureRate;
+
+    @Value("${gemini.guard.circuit.open-duration:30s}")
+    private Duration circuitOpenDuration;
+
+    @Value("${gemini.guard.circuit.half-open-calls:2}")
+    private int circuitHalfOpenCalls;
+
+    @Value("${gemini.guard.limiter.initial:8}")
+    private int limiterInitial;
+
+    @Value("${gemini.guard.limiter.min:1}")
+    private int limiterMin;
+
+    @Value("${gemini.guard.limiter.max:64}")
+    private int limiterMax;
+
+    @Value("${gemini.guard.limiter.backoff-ratio:0.5}")
+    private double limiterBackoffRatio;
+
+    /** 이보다 느린 성공 응답은 과부하 신호로 보고 한도를 줄인다 */
+    @Value("${gemini.guard.limiter.slow-call:20s}")
+    private Duration limiterSlowCall;
+
+    private final Map<String, ModelGuard> guards = new ConcurrentHashMap<>();
+
+    private record ModelGuard(CircuitBreaker circuit, AimdConcurrencyLimiter limiter) {}
+
+
+    /* ============================================================
+     * 🔸 HTTP 시도 1회 보호 — 구독 시점마다 다시 검사 (retry 재구독 포함)
+     * ============================================================ */
+    public <T> Mono<T> protect(String model, Mono<T> call) {
+        if (!enabled) return call;
+
+        return Mono.defer(() -> {
+            ModelGuard guard = guards.computeIfAbsent(model, this::createGuard);
+
+            if (!guard.circuit().tryAcquire()) {
+                return reject(model, GeminiUnavailableException.Reason.CIRCUIT_OPEN);
+            }
+            if (!guard.limiter().tryAcquire()) {
+                guard.circuit().onIgnored();
+                return reject(model, GeminiUnavailableException.Reason.CONCURRENCY_LIMIT);
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean done = new AtomicBoolean(false);
+
+            return call
+                    .doOnSuccess(v -> {
+                        if (done.compareAndSet(false, true)) {
+                            guard.circuit().onSuccess();
+                            guard.limiter().onSuccess(System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (!done.compareAndSet(false, true)) return;
+
+                        if (isOverload(e)) {
+                            guard.circuit().onFailure();
+                            guard.limiter().onDropped();
+                        } else {
+                            guard.circuit().onSuccess();
+                            guard.limiter().onIgnored();
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL && done.compareAndSet(false, true)) {
+                            guard.circuit().onIgnored();
+                            guard.limiter().onIgnored();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 스트리밍 응답(streamGenerateContent) 보호 — 스트림 하나를 호출 1회로 취급
+     * 긴 응답일수록 전체 시간이 길어지므로 AIMD 지연 판단은 첫 청크까지의 시간으로
+     */
+    public <T> Flux<T> protectStream(String model, Flux<T> call) {
+        if (!enabled) return call;
+
+        return Flux.defer(() -> {
+            ModelGuard guard = guards.computeIfAbsent(model, this::createGuard);
+
+            if (!guard.circuit().tryAcquire()) {
+                return this.<T>reject(model, GeminiUnavailableException.Reason.CIRCUIT_OPEN).flux();
+            }
+            if (!guard.limiter().tryAcquire()) {
+                guard.circuit().onIgnored();
+                return this.<T>reject(model, GeminiUnavailableException.Reason.CONCURRENCY_LIMIT).flux();
+            }
+
+            long start = System.nanoTime();
+            AtomicLong firstChunkNanos = new AtomicLong(-1);
+            AtomicBoolean done = new AtomicBoolean(false);
+
+            return call
+                    .doOnNext(v -> firstChunkNanos.compareAndSet(-1, System.nanoTime() - start))
+                    .doOnComplete(() -> {
+                        if (done.compareAndSet(false, true)) {
+                            long latency = firstChunkNanos.get();
+                            guard.circuit().onSuccess();
+                            guard.limiter().onSuccess(latency >= 0 ? latency : System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (!done.compareAndSet(false, true)) return;
+
+                        if (isOverload(e)) {
+                            guard.circuit().onFailure();
+                            guard.limiter().onDropped();
+                        } else {
+                            guard.circuit().onSuccess();
+                            guard.limiter().onIgnored();
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL && done.compareAndSet(false, true)) {
+                            guard.circuit().onIgnored();
+                            guard.limiter().onIgnored();
+                        }
+                    });
+        });
+    }
+
+    /** 429 / 5xx / 타임아웃 / 연결 오류는 장애, 그 외 4xx 는 요청 문제 */
+    private boolean isOverload(Throwable e) {
+        if (e instanceof GeminiHttpException http) return http.isServerSide();
+        return true;
+    }
+
+    private <T> Mono<T> reject(String model, GeminiUnavailableException.Reason reason) {
+        meterRegistry.counter("gemini.guard.rejected", "model", model, "reason", reason.name()).increment();
+        log.warn("⛔ Gemini 호출 차단: model={}, reason={}", model, reason);
+        return Mono.error(new GeminiUnavailableException(model, reason));
+    }
+
+    private ModelGuard createGuard(String model) {
+        ModelGuard guard = new ModelGuard(
+                new CircuitBreaker(circuitWindow, circuitMinCalls, circuitFailureRate,
+                        circuitOpenDuration, circuitHalfOpenCalls),
+                new AimdConcurrencyLimiter(limiterInitial, limiterMin, limiterMax,
+                        limiterBackoffRatio, limiterSlowCall.toNanos())
+        );
+
+        meterRegistry.gauge("gemini.guard.limit", Tags.of("model", model),
+                guard.limiter(), AimdConcurrencyLimiter::limit);
+        meterRegistry.gauge("gemini.guard.in-flight", Tags.of("model", model),
+                guard.limiter(), AimdConcurrencyLimiter::inFlight);
+        meterRegistry.gauge("gemini.guard.circuit-open", Tags.of("model", model),
+                guard.circuit(), c -> c.state() == CircuitBreaker.State.CLOSED ? 0 : 1);
+        return guard;
+    }
+}
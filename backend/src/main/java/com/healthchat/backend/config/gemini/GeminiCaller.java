@@ -0,0 +1,19 @@
+package com.healthchat.backend.config.gemini;
+
+/**
+ * Gemini 호출 주체 — 호출자별 정책(hedging 등)을 설정으로 나누기 위한 구분값
+ * 설정 키는 소문자 이름을 사용한다. (예: gemini.hedge.callers.routing.enabled)
+ */
+public enum GeminiCaller {
+    ROUTING,
+    MEAL,
+    EXERCISE,
+    EMOTION,
+    FUSED,
+    COACH,
+    DEFAULT;
+
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,113 @@
+package com.healthchat.backend.config.gemini;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * ✨ pro/flash hedging 정책
+ * - pro 응답 지연이 호출자별 percentile 을 넘으면 flash 를 추가로 보낸다
+ * - 지연 기준은 최근 pro 응답 시간 분포에서 계산 (표본이 적으면 initial-delay)
+ * - hedge budget: smart 호출마다 budget-ratio 만큼 적립, hedge 1회에 1 소모
+ *   → 장애 시에도 추가 요청이 전체의 budget-ratio 비율을 넘지 않음
+ * 호출자별 설정: gemini.hedge.callers.{routing|meal|exercise|emotion|coach|default}.enabled / percentile
+ */
+@Component
+@RequiredArgsConstructor
+public class GeminiHedgePolicy {
+
+    private final Environment env;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gemini.hedge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.hedge.initial-delay:3s}")
+    private Duration initialDelay;
+
+    @Value("${gemini.hedge.min-delay:500ms}")
+    private Duration minDelay;
+
+    @Value("${gemini.hedge.max-delay:15s}")
+    private Duration maxDelay;
+
+    @Value("${gemini.hedge.budget-ratio:0.1}")
+    private double budgetRatio;
+
+    @Value("${gemini.hedge.budget-max:10}")
+    private double budgetMax;
+
+    /** percentile 계산에 필요한 최소 표본 수 */
+    @Value("${gemini.hedge.min-samples:20}")
+    private int minSamples;
+
+    private final long[] latencies = new long[256];
+    private int latencyNext;
+    private int latencyCount;
+
+    private double budget;
+
+
+    /* ============================================================
+     * 🔸 호출자별 설정
+     * ============================================================ */
+    public boolean isEnabled(GeminiCaller caller) {
+        return enabled && env.getProperty(
+                "gemini.hedge.callers." + caller.key() + ".enabled", Boolean.class, false);
+    }
+
+    /** 이 시간 안에 pro 가 응답하지 않으면 flash 를 보낸다 */
+    public Duration hedgeDelay(GeminiCaller caller) {
+        double percentile = env.getProperty(
+                "gemini.hedge.callers." + caller.key() + ".percentile", Double.class, 0.9);
+
+        long millis = percentileMillis(percentile);
+        if (millis < 0) return initialDelay;
+
+        return Duration.ofMillis(Math.max(minDelay.toMillis(), Math.min(maxDelay.toMillis(), millis)));
+    }
+
+
+    /* ============================================================
+     * 🔸 hedge budget
+     * ============================================================ */
+    public synchronized void deposit() {
+        budget = Math.min(budgetMax, budget + budgetRatio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        if (budget < 1.0) return false;
+        budget -= 1.0;
+        return true;
+    }
+
+
+    /* ============================================================
+     * 🔸 pro 응답 시간 기록 (최근 256건)
+     * ============================================================ */
+    public synchronized void recordProLatency(long millis) {
+        latencies[latencyNext] = millis;
+        latencyNext = (latencyNext + 1) % latencies.length;
+        latencyCount = Math.min(latencyCount + 1, latencies.length);
+    }
+
+    private synchronized long percentileMillis(double percentile) {
+        if (latencyCount < minSamples) return -1;
+
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+
+        int idx = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    /** fired / skipped-budget / won-pro / won-flash */
+    public void record(GeminiCaller caller, String result) {
+        meterRegistry.counter("gemini.hedge", "caller", caller.key(), "result", result).increment();
+    }
+}
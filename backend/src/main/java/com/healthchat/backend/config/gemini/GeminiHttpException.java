@@ -0,0 +1,35 @@
+package com.healthchat.backend.config.gemini;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Gemini HTTP 오류 응답 (상태 코드 포함)
+ * 429 / 5xx 는 모델 장애로 보고, 그 외 4xx 는 요청 자체의 문제로 본다.
+ */
+@Getter
+public class GeminiHttpException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    /** 429 응답의 Retry-After (없으면 null) */
+    private final Duration retryAfter;
+
+    public GeminiHttpException(String message, int status) {
+        this(message, status, null);
+    }
+
+    public GeminiHttpException(String message, int status, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    /** 서킷/리미터에 장애로 기록할 오류인지 */
+    public boolean isServerSide() {
+        return status == 429 || status >= 500;
+    }
+}
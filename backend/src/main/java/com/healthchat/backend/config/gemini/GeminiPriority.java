@@ -0,0 +1,26 @@
+package com.healthchat.backend.config.gemini;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Gemini 호출 우선순위
+ * - INTERACTIVE: 사용자가 응답을 기다리는 요청 (/api/ai/analyze 등) — 기본값
+ * - BACKGROUND: 가이드라인 임포트, 코치 배치 작업 — 버킷에 예약분을 남겨두고만 사용
+ * 리액티브 체인에서는 Reactor Context 로 전달한다.
+ */
+public enum GeminiPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final String CONTEXT_KEY = GeminiPriority.class.getName();
+
+    /** mono.contextWrite(GeminiPriority.BACKGROUND.context()) */
+    public Context context() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public static GeminiPriority from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+    }
+}
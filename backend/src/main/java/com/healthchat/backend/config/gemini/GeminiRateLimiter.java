@@ -0,0 +1,196 @@
+package com.healthchat.backend.config.gemini;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✨ Gemini 쿼터 토큰 버킷 (모델별, 여러 인스턴스가 공유)
+ * - Redis Lua 스크립트로 원자적으로 토큰 차감 (시간은 Redis 서버 TIME 사용)
+ * - Redis 장애 시 인스턴스 로컬 버킷으로 fallback
+ * - BACKGROUND 요청은 버킷의 background-reserve 비율만큼을 남겨둔 채로만 토큰 사용
+ *   → 버킷이 부족해지면 INTERACTIVE 요청이 먼저 토큰을 가져간다
+ * - 429 Retry-After 를 받으면 그 시간 동안 버킷 전체를 막는다
+ * 대기는 Mono.delay 로 하므로 스레드를 점유하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeminiRateLimiter {
+
+    private static final String KEY_PREFIX = "gemini:bucket:";
+
+    /** KEYS[1]=버킷, ARGV=capacity, tokensPerMs, reserve → 0(획득) 또는 대기 ms */
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local reserve = tonumber(ARGV[3])
+
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts', 'blocked')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            local blocked = tonumber(state[3]) or 0
+
+            if now < blocked then
+              return blocked - now
+            end
+
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+
+            local wait = 0
+            if tokens - 1 >= reserve then
+              tokens = tokens - 1
+            else
+              wait = math.ceil((1 + reserve - tokens) / rate)
+            end
+
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 60000)
+            return wait
+            """, Long.class);
+
+    /** KEYS[1]=버킷, ARGV[1]=차단 ms */
+    private static final RedisScript<Long> BLOCK = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local until_ms = now + tonumber(ARGV[1])
+            local blocked = tonumber(redis.call('HGET', KEYS[1], 'blocked')) or 0
+            if until_ms > blocked then
+              redis.call('HSET', KEYS[1], 'blocked', until_ms)
+              redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[1]) + 60000)
+            end
+            return until_ms
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Environment env;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gemini.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.rate-limit.redis.enabled:true}")
+    private boolean redisEnabled;
+
+    /** 모델별 설정이 없을 때의 분당 요청 수 */
+    @Value("${gemini.rate-limit.rpm:60}")
+    private int defaultRpm;
+
+    @Value("${gemini.rate-limit.burst:10}")
+    private int defaultBurst;
+
+    /** BACKGROUND 가 건드리지 않는 버킷 비율 */
+    @Value("${gemini.rate-limit.background-reserve:0.3}")
+    private double backgroundReserve;
+
+    @Value("${gemini.rate-limit.max-wait.interactive:3s}")
+    private Duration interactiveMaxWait;
+
+    @Value("${gemini.rate-limit.max-wait.background:2m}")
+    private Duration backgroundMaxWait;
+
+    /** Retry-After 헤더가 없는 429 의 기본 차단 시간 */
+    @Value("${gemini.rate-limit.default-retry-after:1s}")
+    private Duration defaultRetryAfter;
+
+    private final Map<String, LocalTokenBucket> localBuckets = new ConcurrentHashMap<>();
+
+
+    /* ============================================================
+     * 🔸 토큰 1개 획득 — 우선순위는 Reactor Context 에서 읽음
+     * ============================================================ */
+    public Mono<Void> acquire(String model) {
+        if (!enabled) return Mono.empty();
+
+        return Mono.deferContextual(ctx -> {
+            GeminiPriority priority = GeminiPriority.from(ctx);
+            long deadline = System.currentTimeMillis() + maxWait(priority).toMillis();
+            return acquire(model, priority, deadline);
+        });
+    }
+
+    private Mono<Void> acquire(String model, GeminiPriority priority, long deadline) {
+        return tryAcquire(model, priority).flatMap(waitMs -> {
+            if (waitMs <= 0) return Mono.<Void>empty();
+
+            if (System.currentTimeMillis() + waitMs > deadline) {
+                meterRegistry.counter("gemini.rate-limit.rejected",
+                        "model", model, "priority", priority.name()).increment();
+                return Mono.error(new GeminiUnavailableException(model, GeminiUnavailableException.Reason.RATE_LIMITED));
+            }
+
+            meterRegistry.counter("gemini.rate-limit.waited",
+                    "model", model, "priority", priority.name()).increment();
+            return Mono.delay(Duration.ofMillis(waitMs)).then(acquire(model, priority, deadline));
+        });
+    }
+
+    /** 0 = 획득, 양수 = 대기 ms */
+    private Mono<Long> tryAcquire(String model, GeminiPriority priority) {
+        double capacity = burst(model);
+        double tokensPerMs = rpm(model) / 60_000.0;
+        double reserve = priority == GeminiPriority.BACKGROUND ? capacity * backgroundReserve : 0;
+
+        if (!redisEnabled) {
+            return Mono.just(localBucket(model).tryAcquire(reserve));
+        }
+
+        return Mono.fromCallable(() -> redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + model),
+                        String.valueOf(capacity), String.valueOf(tokensPerMs), String.valueOf(reserve)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("⚠ [RateLimit] Redis 버킷 사용 불가 → 로컬 버킷: {}", e.getMessage());
+                    return Mono.just(localBucket(model).tryAcquire(reserve));
+                });
+    }
+
+
+    /* ============================================================
+     * 🔸 429 Retry-After 반영 — 모든 인스턴스가 그 시간 동안 대기
+     * ============================================================ */
+    public void onRateLimited(String model, Duration retryAfter) {
+        if (!enabled) return;
+
+        long millis = (retryAfter != null ? retryAfter : defaultRetryAfter).toMillis();
+        log.warn("⏳ [RateLimit] 429 수신: model={}, {}ms 동안 버킷 차단", model, millis);
+
+        localBucket(model).blockFor(millis);
+        if (!redisEnabled) return;
+
+        Mono.fromCallable(() -> redisTemplate.execute(BLOCK, List.of(KEY_PREFIX + model), String.valueOf(millis)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("⚠ [RateLimit] Redis 차단 기록 실패: {}", e.getMessage()));
+    }
+
+    private LocalTokenBucket localBucket(String model) {
+        return localBuckets.computeIfAbsent(model,
+                m -> new LocalTokenBucket(burst(m), rpm(m) / 60_000.0));
+    }
+
+    private int rpm(String model) {
+        return env.getProperty("gemini.rate-limit.models[" + model + "].rpm", Integer.class, defaultRpm);
+    }
+
+    private int burst(String model) {
+        return env.getProperty("gemini.rate-limit.models[" + model + "].burst", Integer.class, defaultBurst);
+    }
+
+    private Duration maxWait(GeminiPriority priority) {
+        return priority == GeminiPriority.BACKGROUND ? backgroundMaxWait : interactiveMaxWait;
+    }
+}
@@ -0,0 +1,136 @@
+package com.healthchat.backend.config.gemini;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * ✨ Gemini generate 응답 캐시 (content-addressed)
+ * 키 = SHA-256(model + prompt) → 같은 모델에 같은 프롬프트면 LLM 호출 없이 재사용
+ *
+ * - 1차: Caffeine (W-TinyLFU, 크기 + TTL 제한) — 동시에 들어온 같은 요청도 1번만 호출
+ * - 2차: Redis (선택, gemini.cache.redis.enabled) — 인스턴스 간 공유
+ * - 빈 응답(실패)은 저장하지 않는다
+ * - 메트릭: gemini.cache.requests{tier=local|redis, result=hit|miss}
+ */
+@Slf4j
+@Component
+public class GeminiResponseCache {
+
+    private static final String REDIS_PREFIX = "gemini:resp:";
+
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final Duration ttl;
+    private final AsyncCache<String, String> local;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public GeminiResponseCache(
+            @Value("${gemini.cache.enabled:true}") boolean enabled,
+            @Value("${gemini.cache.max-size:10000}") long maxSize,
+            @Value("${gemini.cache.ttl:6h}") Duration ttl,
+            @Value("${gemini.cache.redis.enabled:false}") boolean redisEnabled,
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.ttl = ttl;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+
+        meterRegistry.gauge("gemini.cache.size", local, c -> c.synchronous().estimatedSize());
+    }
+
+
+    /* ============================================================
+     * 🔸 캐시 조회 → 없으면 loader 호출 후 저장
+     * ============================================================ */
+    public Mono<String> getOrLoad(String model, String prompt, Supplier<Mono<String>> loader) {
+        if (!enabled) return loader.get();
+
+        String key = key(model, prompt);
+        AtomicBoolean missed = new AtomicBoolean(false);
+
+        // 값이 null 로 끝나면 Caffeine 이 항목을 제거 → 실패 응답은 캐시되지 않음
+        // (future 로 넘어가면서 끊기는 Reactor Context — 우선순위 등 — 는 loader 에 다시 연결)
+        // 같은 키의 동시 호출자는 future 하나를 공유 → 한 구독자의 취소(hedge 패자 등)가 future 를 취소하지 않도록 suppressCancel
+        return Mono.deferContextual(ctx -> Mono.fromFuture(() -> local.get(key, (k, executor) -> {
+                    missed.set(true);
+                    return loadFromRedisOrCall(k, loader).contextWrite(ctx).toFuture();
+                }), true))
+                .doOnSuccess(v -> record("local", !missed.get()))
+                .onErrorResume(CancellationException.class, e -> Mono.empty())
+                .defaultIfEmpty("");
+    }
+
+
+    /* ============================================================
+     * 🔸 2차 캐시(Redis) → 실제 호출
+     * ============================================================ */
+    private Mono<String> loadFromRedisOrCall(String key, Supplier<Mono<String>> loader) {
+        // Redis 적중 시에는 loader 를 만들지도 않음 (실제 호출 여부를 호출자가 판별)
+        Mono<String> call = Mono.defer(loader::get)
+                .filter(v -> v != null && !v.isBlank())
+                .doOnNext(v -> writeRedis(key, v));
+
+        if (!redisEnabled) return call;
+
+        return Mono.fromCallable(() -> (String) redisTemplate.opsForValue().get(REDIS_PREFIX + key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("⚠ [GeminiCache] Redis 조회 실패: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .doOnNext(v -> record("redis", true))
+                .switchIfEmpty(Mono.defer(() -> {
+                    record("redis", false);
+                    return call;
+                }));
+    }
+
+    private void writeRedis(String key, String value) {
+        if (!redisEnabled) return;
+
+        Mono.fromRunnable(() -> redisTemplate.opsForValue().set(REDIS_PREFIX + key, value, ttl))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("⚠ [GeminiCache] Redis 저장 실패: {}", e.getMessage()));
+    }
+
+    private void record(String tier, boolean hit) {
+        meterRegistry.counter("gemini.cache.requests", "tier", tier, "result", hit ? "hit" : "miss")
+                .increment();
+    }
+
+    static String key(String model, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.healthchat.backend.config.gemini;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * ✨ Gemini 구조화 출력(responseSchema) 생성기
+ * DTO 클래스(record / Lombok 필드)를 리플렉션으로 읽어 OpenAPI 부분집합 스키마를 만든다.
+ * - String → STRING, 정수 → INTEGER, 실수 → NUMBER, boolean → BOOLEAN
+ * - enum → STRING + enum 값 목록 (모델이 없는 값을 만들지 못함)
+ * - List&lt;T&gt; → ARRAY(items = T), 그 외 클래스 → OBJECT (재귀)
+ * - 원시 타입이 아닌 필드는 nullable
+ * 서버에서 채우는 필드(message 등)는 exclude 로 제외한다. 중첩 필드는 "meal.message" 처럼 점으로 구분.
+ */
+public final class GeminiSchema {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String name;
+    private final Map<String, Object> schema;
+    private final String json;
+
+    private GeminiSchema(String name, Map<String, Object> schema) {
+        this.name = name;
+        this.schema = schema;
+        try {
+            this.json = JSON.writeValueAsString(schema);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("스키마 직렬화 실패: " + name, e);
+        }
+    }
+
+    public static GeminiSchema of(Class<?> type, String... excludedFields) {
+        Set<String> excluded = Set.of(excludedFields);
+        return new GeminiSchema(type.getSimpleName(), objectSchema(type, excluded, "", new HashSet<>()));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** generationConfig.responseSchema 값 */
+    public Map<String, Object> schema() {
+        return schema;
+    }
+
+    /** 응답 캐시 키에 포함할 직렬화 형태 */
+    public String json() {
+        return json;
+    }
+
+
+    /* ============================================================
+     * 🔸 타입 → 스키마
+     * ============================================================ */
+    private static Map<String, Object> objectSchema(Class<?> type, Set<String> excluded, String path,
+                                                    Set<Class<?>> visiting) {
+        if (!visiting.add(type)) {
+            throw new IllegalArgumentException("순환 참조 타입은 스키마로 만들 수 없음: " + type.getName());
+        }
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+
+        for (Member member : members(type)) {
+            String memberPath = path + member.name();
+            if (excluded.contains(memberPath)) continue;
+            properties.put(member.name(), typeSchema(member.genericType(), excluded, memberPath + ".", visiting));
+        }
+
+        visiting.remove(type);
+
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", "OBJECT");
+        schema.put("properties", properties);
+        schema.put("required", List.copyOf(properties.keySet()));
+        schema.put("propertyOrdering", List.copyOf(properties.keySet()));
+        return schema;
+    }
+
+    private static Map<String, Object> typeSchema(Type type, Set<String> excluded, String path,
+                                                  Set<Class<?>> visiting) {
+        Map<String, Object> schema = new LinkedHashMap<>();
+
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw)) {
+            schema.put("type", "ARRAY");
+            schema.put("items", typeSchema(parameterized.getActualTypeArguments()[0], excluded, path, visiting));
+            return schema;
+        }
+
+        if (!(type instanceof Class<?> cls)) {
+            throw new IllegalArgumentException("지원하지 않는 타입: " + type);
+        }
+
+        if (cls == String.class) {
+            schema.put("type", "STRING");
+        } else if (cls == int.class || cls == long.class || cls == short.class
+                || cls == Integer.class || cls == Long.class || cls == Short.class) {
+            schema.put("type", "INTEGER");
+        } else if (cls == double.class || cls == float.class || cls == Double.class || cls == Float.class) {
+            schema.put("type", "NUMBER");
+        } else if (cls == boolean.class || cls == Boolean.class) {
+            schema.put("type", "BOOLEAN");
+        } else if (cls.isEnum()) {
+            schema.put("type", "STRING");
+            schema.put("enum", Arrays.stream(cls.getEnumConstants()).map(c -> ((Enum<?>) c).name()).toList());
+        } else {
+            schema.putAll(objectSchema(cls, excluded, path, visiting));
+        }
+
+        if (!cls.isPrimitive()) schema.put("nullable", true);
+        return schema;
+    }
+
+    private record Member(String name, Type genericType) {}
+
+    /** record 는 컴포넌트 순서, 일반 클래스는 선언 필드 순서 (static / @JsonIgnore 제외) */
+    private static List<Member> members(Class<?> type) {
+        List<Member> members = new ArrayList<>();
+
+        if (type.isRecord()) {
+            for (RecordComponent c : type.getRecordComponents()) {
+                if (isIgnored(c)) continue;
+                members.add(new Member(c.getName(), c.getGenericType()));
+            }
+            return members;
+        }
+
+        for (Field f : type.getDeclaredFields()) {
+            int mod = f.getModifiers();
+            if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || f.isSynthetic()) continue;
+            if (f.isAnnotationPresent(JsonIgnore.class)) continue;
+            members.add(new Member(f.getName(), f.getGenericType()));
+        }
+        return members;
+    }
+
+    /** @JsonIgnore 는 RECORD_COMPONENT 대상이 아니라 컴포넌트가 아닌 필드 / 접근자 메서드에 붙음 (Jackson 과 같은 기준) */
+    private static boolean isIgnored(RecordComponent c) {
+        if (c.getAccessor().isAnnotationPresent(JsonIgnore.class)) return true;
+        try {
+            return c.getDeclaringRecord().getDeclaredField(c.getName()).isAnnotationPresent(JsonIgnore.class);
+        } catch (NoSuchFieldException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.healthchat.backend.config.gemini;
+
+import lombok.Getter;
+
+/**
+ * Gemini 호출을 보내지 않고 즉시 실패시킨 경우 (서킷 오픈 / 동시성 한도 초과 / 쿼터 대기 한도 초과)
+ * 분석 서비스는 이 예외를 받으면 각자의 fallback 결과를 반환한다.
+ */
+@Getter
+public class GeminiUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Reason {
+        CIRCUIT_OPEN,
+        CONCURRENCY_LIMIT,
+        RATE_LIMITED
+    }
+
+    private final String model;
+    private final Reason reason;
+
+    public GeminiUnavailableException(String model, Reason reason) {
+        super("Gemini 호출 차단: model=" + model + ", reason=" + reason);
+        this.model = model;
+        this.reason = reason;
+    }
+}
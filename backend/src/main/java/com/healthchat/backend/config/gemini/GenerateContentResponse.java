@@ -0,0 +1,39 @@
+package com.healthchat.backend.config.gemini;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * generateContent 응답 — 필요한 필드만 매핑 (나머지는 무시)
+ * WebClient 가 수신 버퍼에서 바로 이 타입으로 디코딩한다. (Map 변환/캐스팅 없음)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GenerateContentResponse(List<Candidate> candidates, UsageMetadata usageMetadata) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Candidate(Content content, String finishReason) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Content(List<Part> parts) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Part(String text) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record UsageMetadata(int promptTokenCount, int candidatesTokenCount, int totalTokenCount) {}
+
+    /** 첫 번째 후보의 텍스트 part 들을 이어 붙인 결과 (없으면 빈 문자열) */
+    public String text() {
+        if (candidates == null || candidates.isEmpty()) return "";
+
+        Content content = candidates.get(0).content();
+        if (content == null || content.parts() == null) return "";
+
+        StringBuilder sb = new StringBuilder();
+        for (Part part : content.parts()) {
+            if (part != null && part.text() != null) sb.append(part.text());
+        }
+        return sb.toString();
+    }
+}
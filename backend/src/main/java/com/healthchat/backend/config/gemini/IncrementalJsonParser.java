@@ -0,0 +1,132 @@
+package com.healthchat.backend.config.gemini;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✨ 증분 JSON 파서 — 스트리밍 응답 조각을 받아 최상위 필드가 닫히는 즉시 꺼낸다
+ * Jackson non-blocking 파서에 조각을 밀어 넣고, 토큰이 덜 왔으면(NOT_AVAILABLE) 다음 조각을 기다린다.
+ *
+ * - 문자열/숫자 값: 값 토큰이 완성되는 순간
+ * - 배열/객체 값: 닫는 괄호까지 TokenBuffer 에 모았다가 한 번에
+ * - 첫 '{' 이전 텍스트(```json 등)와 루트 객체가 닫힌 뒤의 텍스트는 무시
+ * - 깨진 JSON 을 만나면 이후 조각은 무시 (최종 판단은 호출자가 전체 텍스트로)
+ *
+ * 응답 하나마다 새로 만들어 쓴다. (스레드 안전하지 않음)
+ */
+public final class IncrementalJsonParser {
+
+    /** 완성된 최상위 필드 */
+    public record Field(String name, JsonNode value) {}
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private boolean started;
+    private boolean finished;
+    private boolean inRoot;
+    private String fieldName;
+
+    /** 조각 끝에 걸린 서로게이트 쌍 앞쪽 — 다음 조각과 합쳐서 인코딩 */
+    private char pendingHighSurrogate;
+
+    /** 값 수집 중인 버퍼와 중첩 깊이 (배열/객체 값) */
+    private TokenBuffer value;
+    private int valueDepth;
+
+    public IncrementalJsonParser() {
+        try {
+            this.parser = MAPPER.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /** 조각 하나를 넣고, 이번 조각으로 완성된 필드를 순서대로 반환 */
+    public List<Field> feed(String chunk) {
+        if (finished || chunk == null || chunk.isEmpty()) return List.of();
+
+        if (!started) {
+            int start = chunk.indexOf('{');
+            if (start < 0) return List.of();
+            chunk = chunk.substring(start);
+            started = true;
+        }
+
+        if (pendingHighSurrogate != 0) {
+            chunk = pendingHighSurrogate + chunk;
+            pendingHighSurrogate = 0;
+        }
+        if (Character.isHighSurrogate(chunk.charAt(chunk.length() - 1))) {
+            pendingHighSurrogate = chunk.charAt(chunk.length() - 1);
+            chunk = chunk.substring(0, chunk.length() - 1);
+        }
+
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        List<Field> fields = new ArrayList<>();
+
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token, fields);
+            }
+        } catch (IOException e) {
+            finished = true;
+        }
+        return fields;
+    }
+
+    private void onToken(JsonToken token, List<Field> fields) throws IOException {
+
+        // 배열/객체 값 수집 중
+        if (value != null) {
+            value.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                valueDepth++;
+            } else if (token.isStructEnd() && --valueDepth == 0) {
+                fields.add(new Field(fieldName, MAPPER.readTree(value.asParser())));
+                value = null;
+            }
+            return;
+        }
+
+        if (!inRoot) {
+            if (token == JsonToken.START_OBJECT) {
+                inRoot = true;
+            } else {
+                finished = true;    // 루트가 객체가 아님
+            }
+            return;
+        }
+
+        if (token == JsonToken.FIELD_NAME) {
+            fieldName = parser.currentName();
+        } else if (token == JsonToken.END_OBJECT) {
+            inRoot = false;
+            finished = true;
+        } else if (token.isStructStart()) {
+            value = new TokenBuffer(parser);
+            value.copyCurrentEvent(parser);
+            valueDepth = 1;
+        } else {
+            TokenBuffer scalar = new TokenBuffer(parser);
+            scalar.copyCurrentEvent(parser);
+            fields.add(new Field(fieldName, MAPPER.readTree(scalar.asParser())));
+        }
+    }
+}
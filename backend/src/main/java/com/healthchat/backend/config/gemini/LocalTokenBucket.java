@@ -0,0 +1,42 @@
+package com.healthchat.backend.config.gemini;
+
+/**
+ * 인스턴스 로컬 토큰 버킷 — Redis 를 쓸 수 없을 때의 fallback
+ * Redis Lua 스크립트와 같은 규칙으로 동작한다.
+ */
+class LocalTokenBucket {
+
+    private final double capacity;
+    private final double tokensPerMs;
+
+    private double tokens;
+    private long updatedAt;
+    private long blockedUntil;
+
+    LocalTokenBucket(double capacity, double tokensPerMs) {
+        this.capacity = capacity;
+        this.tokensPerMs = tokensPerMs;
+        this.tokens = capacity;
+        this.updatedAt = System.currentTimeMillis();
+    }
+
+    /** 토큰 1개 획득 시도 — 0 이면 성공, 양수면 다시 시도할 때까지 기다릴 ms */
+    synchronized long tryAcquire(double reserve) {
+        long now = System.currentTimeMillis();
+        if (now < blockedUntil) return blockedUntil - now;
+
+        tokens = Math.min(capacity, tokens + Math.max(0, now - updatedAt) * tokensPerMs);
+        updatedAt = now;
+
+        if (tokens - 1 >= reserve) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 + reserve - tokens) / tokensPerMs);
+    }
+
+    /** Retry-After 동안 모든 획득 차단 */
+    synchronized void blockFor(long millis) {
+        blockedUntil = Math.max(blockedUntil, System.currentTimeMillis() + millis);
+    }
+}
@@ -1,6 +1,7 @@
 package com.healthchat.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthchat.backend.dto.AnalysisEvent;
 import com.healthchat.backend.dto.DailyActivityResponseDto;
 import com.healthchat.backend.dto.DailyAnalysis;
 import com.healthchat.backend.dto.UnifiedAnalysisResult;
@@ -12,9 +13,12 @@ import com.healthchat.backend.repository.UserRepository;
 import com.healthchat.backend.security.CustomUserDetails;
 import com.healthchat.backend.service.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -233,6 +237,12 @@ public class AiAnalysisController {
         String text = req.getOrDefault("text", "");
         System.out.println("📥 통합 입력 텍스트: " + text);
 
+        // 🔥 파이프라인 선택 — 요청 mode(routed | fused | speculative) 가 없으면 설정값
+        AnalysisPipelineMode mode = geminiUnifiedAnalysisService.resolveMode(req.get("mode"));
+        if (mode != AnalysisPipelineMode.ROUTED) {
+            return ResponseEntity.ok(geminiUnifiedAnalysisService.analyzeAll(foundUser, text, mode));
+        }
+
         // 🔥 라우팅도 딱 1번!
         var routed = routingService.route(text);
 
@@ -267,5 +277,37 @@ public class AiAnalysisController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * ✅ 통합 분석 스트리밍 (SSE)
+     * 영역별 분석이 끝나고 저장되는 대로 이벤트 전송 — 가장 느린 분석을 기다리지 않음
+     * event: routing → meal / exercise / emotion (완료 순서) → summary (/analyze 응답과 같은 형태)
+     * 실패 시 event: error
+     */
+    @PostMapping(value = "/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> analyzeStream(
+            @AuthenticationPrincipal CustomUserDetails user,
+            @RequestBody Map<String, String> req
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        User foundUser = userRepository.findById(user.getId())
+                .orElseThrow(() -> new RuntimeException("사용자 없음"));
+
+        String text = req.getOrDefault("text", "");
+
+        Flux<ServerSentEvent<Object>> events = geminiUnifiedAnalysisService.analyzeStream(foundUser, text)
+                .map(this::toSse);
+
+        return ResponseEntity.ok(events);
+    }
+
+    private ServerSentEvent<Object> toSse(AnalysisEvent event) {
+        return ServerSentEvent.builder(event.data())
+                .event(event.name())
+                .build();
+    }
+
 
 }
@@ -1,14 +1,18 @@
 package com.healthchat.backend.controller;
 
 import com.healthchat.backend.dto.AiCoachFeedbackDto;
+import com.healthchat.backend.dto.AnalysisEvent;
 import com.healthchat.backend.entity.AiCoachFeedback;
 import com.healthchat.backend.security.CustomUserDetails;
 import com.healthchat.backend.service.AiCoachFeedbackService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 
@@ -43,15 +47,17 @@ public class AiCoachFeedbackController {
     }
 
     /**
-     * 🔄 버튼을 눌러 강제로 피드백 생성하는 API
-     *   - 기존 데이터 무시하고 신규 생성
+     * 🔄 버튼을 눌러 피드백 생성하는 API
+     *   - 하루 기록이 그대로면 저장된 피드백 반환
+     *   - force=true 면 기존 데이터 무시하고 신규 생성
      */
     @PostMapping("/daily/generate")
     public AiCoachFeedbackDto regenerateFeedback(
             @AuthenticationPrincipal CustomUserDetails user,
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-            LocalDate date
+            LocalDate date,
+            @RequestParam(defaultValue = "false") boolean force
     ) {
         if (user == null)
             throw new RuntimeException("로그인이 필요합니다.");
@@ -60,9 +66,39 @@ public class AiCoachFeedbackController {
 
         return feedbackService.generate(
                 user.getId(),
-                targetDate
+                targetDate,
+                force
         );
     }
+
+    /**
+     * 🌊 피드백 생성 (SSE 스트리밍)
+     *   - summary, dietAdvice, exerciseAdvice ... 필드가 완성되는 대로 이벤트 전송
+     *   - 마지막 done 이벤트 = 저장된 전체 피드백 (실패 시 error 이벤트)
+     *   - 하루 기록이 그대로면 (force=false) done 이벤트만 바로 전송
+     */
+    @PostMapping(value = "/daily/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamFeedback(
+            @AuthenticationPrincipal CustomUserDetails user,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate date,
+            @RequestParam(defaultValue = "false") boolean force
+    ) {
+        if (user == null)
+            throw new RuntimeException("로그인이 필요합니다.");
+
+        LocalDate targetDate = (date != null ? date : LocalDate.now());
+
+        return feedbackService.generateStream(user.getId(), targetDate, force)
+                .map(this::toSse);
+    }
+
+    private ServerSentEvent<Object> toSse(AnalysisEvent event) {
+        return ServerSentEvent.builder(event.data())
+                .event(event.name())
+                .build();
+    }
     @GetMapping("/{date}")
     public ResponseEntity<?> getFeedbackByDate(
             @AuthenticationPrincipal CustomUserDetails user,
@@ -1,5 +1,6 @@
 package com.healthchat.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import java.util.List;
@@ -29,6 +30,10 @@ public class AiCoachFeedbackDto {
     /** 참고 문헌 목록 (어떤 근거에서 말하는지) */
     private List<Reference> references;
 
+    /** AI 응답 실패로 만든 기본 피드백 — 입력 fingerprint 없이 저장 (다음 요청에서 재생성, 응답 스키마 제외) */
+    @JsonIgnore
+    private boolean fallback;
+
     @Getter
     @Setter
     @NoArgsConstructor
@@ -0,0 +1,12 @@
+package com.healthchat.backend.dto;
+
+/**
+ * 스트리밍 분석 이벤트 (SSE 한 건)
+ * - name: routing | meal | exercise | emotion | summary | error
+ * - data: 이벤트별 결과 (meal=DailyAnalysis, exercise=ExerciseAnalysisResult,
+ *         emotion=EmotionSummaryDto, summary=UnifiedAnalysisResult)
+ *
+ * 코치 피드백 스트림은 name = AiCoachFeedbackDto 필드명(summary, dietAdvice, ...) | done | error
+ * - data: 필드 값(JsonNode), done=AiCoachFeedbackDto
+ */
+public record AnalysisEvent(String name, Object data) {}
@@ -50,6 +50,13 @@ public class AiCoachFeedback {
     @Column(columnDefinition = "TEXT")
     private String referencesJson;
 
+    // 생성에 쓴 입력(프로필 + 하루 기록 + 감정)의 SHA-256 — 같으면 재생성 없이 재사용
+    @Column(length = 64)
+    private String inputFingerprint;
+
+    // 생성 이후 하루 기록이 바뀜 (DailyDataChangedEvent) → 다음 generate / 야간 선계산에서 입력 비교
+    private boolean stale;
+
     private LocalDateTime createdAt;
 }
 
@@ -0,0 +1,52 @@
+package com.healthchat.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 코치 피드백 야간 선계산 진행 상황 (대상 날짜별 1행)
+ * - lastUserId: 처리를 마친 마지막 사용자 id → 재시작 시 그 다음 사용자부터 이어서
+ * - completed: 대상 사용자를 모두 처리하면 true (같은 날짜는 다시 돌지 않음)
+ */
+@Entity
+@Table(
+        name = "coach_precompute_checkpoint",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"target_date"})
+)
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class CoachPrecomputeCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "target_date", nullable = false)
+    private LocalDate targetDate;
+
+    @Builder.Default
+    private Long lastUserId = 0L;
+
+    @Builder.Default
+    private int generated = 0;
+
+    /** 입력 변경이 없어 LLM 호출 없이 넘어간 사용자 수 */
+    @Builder.Default
+    private int unchanged = 0;
+
+    @Builder.Default
+    private int failed = 0;
+
+    @Builder.Default
+    private boolean completed = false;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+}
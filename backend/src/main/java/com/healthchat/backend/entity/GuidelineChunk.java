@@ -31,4 +31,20 @@ public class GuidelineChunk {
     @Lob
     @Column(nullable = false, columnDefinition = "LONGBLOB")
     private byte[] embedding;
+
+    /** 임베딩 차원 수 */
+    private Integer embeddingDim;
+
+    /** int8 스칼라 양자화 임베딩 (정규화 벡터 ≈ code × scale) */
+    @Lob
+    @Column(columnDefinition = "BLOB")
+    private byte[] embeddingInt8;
+
+    /** int8 복원 배율 */
+    private Float embeddingScale;
+
+    /** 1bit 부호 양자화 임베딩 */
+    @Lob
+    @Column(columnDefinition = "BLOB")
+    private byte[] embeddingBits;
 }
@@ -2,12 +2,28 @@ package com.healthchat.backend.repository;
 
 import com.healthchat.backend.entity.AiCoachFeedback;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface AiCoachFeedbackRepository extends JpaRepository<AiCoachFeedback, Long> {
 
     Optional<AiCoachFeedback> findByUserIdAndDate(Long userId, LocalDate date);
     void deleteByUserIdAndDate(Long userId, LocalDate date);
+
+    @Transactional
+    @Modifying
+    @Query("update AiCoachFeedback f set f.stale = true where f.user.id = :userId and f.date = :date")
+    int markStale(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /** 입력이 그대로인 피드백을 지금 시각 기준 최신으로 표시 — 선계산 대상 조회(createdAt 기준)에서 빠지게 */
+    @Transactional
+    @Modifying
+    @Query("update AiCoachFeedback f set f.createdAt = :now, f.stale = false where f.user.id = :userId and f.date = :date")
+    int markFresh(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("now") LocalDateTime now);
 }
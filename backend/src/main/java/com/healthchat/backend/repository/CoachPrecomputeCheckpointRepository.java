@@ -0,0 +1,12 @@
+package com.healthchat.backend.repository;
+
+import com.healthchat.backend.entity.CoachPrecomputeCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface CoachPrecomputeCheckpointRepository extends JpaRepository<CoachPrecomputeCheckpoint, Long> {
+
+    Optional<CoachPrecomputeCheckpoint> findByTargetDate(LocalDate targetDate);
+}
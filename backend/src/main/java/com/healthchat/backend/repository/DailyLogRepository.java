@@ -1,12 +1,15 @@
 package com.healthchat.backend.repository;
 
 import com.healthchat.backend.entity.DailyLog;
-import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface DailyLogRepository extends JpaRepository<DailyLog, Long> {
@@ -15,4 +18,24 @@ public interface DailyLogRepository extends JpaRepository<DailyLog, Long> {
     @Query("update DailyLog d set d.activity = null where d.user.id = :userId and d.date = :date")
     void clearActivity(@Param("userId") Long userId, @Param("date") LocalDate date);
 
+    /**
+     * 코치 피드백 선계산 대상 — 해당 날짜 DailyLog 가 있고, 피드백이 없거나 stale 이거나 freshSince 이전에 만들어진 사용자
+     * afterUserId 다음부터 id 순 (keyset 페이지)
+     */
+    @Query("""
+            select d.user.id from DailyLog d
+            where d.date = :date
+              and d.user.id > :afterUserId
+              and not exists (
+                  select f.id from AiCoachFeedback f
+                  where f.user.id = d.user.id and f.date = :date
+                    and f.stale = false and f.createdAt >= :freshSince
+              )
+            order by d.user.id
+            """)
+    List<Long> findUserIdsNeedingCoachFeedback(@Param("date") LocalDate date,
+                                               @Param("afterUserId") Long afterUserId,
+                                               @Param("freshSince") LocalDateTime freshSince,
+                                               Pageable pageable);
+
 }
@@ -2,7 +2,9 @@ package com.healthchat.backend.repository;
 
 import com.healthchat.backend.entity.GuidelineChunk;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface GuidelineChunkRepository extends JpaRepository<GuidelineChunk, Long> {
@@ -10,4 +12,41 @@ public interface GuidelineChunkRepository extends JpaRepository<GuidelineChunk,
     List<GuidelineChunk> findBySourceOrderByChunkIndex(String source);
 
     boolean existsBySource(String source);
+
+    /** 인덱스 구축용 — 본문(LONGTEXT) 없이 id/source/임베딩만 조회 */
+    @Query("select c.id as id, c.source as source, c.embedding as embedding from GuidelineChunk c where c.id > :id order by c.id")
+    List<EmbeddingView> findEmbeddingsAfter(long id);
+
+    /** 양자화 인덱스 구축용 — float 임베딩 없이 코드만 조회 */
+    @Query("""
+        select c.id as id, c.source as source, c.embeddingDim as embeddingDim,
+               c.embeddingInt8 as embeddingInt8, c.embeddingScale as embeddingScale,
+               c.embeddingBits as embeddingBits
+        from GuidelineChunk c where c.id > :id order by c.id
+    """)
+    List<QuantizedView> findQuantizedAfter(long id);
+
+    @Query("select c.id as id, c.source as source, c.embedding as embedding from GuidelineChunk c where c.id in :ids")
+    List<EmbeddingView> findEmbeddingsByIdIn(Collection<Long> ids);
+
+    List<GuidelineChunk> findByEmbeddingDimIsNull();
+
+    /** 스냅샷 최신 여부 확인용 */
+    @Query("select coalesce(max(c.id), 0) from GuidelineChunk c")
+    long findMaxId();
+
+    interface EmbeddingView {
+        Long getId();
+        String getSource();
+        byte[] getEmbedding();
+    }
+
+    interface QuantizedView {
+        Long getId();
+        String getSource();
+        Integer getEmbeddingDim();
+        byte[] getEmbeddingInt8();
+        Float getEmbeddingScale();
+        byte[] getEmbeddingBits();
+    }
 }
@@ -1,19 +1,29 @@
 package com.healthchat.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthchat.backend.config.gemini.GeminiPriority;
 import com.healthchat.backend.dto.AiCoachFeedbackDto;
+import com.healthchat.backend.dto.AnalysisEvent;
 import com.healthchat.backend.entity.AiCoachFeedback;
 import com.healthchat.backend.entity.User;
 import com.healthchat.backend.repository.AiCoachFeedbackRepository;
 import com.healthchat.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AiCoachFeedbackService {
@@ -22,6 +32,7 @@ public class AiCoachFeedbackService {
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
     private final AiCoachService aiCoachService;
+    private final Scheduler aiScheduler;
 
     /**
      * 🔍 조회만 진행 — DB에 없으면 null 반환
@@ -34,20 +45,111 @@ public class AiCoachFeedbackService {
     }
 
     /**
-     * 🔥 버튼 클릭 시 강제 생성 API
-     *    - 기존 피드백 있으면 덮어씀
+     * 🔥 버튼 클릭 시 생성 API
+     *    - 입력(프로필 + 하루 기록 + 감정)이 저장된 피드백과 같으면 그대로 반환 (LLM 호출 없음)
+     *    - 입력이 바뀌었거나 force=true 면 새로 생성해 덮어씀
      */
-    public AiCoachFeedbackDto generate(Long userId, LocalDate date) {
+    public AiCoachFeedbackDto generate(Long userId, LocalDate date, boolean force) {
 
-        AiCoachFeedbackDto aiResult = aiCoachService.generateDailyFeedback(userId, date);
+        AiCoachService.CoachInputs inputs = aiCoachService.loadInputs(userId, date);
 
-        saveFeedback(userId, date, aiResult);
+        if (!force) {
+            AiCoachFeedbackDto unchanged = findUnchanged(userId, date, inputs.fingerprint());
+            if (unchanged != null) return unchanged;
+        }
+
+        AiCoachFeedbackDto aiResult = aiCoachService.generateDailyFeedback(inputs);
+
+        saveFeedback(userId, date, aiResult, inputs.fingerprint());
 
         return aiResult;
     }
 
+    /**
+     * 🌙 야간 선계산 — BACKGROUND 우선순위로 생성 후 저장
+     *    다음 날 /api/coach/daily 조회는 DB 에서 바로 응답
+     *    AI 응답 실패(fallback)는 저장하지 않고 예외 → 배치에서 실패로 집계
+     *    입력이 그대로면 LLM 호출 없이 생성 시각만 갱신 (다음 배치 조회에서 다시 잡히지 않도록)
+     *
+     * @return 새로 생성했으면 true, 입력이 그대로라 기존 피드백을 유지했으면 false
+     */
+    public boolean precompute(Long userId, LocalDate date) {
+
+        AiCoachService.CoachInputs inputs = aiCoachService.loadInputs(userId, date);
+
+        if (findUnchanged(userId, date, inputs.fingerprint()) != null) {
+            feedbackRepository.markFresh(userId, date, LocalDateTime.now());
+            return false;
+        }
+
+        AiCoachFeedbackDto aiResult =
+                aiCoachService.generateDailyFeedback(inputs, GeminiPriority.BACKGROUND);
+
+        if (aiResult.isFallback()) {
+            throw new RuntimeException("AI 응답 실패 (fallback) — 선계산 결과 저장 안 함");
+        }
+
+        saveFeedback(userId, date, aiResult, inputs.fingerprint());
+        return true;
+    }
 
-    private void saveFeedback(Long userId, LocalDate date, AiCoachFeedbackDto dto) {
+    /**
+     * 🌊 스트리밍 생성 — 필드 이벤트를 그대로 전달하고, done(전체 결과)은 저장 후 전달
+     *    AI 응답 실패(fallback)는 저장하지 않고 done 으로만 전달 (기존 피드백 유지)
+     *    클라이언트가 연결을 끊어도 생성·저장은 끝까지 진행
+     */
+    public Flux<AnalysisEvent> generateStream(Long userId, LocalDate date, boolean force) {
+
+        Flux<AnalysisEvent> events = Mono.fromCallable(() -> aiCoachService.loadInputs(userId, date))
+                .subscribeOn(aiScheduler)
+                .flatMapMany(inputs -> {
+                    // 입력이 그대로면 저장된 피드백을 done 이벤트 하나로
+                    AiCoachFeedbackDto unchanged = force ? null : findUnchanged(userId, date, inputs.fingerprint());
+                    if (unchanged != null) return Flux.just(new AnalysisEvent("done", unchanged));
+
+                    return aiCoachService.streamDailyFeedback(inputs)
+                            .concatMap(event -> event.data() instanceof AiCoachFeedbackDto result
+                                    ? Mono.fromCallable(() -> {
+                                        if (!result.isFallback()) saveFeedback(userId, date, result, inputs.fingerprint());
+                                        return event;
+                                    }).subscribeOn(aiScheduler)
+                                    : Mono.just(event));
+                })
+                .onErrorResume(e -> Flux.just(new AnalysisEvent("error",
+                        Map.of("message", e.getMessage() != null ? e.getMessage() : "피드백 생성 실패"))));
+
+        return events.replay().autoConnect(0);
+    }
+
+
+    /**
+     * 🔔 하루 기록 변경 → 해당 날짜 피드백을 stale 로 표시
+     *    (재생성 여부는 generate / 야간 선계산이 입력 fingerprint 로 판단)
+     */
+    @EventListener
+    public void onDailyDataChanged(DailyDataChangedEvent event) {
+        feedbackRepository.markStale(event.userId(), event.date());
+    }
+
+    /** 저장된 피드백의 입력 fingerprint 가 같으면 그 피드백 (stale 표시는 해제) */
+    private AiCoachFeedbackDto findUnchanged(Long userId, LocalDate date, String fingerprint) {
+
+        AiCoachFeedback entity = feedbackRepository.findByUserIdAndDate(userId, date)
+                .filter(f -> Objects.equals(f.getInputFingerprint(), fingerprint))
+                .orElse(null);
+
+        if (entity == null) return null;
+
+        if (entity.isStale()) {
+            entity.setStale(false);
+            feedbackRepository.save(entity);
+        }
+
+        log.info("♻️ [Coach] 입력 변경 없음 → 저장된 피드백 재사용 (userId={}, date={})", userId, date);
+        return toDto(entity);
+    }
+
+    private void saveFeedback(Long userId, LocalDate date, AiCoachFeedbackDto dto, String fingerprint) {
 
         User user = userRepository.findById(userId)
                 .orElseThrow();
@@ -57,15 +159,20 @@ public class AiCoachFeedbackService {
                 .orElse(AiCoachFeedback.builder()
                         .user(user)
                         .date(date)
-                        .createdAt(LocalDateTime.now())
                         .build()
                 );
 
+        // 덮어쓸 때도 생성 시각 갱신 — 선계산 배치가 하루가 끝나기 전 만든 피드백을 구분하는 기준
+        entity.setCreatedAt(LocalDateTime.now());
+
         entity.setSummary(dto.getSummary());
         entity.setDietAdvice(dto.getDietAdvice());
         entity.setExerciseAdvice(dto.getExerciseAdvice());
         entity.setEmotionAdvice(dto.getEmotionAdvice());
         entity.setGoalAlignment(dto.getGoalAlignment());
+        // 기본(fallback) 피드백은 재사용하지 않음 — fingerprint 없이 stale 로 저장해 다음 generate / 야간 선계산이 다시 생성
+        entity.setInputFingerprint(dto.isFallback() ? null : fingerprint);
+        entity.setStale(dto.isFallback());
 
         try {
             entity.setReferencesJson(
@@ -2,7 +2,12 @@ package com.healthchat.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthchat.backend.config.GeminiClient;
+import com.healthchat.backend.config.gemini.GeminiCaller;
+import com.healthchat.backend.config.gemini.GeminiPriority;
+import com.healthchat.backend.config.gemini.GeminiSchema;
+import com.healthchat.backend.config.gemini.IncrementalJsonParser;
 import com.healthchat.backend.dto.AiCoachFeedbackDto;
+import com.healthchat.backend.dto.AnalysisEvent;
 import com.healthchat.backend.entity.DailyEmotion;
 import com.healthchat.backend.entity.DailyLog;
 import com.healthchat.backend.entity.User;
@@ -12,9 +17,17 @@ import com.healthchat.backend.service.rag.GuidelineSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
@@ -27,13 +40,27 @@ public class AiCoachService {
     private final GuidelineSearchService guidelineSearchService;
     private final GeminiClient geminiClient;
     private final ObjectMapper objectMapper;
+    private final Scheduler aiScheduler;
+
+    /** 스트리밍 응답 스키마 — 필드 순서(summary → ... → references)대로 생성되어 요약이 가장 먼저 도착 */
+    private static final GeminiSchema SCHEMA = GeminiSchema.of(AiCoachFeedbackDto.class);
+
+    /**
+     * 코치 프롬프트 입력 (사용자 프로필 + 하루 기록 + 감정)
+     * - fingerprint: 프롬프트에 들어가는 입력 텍스트의 SHA-256 — 저장된 피드백과 같으면 재생성 불필요
+     */
+    public record CoachInputs(User user, DailyLog dailyLog, DailyEmotion emotion,
+                              String analysisQuery, String fingerprint) {}
+
+    /** 프롬프트 생성에 쓴 조회 결과 (fallback 피드백에도 사용) */
+    private record CoachContext(CoachInputs inputs, String prompt) {}
 
     /**
      * ==========================================
-     *  AI 건강 코치 메인 로직
+     *  입력 조회 + fingerprint (RAG 검색/LLM 호출 전 단계)
      * ==========================================
      */
-    public AiCoachFeedbackDto generateDailyFeedback(Long userId, LocalDate date) {
+    public CoachInputs loadInputs(Long userId, LocalDate date) {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("사용자 없음"));
@@ -45,24 +72,105 @@ public class AiCoachService {
 
         String analysisQuery = buildAnalysisQuery(user, dailyLog, emotion);
 
-        List<GuidelineSearchService.RetrievedChunk> chunks =
-                guidelineSearchService.searchRelevantChunks(analysisQuery);
+        String fingerprint = fingerprint(analysisQuery, buildInputSection(user, dailyLog, emotion));
+
+        return new CoachInputs(user, dailyLog, emotion, analysisQuery, fingerprint);
+    }
+
+    /**
+     * ==========================================
+     *  AI 건강 코치 메인 로직
+     * ==========================================
+     */
+    public AiCoachFeedbackDto generateDailyFeedback(CoachInputs inputs) {
+        return generateDailyFeedback(inputs, GeminiPriority.INTERACTIVE);
+    }
+
+    /** 야간 선계산 등 배치 호출은 BACKGROUND — 사용자 요청에 쿼터 양보 */
+    public AiCoachFeedbackDto generateDailyFeedback(CoachInputs inputs, GeminiPriority priority) {
 
-        String prompt = buildGeminiPrompt(user, dailyLog, emotion, chunks);
+        CoachContext ctx = prepare(inputs);
 
         // 🔥 Gemini 호출
-        String response = geminiClient.generateSmartJson(prompt);
+        String response = geminiClient.generateSmartJson(ctx.prompt(), GeminiCaller.COACH, priority);
+
+        return toFeedback(response, ctx);
+    }
+
+    /**
+     * ==========================================
+     *  스트리밍 버전 — 필드(summary, dietAdvice, ...)가 완성되는 대로 이벤트
+     *  마지막에 전체 결과를 done 이벤트로 (파싱 실패 시 fallback 피드백)
+     *  필드 일부를 보낸 뒤 스트림이 끊기면 일반 smart 호출(pro → flash)의 전체 응답으로 done
+     *  (done 이 앞서 보낸 필드를 대체 — 받은 만큼의 불완전한 응답으로 fallback 을 만들지 않음)
+     * ==========================================
+     */
+    public Flux<AnalysisEvent> streamDailyFeedback(CoachInputs inputs) {
+
+        // RAG 검색(임베딩 호출)은 블로킹 → aiExecutor
+        return Mono.fromCallable(() -> prepare(inputs))
+                .subscribeOn(aiScheduler)
+                .flatMapMany(ctx -> {
+                    IncrementalJsonParser parser = new IncrementalJsonParser();
+                    StringBuilder response = new StringBuilder();
+                    AtomicBoolean interrupted = new AtomicBoolean(false);
+
+                    Flux<AnalysisEvent> fields = geminiClient.streamSmartJson(ctx.prompt(), GeminiCaller.COACH, SCHEMA)
+                            .doOnNext(response::append)
+                            .concatMapIterable(parser::feed)
+                            .map(field -> new AnalysisEvent(field.name(), field.value()))
+                            .onErrorResume(e -> {
+                                log.error("❌ 코치 스트림 중단 → 전체 응답 재요청: {}", e.getMessage());
+                                interrupted.set(true);
+                                return Flux.empty();
+                            });
+
+                    // 끊겼으면 받은 조각은 버리고 전체 응답 1회 (실패 시 "" → fallback 피드백)
+                    Mono<String> whole = Mono.defer(() -> interrupted.get()
+                            ? geminiClient.generateSmartJsonAsync(ctx.prompt(), GeminiCaller.COACH, SCHEMA)
+                                    .onErrorResume(e -> Mono.just(""))
+                                    .defaultIfEmpty("")
+                            : Mono.just(response.toString()));
+
+                    return fields.concatWith(whole.map(json -> new AnalysisEvent("done", toFeedback(json, ctx))));
+                });
+    }
+
+    private CoachContext prepare(CoachInputs inputs) {
+
+        List<GuidelineSearchService.RetrievedChunk> chunks =
+                guidelineSearchService.searchRelevantChunks(inputs.analysisQuery());
+
+        String prompt = buildGeminiPrompt(inputs.user(), inputs.dailyLog(), inputs.emotion(), chunks);
+
+        return new CoachContext(inputs, prompt);
+    }
+
+    /** 🔸 입력 fingerprint = SHA-256(분석 쿼리 + 프롬프트의 사용자/기록 섹션) */
+    private static String fingerprint(String analysisQuery, String inputSection) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(analysisQuery.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(inputSection.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private AiCoachFeedbackDto toFeedback(String response, CoachContext ctx) {
 
         if (response == null || response.isBlank()) {
             log.error("⚠️ Gemini 응답 null/공백 → fallback 실행");
-            return fallbackFeedback(user, dailyLog, emotion);
+            return fallbackFeedback(ctx.inputs().user(), ctx.inputs().dailyLog(), ctx.inputs().emotion());
         }
 
         String json = extractJson(response);
 
         if (json == null || json.isBlank() || !json.trim().startsWith("{")) {
             log.error("⚠️ 추출된 JSON 형식 오류: {}", json);
-            return fallbackFeedback(user, dailyLog, emotion);
+            return fallbackFeedback(ctx.inputs().user(), ctx.inputs().dailyLog(), ctx.inputs().emotion());
         }
 
         try {
@@ -70,7 +178,7 @@ public class AiCoachService {
         } catch (Exception e) {
             log.error("❌ JSON 파싱 오류: {}", e.getMessage());
             log.error("원문 JSON: {}", json);
-            return fallbackFeedback(user, dailyLog, emotion);
+            return fallbackFeedback(ctx.inputs().user(), ctx.inputs().dailyLog(), ctx.inputs().emotion());
         }
     }
 
@@ -220,6 +328,38 @@ public class AiCoachService {
             sb.append("(관련 문헌 없음)\n\n");
         }
 
+        // === 사용자 정보 + 오늘 기록 ===
+        sb.append(buildInputSection(user, dailyLog, emotion));
+
+        // === JSON 출력 형식 ===
+        sb.append("===== [출력 형식(JSON)] =====\n")
+                .append("설명 없이 아래 JSON만 출력해.\n\n")
+                .append("```json\n")
+                .append("{\n")
+                .append("  \"summary\": \"하루를 간단히 요약\",\n")
+                .append("  \"dietAdvice\": \"식단 조언\",\n")
+                .append("  \"exerciseAdvice\": \"운동 조언\",\n")
+                .append("  \"emotionAdvice\": \"감정 조언\",\n")
+                .append("  \"goalAlignment\": \"오늘 기록이 목표와 얼마나 맞는지\",\n")
+                .append("  \"references\": [\n")
+                .append("    {\n")
+                .append("      \"source\": \"문헌 출처\",\n")
+                .append("      \"snippet\": \"관련 문헌 발췌\",\n")
+                .append("      \"comment\": \"이 문헌이 왜 이 조언을 뒷받침하는지\"\n")
+                .append("    }\n")
+                .append("  ]\n")
+                .append("}\n")
+                .append("```\n");
+
+        return sb.toString();
+    }
+
+
+    /** 프롬프트의 사용자 정보 · 목표 · 오늘 기록 섹션 (fingerprint 대상) */
+    private String buildInputSection(User user, DailyLog dailyLog, DailyEmotion emotion) {
+
+        StringBuilder sb = new StringBuilder();
+
         // === 사용자 정보 ===
         sb.append("===== [사용자 정보] =====\n");
         sb.append("- 성별: ").append(user.getGender()).append("\n");
@@ -253,30 +393,9 @@ public class AiCoachService {
         }
         sb.append("\n");
 
-        // === JSON 출력 형식 ===
-        sb.append("===== [출력 형식(JSON)] =====\n")
-                .append("설명 없이 아래 JSON만 출력해.\n\n")
-                .append("```json\n")
-                .append("{\n")
-                .append("  \"summary\": \"하루를 간단히 요약\",\n")
-                .append("  \"dietAdvice\": \"식단 조언\",\n")
-                .append("  \"exerciseAdvice\": \"운동 조언\",\n")
-                .append("  \"emotionAdvice\": \"감정 조언\",\n")
-                .append("  \"goalAlignment\": \"오늘 기록이 목표와 얼마나 맞는지\",\n")
-                .append("  \"references\": [\n")
-                .append("    {\n")
-                .append("      \"source\": \"문헌 출처\",\n")
-                .append("      \"snippet\": \"관련 문헌 발췌\",\n")
-                .append("      \"comment\": \"이 문헌이 왜 이 조언을 뒷받침하는지\"\n")
-                .append("    }\n")
-                .append("  ]\n")
-                .append("}\n")
-                .append("```\n");
-
         return sb.toString();
     }
 
-
     /**
      * ==========================================================
      * Gemini 실패 시 fallback
@@ -290,6 +409,7 @@ public class AiCoachService {
                 .emotionAdvice("감정이 불안정한 날에는 충분한 휴식을 챙겨보세요.")
                 .goalAlignment("AI 분석이 가능해지면 목표 적합도를 더 세밀하게 제공해드릴게요.")
                 .references(List.of())
+                .fallback(true)
                 .build();
     }
 }
@@ -0,0 +1,23 @@
+package com.healthchat.backend.service;
+
+/**
+ * 통합 분석 파이프라인 방식
+ * - ROUTED : 라우팅 호출 → 식단/운동/감정 분석 3건 병렬 (LLM 지연 2단계)
+ * - FUSED  : 라우팅 + 분석을 하나의 스키마로 한 번에 호출 (LLM 지연 1단계)
+ * - SPECULATIVE : 라우팅 호출과 동시에 어휘 신호가 있는 분석을 원문으로 미리 시작,
+ *                 라우팅 결과와 맞으면 그대로 사용하고 아니면 취소 (토큰 더 쓰고 지연 1단계 절약)
+ */
+public enum AnalysisPipelineMode {
+    ROUTED,
+    FUSED,
+    SPECULATIVE;
+
+    /** 요청/설정 값 → 모드 (대소문자 무시, 알 수 없는 값이면 fallback) */
+    public static AnalysisPipelineMode from(String value, AnalysisPipelineMode fallback) {
+        if (value == null || value.isBlank()) return fallback;
+        for (AnalysisPipelineMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) return mode;
+        }
+        return fallback;
+    }
+}
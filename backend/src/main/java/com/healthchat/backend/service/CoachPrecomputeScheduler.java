@@ -0,0 +1,234 @@
+package com.healthchat.backend.service;
+
+import com.healthchat.backend.entity.CoachPrecomputeCheckpoint;
+import com.healthchat.backend.repository.CoachPrecomputeCheckpointRepository;
+import com.healthchat.backend.repository.DailyLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 🌙 코치 피드백 야간 선계산
+ * - 새벽 시간대(cron)에 전날 DailyLog 가 있는데 피드백이 없거나 오래된(하루가 끝나기 전 생성 / stale) 사용자를 찾아 미리 생성
+ *   (입력 fingerprint 가 같으면 LLM 호출 없이 stale 해제 + 생성 시각 갱신 → '변경 없음'으로 집계)
+ *   → 다음 날 /api/coach/daily 조회는 RAG 검색 + pro 모델 호출 없이 DB 에서 바로 응답
+ * - batch-size 명씩 끊어 최대 concurrency 건 동시 생성, 배치 사이 batch-delay 만큼 쉬어감
+ * - Gemini 호출은 BACKGROUND 우선순위 → 쿼터 버킷의 예약분은 사용자 요청 몫으로 남김
+ * - 배치마다 체크포인트(CoachPrecomputeCheckpoint) 저장 → 중단되면 다음 실행이 이어서 처리
+ * - 여러 인스턴스 중 하나만 실행 (Redis 잠금)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CoachPrecomputeScheduler {
+
+    private static final String LOCK_KEY = "coach:precompute:lock";
+
+    private final DailyLogRepository dailyLogRepository;
+    private final CoachPrecomputeCheckpointRepository checkpointRepository;
+    private final AiCoachFeedbackService feedbackService;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${coach.precompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${coach.precompute.days-back:1}")
+    private int daysBack;
+
+    @Value("${coach.precompute.batch-size:20}")
+    private int batchSize;
+
+    @Value("${coach.precompute.concurrency:4}")
+    private int concurrency;
+
+    @Value("${coach.precompute.batch-delay:2s}")
+    private Duration batchDelay;
+
+    @Value("${coach.precompute.max-run:25m}")
+    private Duration maxRun;
+
+
+    /* ============================================================
+     * 🔸 실행 — cron 시간대 안에서 여러 번 호출되며, 완료된 날짜는 건너뜀
+     * ============================================================ */
+    @Scheduled(cron = "${coach.precompute.cron:0 0/30 2-5 * * *}")
+    public void run() {
+        if (!enabled) return;
+
+        LocalDate target = LocalDate.now().minusDays(daysBack);
+        String owner = UUID.randomUUID().toString();
+
+        Boolean locked;
+        try {
+            locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, owner, maxRun.plusMinutes(5));
+        } catch (Exception e) {
+            log.warn("⚠️ [CoachPrecompute] Redis 잠금 실패 → 이번 실행 건너뜀: {}", e.getMessage());
+            return;
+        }
+        if (!Boolean.TRUE.equals(locked)) {
+            log.info("🌙 [CoachPrecompute] 다른 인스턴스가 실행 중 → 건너뜀");
+            return;
+        }
+
+        try {
+            precompute(target);
+        } finally {
+            try {
+                if (owner.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                    redisTemplate.delete(LOCK_KEY);
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ [CoachPrecompute] Redis 잠금 해제 실패 (TTL 만료로 해제됨): {}", e.getMessage());
+            }
+        }
+    }
+
+    void precompute(LocalDate target) {
+
+        CoachPrecomputeCheckpoint checkpoint = checkpointRepository.findByTargetDate(target)
+                .orElseGet(() -> checkpointRepository.save(CoachPrecomputeCheckpoint.builder()
+                        .targetDate(target)
+                        .startedAt(LocalDateTime.now())
+                        .build()));
+
+        if (checkpoint.isCompleted()) return;
+
+        // 이 시각 이전에 만든 피드백은 하루치 기록이 다 반영되지 않은 것 → 다시 생성
+        LocalDateTime freshSince = target.plusDays(1).atStartOfDay();
+        Instant deadline = Instant.now().plus(maxRun);
+
+        log.info("🌙 [CoachPrecompute] {} 시작 (userId > {}, 생성 {} / 변경 없음 {} / 실패 {})",
+                target, checkpoint.getLastUserId(), checkpoint.getGenerated(),
+                checkpoint.getUnchanged(), checkpoint.getFailed());
+
+        // 이번 실행의 조회 위치 — 실패한 사용자도 지나감 (한 실행에서 사용자당 한 번만 시도)
+        // 체크포인트는 이번 실행에서 실패한 가장 작은 id 앞에 머물러 다음 실행이 다시 시도
+        long cursor = checkpoint.getLastUserId();
+        Long firstFailedId = null;
+
+        while (Instant.now().isBefore(deadline)) {
+
+            List<Long> userIds = dailyLogRepository.findUserIdsNeedingCoachFeedback(
+                    target, cursor, freshSince, PageRequest.of(0, batchSize));
+
+            if (userIds.isEmpty() && firstFailedId != null) {
+                checkpoint.setLastUserId(firstFailedId - 1);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                log.warn("⚠️ [CoachPrecompute] {} 대상 끝까지 처리, 실패 사용자 남음 → 다음 실행에서 userId > {} 부터 재시도",
+                        target, checkpoint.getLastUserId());
+                return;
+            }
+
+            if (userIds.isEmpty()) {
+                checkpoint.setCompleted(true);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                log.info("✅ [CoachPrecompute] {} 완료 (생성 {} / 변경 없음 {} / 실패 {})",
+                        target, checkpoint.getGenerated(), checkpoint.getUnchanged(), checkpoint.getFailed());
+                return;
+            }
+
+            BatchResult batch = runBatch(userIds, target);
+            List<Long> failedIds = batch.failedIds();
+
+            checkpoint.setGenerated(checkpoint.getGenerated() + batch.generated());
+            checkpoint.setUnchanged(checkpoint.getUnchanged() + batch.unchanged());
+            checkpoint.setFailed(checkpoint.getFailed() + failedIds.size());
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+
+            // 배치 전체 실패 = Gemini 장애(서킷 오픈 / 쿼터 부족 등) → 체크포인트를 넘기지 않고 중단, 다음 실행에서 재시도
+            if (failedIds.size() == userIds.size()) {
+                checkpointRepository.save(checkpoint);
+                log.warn("⚠️ [CoachPrecompute] {} 배치 전체 실패 → 중단 (다음 실행에서 userId > {} 부터 재시도)",
+                        target, checkpoint.getLastUserId());
+                return;
+            }
+
+            // 실패한 사용자는 이번 실행에서 다시 조회하지 않고 지나감 (실패는 한 번만 집계)
+            // 체크포인트는 첫 실패 사용자 직전까지만 전진 — 그 뒤 성공한 사용자는 피드백이 생겨 다음 조회에서 자연히 빠짐
+            cursor = userIds.get(userIds.size() - 1);
+            for (Long failedId : failedIds) {
+                if (firstFailedId == null || failedId < firstFailedId) firstFailedId = failedId;
+            }
+
+            checkpoint.setLastUserId(firstFailedId == null ? cursor : firstFailedId - 1);
+            checkpoint = checkpointRepository.save(checkpoint);
+
+            if (!pause()) return;
+        }
+
+        log.info("⏸️ [CoachPrecompute] {} 실행 시간 초과 → 다음 실행에서 userId > {} 부터 이어서",
+                target, checkpoint.getLastUserId());
+    }
+
+    /** 배치 처리 결과 — 새로 생성 / 입력 변경 없음 / 실패한 사용자 id (AI 응답 실패 fallback 포함) */
+    private record BatchResult(int generated, int unchanged, List<Long> failedIds) {}
+
+    private enum Outcome { GENERATED, UNCHANGED, FAILED }
+
+    private record UserOutcome(Long userId, Outcome outcome) {}
+
+    /** 배치 1개 — 최대 concurrency 건 동시 생성 */
+    private BatchResult runBatch(List<Long> userIds, LocalDate target) {
+
+        List<UserOutcome> outcomes = Flux.fromIterable(userIds)
+                .flatMap(userId -> Mono.fromCallable(() -> new UserOutcome(userId,
+                                        feedbackService.precompute(userId, target) ? Outcome.GENERATED : Outcome.UNCHANGED))
+                                // 생성은 블로킹 호출 (DB + RAG + Gemini) → 분석기 executor 와 분리
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .onErrorResume(e -> {
+                                    log.warn("⚠️ [CoachPrecompute] userId={} 생성 실패: {}", userId, e.getMessage());
+                                    return Mono.just(new UserOutcome(userId, Outcome.FAILED));
+                                }),
+                        Math.max(1, concurrency))
+                .collectList()
+                .block();
+
+        if (outcomes == null) outcomes = List.of();
+
+        int generated = 0;
+        int unchanged = 0;
+        List<Long> failedIds = new ArrayList<>();
+        for (UserOutcome o : outcomes) {
+            switch (o.outcome()) {
+                case GENERATED -> generated++;
+                case UNCHANGED -> unchanged++;
+                case FAILED -> failedIds.add(o.userId());
+            }
+        }
+
+        meterRegistry.counter("coach.precompute.users", "result", "generated").increment(generated);
+        meterRegistry.counter("coach.precompute.users", "result", "unchanged").increment(unchanged);
+        meterRegistry.counter("coach.precompute.users", "result", "failed").increment(failedIds.size());
+        return new BatchResult(generated, unchanged, failedIds);
+    }
+
+    private boolean pause() {
+        if (batchDelay.isZero() || batchDelay.isNegative()) return true;
+        try {
+            Thread.sleep(batchDelay.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.healthchat.backend.service;
+
+import java.time.LocalDate;
+
+/**
+ * 하루 기록(식단/운동/감정)이 바뀜 — 해당 날짜의 코치 피드백을 stale 로 표시하는 데 사용
+ * DailyLogService · 수동 저장(saveOrUpdateManual) 경로에서 발행
+ */
+public record DailyDataChangedEvent(Long userId, LocalDate date) {}
@@ -8,6 +8,7 @@ import com.healthchat.backend.entity.User;
 import com.healthchat.backend.repository.DailyEmotionRepository;
 import com.healthchat.backend.repository.DailyMealRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +23,7 @@ public class DailyEmotionService {
     private final DailyEmotionRepository emotionRepository;
     private final ObjectMapper mapper = new ObjectMapper();
     private final DailyLogService dailyLogService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void deleteToday(User user) {
@@ -205,7 +207,10 @@ public class DailyEmotionService {
         emotion.setRawText(updated.getRawText());
         emotion.setCreatedAt(LocalDateTime.now());
 
-        return emotionRepository.save(emotion);
+        DailyEmotion saved = emotionRepository.save(emotion);
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
+        return saved;
     }
 
 
@@ -9,6 +9,7 @@ import com.healthchat.backend.repository.DailyActivityRepository;
 import com.healthchat.backend.repository.DailyEmotionRepository;
 import com.healthchat.backend.repository.ExerciseRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +23,7 @@ public class DailyExerciseService {
     private final DailyActivityRepository dailyActivityRepository;
     private final ExerciseRepository exerciseRepository;
     private final DailyLogService dailyLogService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DailyActivity getTodayActivity(User user) {
         return dailyActivityRepository.findByUserAndDate(user, LocalDate.now())
@@ -252,7 +254,10 @@ public class DailyExerciseService {
         }
 
         updateTotals(activity);
-        return dailyActivityRepository.save(activity);
+        DailyActivity saved = dailyActivityRepository.save(activity);
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
+        return saved;
     }
 
     public List<ExerciseItem> getTodayExercises(User user) {
@@ -6,6 +6,7 @@ import com.healthchat.backend.repository.DailyEmotionRepository;
 import com.healthchat.backend.repository.DailyLogRepository;
 import com.healthchat.backend.repository.DailyMealRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +20,7 @@ public class DailyLogService {
     private final DailyActivityRepository dailyActivityRepository;
     private final DailyMealRepository dailyMealRepository;
     private final DailyEmotionRepository dailyEmotionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     /**
@@ -61,6 +63,8 @@ public class DailyLogService {
 
                     dailyLogRepository.save(log);
                 });
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
     }
 
 
@@ -88,6 +92,8 @@ public class DailyLogService {
 
                     dailyLogRepository.save(log);
                 });
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
     }
 
 
@@ -102,6 +108,8 @@ public class DailyLogService {
                     log.setMoodSummary(null);
                     dailyLogRepository.save(log);
                 });
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
     }
 
 
@@ -140,6 +148,8 @@ public class DailyLogService {
         dailyActivityRepository.deleteByUserAndDate(user, date);
         dailyEmotionRepository.deleteByUserAndDate(user, date);
 
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
+
         System.out.println("🗑 전체 기록 삭제 완료 (DailyLog + Meal + Activity + Emotion)");
     }
 
@@ -179,7 +189,10 @@ public class DailyLogService {
         log.setMeal(meal);
 
         recalcSummary(log);
-        return dailyLogRepository.save(log);
+        DailyLog saved = dailyLogRepository.save(log);
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
+        return saved;
     }
 
     /** 하루 운동 업데이트 */
@@ -191,7 +204,10 @@ public class DailyLogService {
         log.setActivity(activity);
 
         recalcSummary(log);
-        return dailyLogRepository.save(log);
+        DailyLog saved = dailyLogRepository.save(log);
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
+        return saved;
     }
 
     /** 하루 감정 업데이트 */
@@ -206,6 +222,9 @@ public class DailyLogService {
             log.setMoodSummary(emotion.getPrimaryEmotion());
         }
 
-        return dailyLogRepository.save(log);
+        DailyLog saved = dailyLogRepository.save(log);
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
+        return saved;
     }
 }
@@ -10,6 +10,7 @@ import com.healthchat.backend.entity.User;
 import com.healthchat.backend.repository.DailyLogRepository;
 import com.healthchat.backend.repository.DailyMealRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +24,7 @@ public class DailyMealService {
 
     private final DailyLogService dailyLogService;
     private final DailyMealRepository dailyMealRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Transactional
@@ -227,6 +229,9 @@ public class DailyMealService {
         meal.setTotalFat(updated.getTotalFat());
         meal.setTotalCarbs(updated.getTotalCarbs());
 
-        return dailyMealRepository.save(meal);
+        DailyMeal saved = dailyMealRepository.save(meal);
+
+        eventPublisher.publishEvent(new DailyDataChangedEvent(user.getId(), date));
+        return saved;
     }
 }
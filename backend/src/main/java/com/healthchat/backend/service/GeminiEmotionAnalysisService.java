@@ -2,14 +2,18 @@ package com.healthchat.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthchat.backend.config.GeminiClient;
+import com.healthchat.backend.config.gemini.GeminiCaller;
+import com.healthchat.backend.config.gemini.GeminiSchema;
+import com.healthchat.backend.config.gemini.GeminiUnavailableException;
 import com.healthchat.backend.dto.EmotionAnalysisResult;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.springframework.validation.method.MethodValidationResult.emptyResult;
 
@@ -18,9 +22,16 @@ import static org.springframework.validation.method.MethodValidationResult.empty
 public class GeminiEmotionAnalysisService {
 
     private final GeminiClient geminiClient;
+    private final Scheduler aiScheduler;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    @Async
+    /** 구조화 출력 스키마 — action/rawText 는 서버에서 채우므로 제외 */
+    private static final GeminiSchema SCHEMA = GeminiSchema.of(EmotionAnalysisResult.class, "action", "rawText");
+
+    /**
+     * Gemini 호출은 논블로킹 — 응답이 오면 파싱해서 future 완료 (대기 중 스레드 점유 없음)
+     * 파싱은 aiExecutor 에서 실행 (WebClient 이벤트 루프 스레드 점유 방지)
+     */
     public CompletableFuture<EmotionAnalysisResult> analyzeEmotion(String text) {
 
         long start = System.currentTimeMillis();
@@ -33,53 +44,60 @@ public class GeminiEmotionAnalysisService {
         String prompt = buildPrompt(text);
 
         // 🔥 pro 금지 — flash 기본 + fallback 내장된 smartJson 사용
-        String response = geminiClient.generateSmartJson(prompt);
+        return geminiClient.generateSmartJsonAsync(prompt, GeminiCaller.EMOTION, SCHEMA)
+                .publishOn(aiScheduler)
+                .map(response -> parse(response, text, start))
+                // 서킷 오픈 / 동시성 한도 초과 / aiExecutor 포화 → 즉시 fallback
+                .onErrorResume(GeminiUnavailableException.class, e -> Mono.just(emptyResult(text)))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(emptyResult(text)))
+                .toFuture();
+    }
+
+    /** 구조화 출력 응답(JSON 그대로)을 DTO 로 한 번에 바인딩 */
+    EmotionAnalysisResult parse(String response, String text, long start) {
 
         if (response == null || response.isBlank()) {
             System.err.println("⚠ Emotion 분석 실패: 응답 null/blank");
-            return CompletableFuture.completedFuture(emptyResult(text));
+            return emptyResult(text);
         }
 
-        String json = extractJson(response);
-
         try {
-            Map<String, Object> map = mapper.readValue(json, Map.class);
+            return complete(mapper.readValue(response, EmotionAnalysisResult.class), text, start);
 
-            List<String> emotions = safeStringList(map.get("emotions"));
-            List<Integer> scores = safeIntList(map.get("scores"));
-            List<String> summaries = safeStringList(map.get("summaries"));
-            List<List<String>> keywords = safeDoubleStringList(map.get("keywords"));
+        } catch (Exception e) {
+            System.err.println("⚠ Emotion JSON parsing failed: " + e.getMessage());
+            System.err.println("원본 응답: " + response);
+            return emptyResult(text);
+        }
+    }
 
-            String primaryEmotion = (String) map.getOrDefault("primaryEmotion", "");
-            int primaryScore = safeInt(map.get("primaryScore"));
+    /** 바인딩된 결과에 서버 필드(action/rawText) 채움 (통합 파이프라인은 영역 값으로 호출) */
+    EmotionAnalysisResult complete(EmotionAnalysisResult result, String text, long start) {
 
-            String action = detectAction(text, emotions);
+        if (result == null) {
+            System.err.println("⚠ Emotion 분석 실패: 결과 없음");
+            return emptyResult(text);
+        }
 
-            EmotionAnalysisResult result = EmotionAnalysisResult.builder()
-                    .action(action)
-                    .emotions(emotions)
-                    .scores(scores)
-                    .summaries(summaries)
-                    .keywords(keywords)
-                    .primaryEmotion(primaryEmotion)
-                    .primaryScore(primaryScore)
-                    .rawText(text)
-                    .build();
+        result.setEmotions(orEmpty(result.getEmotions()));
+        result.setScores(orEmpty(result.getScores()));
+        result.setSummaries(orEmpty(result.getSummaries()));
+        result.setKeywords(orEmpty(result.getKeywords()));
+        if (result.getPrimaryEmotion() == null) result.setPrimaryEmotion("");
 
-            long took = System.currentTimeMillis() - start;
-            System.out.printf(
-                    "✅ [Emotion] 분석 완료 → %s | 대표:%s (%d점), 감정 %d개 — %dms%n",
-                    action, primaryEmotion, primaryScore, emotions.size(), took
-            );
+        result.setAction(detectAction(text, result.getEmotions()));
+        result.setRawText(text);
 
-            return CompletableFuture.completedFuture(result);
+        long took = System.currentTimeMillis() - start;
+        System.out.printf(
+                "✅ [Emotion] 분석 완료 → %s | 대표:%s (%d점), 감정 %d개 — %dms%n",
+                result.getAction(), result.getPrimaryEmotion(), result.getPrimaryScore(),
+                result.getEmotions().size(), took
+        );
 
-        } catch (Exception e) {
-            System.err.println("⚠ Emotion JSON parsing failed: " + e.getMessage());
-            System.err.println("원본 응답: " + response);
-            return CompletableFuture.completedFuture(emptyResult(text));
-        }
+        return result;
     }
+
     /* ==========================================================
        빈 결과 객체 생성 (fallback)
      ========================================================== */
@@ -97,10 +115,9 @@ public class GeminiEmotionAnalysisService {
     }
 
 
-    private String buildPrompt(String text) {
+    String buildPrompt(String text) {
         return """
-한국어 문장에서 **여러 감정**을 모두 분석하여 아래 JSON 형식으로만 반환하라.
-설명, 말머리, 코드블록, 사족 절대 금지. JSON만 출력.
+한국어 문장에서 **여러 감정**을 모두 분석하여 아래 JSON 형식으로 반환하라.
 
 {
   "emotions": [],          // 예: ["우울", "기쁨"]
@@ -138,46 +155,16 @@ public class GeminiEmotionAnalysisService {
 [5] primaryEmotion / primaryScore
 - scores 배열에서 가장 높은 점수를 가진 감정을 primaryEmotion으로 설정한다.
 
-반환 형식:
-- JSON만 출력. 설명 절대 포함 금지.
-
 분석 대상 문장:
 "%s"
 """.formatted(text);
     }
 
     /* ==========================================================================
-       JSON만 추출
-     ========================================================================== */
-    private String extractJson(String text) {
-        if (text == null) return "{}";
-        int s = text.indexOf("{");
-        int e = text.lastIndexOf("}");
-        if (s >= 0 && e > s) return text.substring(s, e + 1);
-        return "{}";
-    }
-
-    /* ==========================================================================
-       안전 파싱 함수들
+       null 리스트 → 빈 리스트
      ========================================================================== */
-    private int safeInt(Object obj) {
-        try { return Integer.parseInt(obj.toString()); }
-        catch (Exception e) { return 0; }
-    }
-
-    private List<String> safeStringList(Object obj) {
-        try { return (List<String>) obj; }
-        catch (Exception e) { return List.of(); }
-    }
-
-    private List<Integer> safeIntList(Object obj) {
-        try { return (List<Integer>) obj; }
-        catch (Exception e) { return List.of(); }
-    }
-
-    private List<List<String>> safeDoubleStringList(Object obj) {
-        try { return (List<List<String>>) obj; }
-        catch (Exception e) { return List.of(); }
+    private <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : List.of();
     }
 
     /* ==========================================================================
@@ -2,18 +2,23 @@ package com.healthchat.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthchat.backend.config.GeminiClient;
+import com.healthchat.backend.config.gemini.GeminiCaller;
+import com.healthchat.backend.config.gemini.GeminiSchema;
+import com.healthchat.backend.config.gemini.GeminiUnavailableException;
 import com.healthchat.backend.dto.ExerciseAnalysisResult;
 import com.healthchat.backend.entity.ExerciseItem;
 import com.healthchat.backend.entity.User;
 import com.healthchat.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
@@ -22,8 +27,15 @@ public class GeminiExerciseAnalysisService {
     private final GeminiClient geminiClient;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final UserRepository userRepository;
+    private final Scheduler aiScheduler;
 
-    @Async
+    /** 구조화 출력 스키마 — category/part/intensity 는 enum 값으로 강제, message 는 서버에서 채움 */
+    private static final GeminiSchema SCHEMA = GeminiSchema.of(ExerciseAnalysisResult.class, "message");
+
+    /**
+     * Gemini 호출은 논블로킹 — 응답이 오면 파싱해서 future 완료 (대기 중 스레드 점유 없음)
+     * 프롬프트 준비(사용자 조회)와 파싱은 aiExecutor 에서 실행
+     */
     public CompletableFuture<ExerciseAnalysisResult> analyzeExercise(
             Long userId,
             String userText,
@@ -32,52 +44,63 @@ public class GeminiExerciseAnalysisService {
 
         long start = System.currentTimeMillis();
 
-        // 1) 사용자 조회
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // 2) 프롬프트 생성
-        String prompt = buildPrompt(user, userText, todayExercises);
+        return Mono.fromCallable(() -> {
+                    // 1) 사용자 조회
+                    User user = userRepository.findById(userId)
+                            .orElseThrow(() -> new RuntimeException("User not found"));
+
+                    // 2) 프롬프트 생성
+                    return buildPrompt(user, userText, todayExercises);
+                })
+                .subscribeOn(aiScheduler)
+                // 3) Gemini 호출 (pro → flash 자동 fallback)
+                .flatMap(prompt -> geminiClient.generateSmartJsonAsync(prompt, GeminiCaller.EXERCISE, SCHEMA))
+                .publishOn(aiScheduler)
+                .map(response -> parse(response, start))
+                // 서킷 오픈 / 동시성 한도 초과 / aiExecutor 포화 → 즉시 fallback
+                .onErrorResume(GeminiUnavailableException.class, e -> Mono.just(fallback()))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(fallback()))
+                .toFuture();
+    }
 
-        // 3) Gemini 호출 (pro → flash 자동 fallback)
-        String response = geminiClient.generateSmartJson(prompt);
+    /** 구조화 출력 응답(JSON 그대로)을 DTO 로 한 번에 바인딩 */
+    ExerciseAnalysisResult parse(String response, long start) {
 
         if (response == null || response.isBlank()) {
             System.out.println("⚠️ Gemini 응답 없음 — fallback 사용");
-            return CompletableFuture.completedFuture(fallback());
+            return fallback();
         }
 
-        // 4) JSON만 추출
-        String json = extractJson(response);
-
         try {
-            // 5) JSON → DTO 매핑
-            ExerciseAnalysisResult result =
-                    objectMapper.readValue(json, ExerciseAnalysisResult.class);
-            System.out.println("🏋️‍♀️ Exercise JSON 결과 = " + json);
-            long took = System.currentTimeMillis() - start;
-
-            int duration = 0;
-            try {
-                duration = (int) Math.round(result.getTotalDuration());
-            } catch (Exception ignore) {}
-
-            System.out.printf(
-                    "✅ [Exercise] 운동 분석 완료: action=%s (%.0f kcal, %d분) — %dms%n",
-                    result.getAction(),
-                    result.getTotalCalories(),
-                    duration,
-                    took
-            );
-
-            return CompletableFuture.completedFuture(result);
+            return complete(objectMapper.readValue(response, ExerciseAnalysisResult.class), start);
 
         } catch (Exception e) {
             System.err.println("❌ Gemini JSON 파싱 실패: " + e.getMessage());
             System.err.println("⚠️ 원문 응답: " + response);
 
-            return CompletableFuture.completedFuture(fallback());
+            return fallback();
+        }
+    }
+
+    /** 바인딩된 결과 확인 (통합 파이프라인은 응답 전체를 한 번 바인딩한 뒤 영역 값으로 호출) */
+    ExerciseAnalysisResult complete(ExerciseAnalysisResult result, long start) {
+
+        if (result == null) {
+            System.out.println("⚠️ Gemini 운동 결과 없음 — fallback 사용");
+            return fallback();
         }
+
+        long took = System.currentTimeMillis() - start;
+
+        System.out.printf(
+                "✅ [Exercise] 운동 분석 완료: action=%s (%.0f kcal, %d분) — %dms%n",
+                result.getAction(),
+                result.getTotalCalories(),
+                Math.round(result.getTotalDuration()),
+                took
+        );
+
+        return result;
     }
 
 
@@ -96,7 +119,7 @@ public class GeminiExerciseAnalysisService {
         return sb.toString();
     }
 
-    private String buildPrompt(User user, String userText, List<ExerciseItem> todayExercises) {
+    String buildPrompt(User user, String userText, List<ExerciseItem> todayExercises) {
 
         String gender = safe(user.getGender());
         double height = safeDouble(user.getHeight());
@@ -228,14 +251,14 @@ todayExercises 는 오늘 이미 기록된 운동 목록이다.
 - 전체 합계(totalDuration, totalCalories)는 서버에서 재계산되므로 대략적이어도 된다.
 
 ------------------------------------------------------
-📦 [출력 JSON 형식 — 반드시 이 형태만 출력]
+📦 [출력 JSON 형식]
 
 {
   "action": "add" | "update" | "delete" | "replace",
   "exercises": [
     {
       "category": "CARDIO" | "STRENGTH" | "PILATES" | "YOGA" | "STRETCHING" | "OTHER",
-      "part": "FULL" | "CHEST" | "BACK" | "LOWER" | "ABS" | "SHOULDER" | "ARM" | "OTHER",
+      "part": "FULL" | "CHEST" | "BACK" | "LOWER" | "ABS" | "SHOULDER" | "OTHER",
       "name": "운동 이름",
       "durationMin": 숫자,
       "intensity": "LOW" | "MEDIUM" | "HIGH",
@@ -246,8 +269,6 @@ todayExercises 는 오늘 이미 기록된 운동 목록이다.
   "totalCalories": 숫자,
   "totalDuration": 숫자
 }
-
-⚠ JSON 이외의 텍스트(설명, 말풍선, 마크다운)는 절대 출력하지 마라.
 """;
 
     }
@@ -260,18 +281,6 @@ todayExercises 는 오늘 이미 기록된 운동 목록이다.
         return Period.between(birthDate, LocalDate.now()).getYears();
     }
 
-    /**
-     * ✅ JSON만 추출
-     */
-    private String extractJson(String text) {
-        if (text == null) return "{}";
-        int start = text.indexOf('{');
-        int end = text.lastIndexOf('}');
-        if (start >= 0 && end > start)
-            return text.substring(start, end + 1).trim();
-        return text.trim();
-    }
-
     private String safe(String s) {
         return (s == null || s.isBlank()) ? "Unknown" : s;
     }
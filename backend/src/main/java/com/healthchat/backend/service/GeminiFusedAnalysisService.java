@@ -0,0 +1,130 @@
+package com.healthchat.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthchat.backend.config.GeminiClient;
+import com.healthchat.backend.config.gemini.GeminiCaller;
+import com.healthchat.backend.config.gemini.GeminiSchema;
+import com.healthchat.backend.dto.DailyAnalysis;
+import com.healthchat.backend.dto.EmotionAnalysisResult;
+import com.healthchat.backend.dto.ExerciseAnalysisResult;
+import com.healthchat.backend.entity.User;
+import com.healthchat.backend.service.GeminiRoutingService.RoutingResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * ✨ 라우팅 + 식단/운동/감정 분석 단일 호출 파이프라인
+ * 라우팅 → 분석 2단계 LLM 지연을 1단계로 줄인다.
+ * 프롬프트는 기존 라우터/분석기의 지침을 그대로 이어 붙이고,
+ * 응답은 한 번에 바인딩하고 영역별 보정은 각 분석기의 complete 를 재사용해 ROUTED 모드와 결과 형태가 같다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GeminiFusedAnalysisService {
+
+    private final GeminiClient geminiClient;
+    private final GeminiRoutingService routingService;
+    private final GeminiMealAnalysisService mealService;
+    private final GeminiExerciseAnalysisService exerciseService;
+    private final GeminiEmotionAnalysisService emotionService;
+    private final DailyExerciseService dailyExerciseService;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** 라우팅 결과 + 영역별 분석 결과 (해당 문장이 없으면 ROUTED 모드와 같이 empty/null) */
+    public record FusedAnalysis(
+            RoutingResult routing,
+            DailyAnalysis meal,
+            ExerciseAnalysisResult exercise,
+            EmotionAnalysisResult emotion
+    ) {}
+
+    /** 서버에서 채우는 필드는 스키마에서 제외 */
+    private static final GeminiSchema SCHEMA = GeminiSchema.of(FusedAnalysis.class,
+            "meal.message", "exercise.message", "emotion.action", "emotion.rawText");
+
+    private static final String MEAL_INPUT = "(routing.mealText 에 분류한 문장)";
+    private static final String EXERCISE_INPUT = "(routing.exerciseText 에 분류한 문장)";
+    private static final String EMOTION_INPUT = "(routing.emotionText 에 분류한 문장)";
+
+
+    /* ============================================================
+     * 🔸 단일 호출 — 응답이 없거나 파싱 실패면 empty (호출자가 ROUTED 로 fallback)
+     * ============================================================ */
+    public Mono<FusedAnalysis> analyze(User user, String text) {
+
+        long start = System.currentTimeMillis();
+        String prompt = buildPrompt(user, text);
+
+        return geminiClient.generateSmartJsonAsync(prompt, GeminiCaller.FUSED, SCHEMA)
+                .flatMap(response -> Mono.justOrEmpty(parse(response, start)));
+    }
+
+    /** 응답 전체를 FusedAnalysis 로 한 번 바인딩한 뒤 영역별 보정만 각 분석기에 위임 */
+    private FusedAnalysis parse(String response, long start) {
+
+        if (response == null || response.isBlank()) {
+            log.warn("⚠️ [Fused] 응답 null/공백");
+            return null;
+        }
+
+        try {
+            FusedAnalysis bound = mapper.readValue(response, FusedAnalysis.class);
+            RoutingResult r = bound.routing();
+
+            RoutingResult routing = new RoutingResult(
+                    r == null || r.mealText() == null ? "" : r.mealText(),
+                    r == null || r.exerciseText() == null ? "" : r.exerciseText(),
+                    r == null || r.emotionText() == null ? "" : r.emotionText()
+            );
+
+            DailyAnalysis meal = routing.mealText().isBlank()
+                    ? DailyAnalysis.empty("meal")
+                    : mealService.complete(bound.meal(), routing.mealText(), start);
+
+            ExerciseAnalysisResult exercise = routing.exerciseText().isBlank()
+                    ? null
+                    : exerciseService.complete(bound.exercise(), start);
+
+            EmotionAnalysisResult emotion = routing.emotionText().isBlank()
+                    ? null
+                    : emotionService.complete(bound.emotion(), routing.emotionText(), start);
+
+            log.info("✨ [Fused] 분석 완료 ({}ms)", System.currentTimeMillis() - start);
+            return new FusedAnalysis(routing, meal, exercise, emotion);
+
+        } catch (Exception e) {
+            log.error("❌ [Fused] JSON 파싱 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 프롬프트 — 라우팅 지침 + 각 분석 지침 (입력 문장은 라우팅 결과를 가리킴)
+     * ============================================================ */
+    private String buildPrompt(User user, String text) {
+        return """
+너는 한국어 건강 일기 문장을 [식단], [운동], [감정]으로 분류하고, 분류한 문장을 바로 분석하는 AI다.
+응답은 routing / meal / exercise / emotion 네 필드를 가진 JSON 객체 하나다.
+
+1) routing: 아래 [라우팅 지침]에 따라 mealText / exerciseText / emotionText 를 채운다.
+2) meal / exercise / emotion: 각 [분석 지침]의 입력 문장은 routing 에 분류한 해당 문장이다.
+   해당 문장이 "" 이면 그 영역은 null 로 둔다.
+3) 각 분석 지침에 나오는 JSON 형식은 해당 필드의 값 형식이다.
+
+==================== [라우팅 지침] ====================
+""" + routingService.buildPrompt(text) + """
+
+==================== [식단 분석 지침] ====================
+""" + mealService.buildPrompt(user, MEAL_INPUT) + """
+
+==================== [운동 분석 지침] ====================
+""" + exerciseService.buildPrompt(user, EXERCISE_INPUT, dailyExerciseService.getTodayExercises(user)) + """
+
+==================== [감정 분석 지침] ====================
+""" + emotionService.buildPrompt(EMOTION_INPUT);
+    }
+}
@@ -2,16 +2,21 @@ package com.healthchat.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthchat.backend.config.GeminiClient;
+import com.healthchat.backend.config.gemini.GeminiCaller;
+import com.healthchat.backend.config.gemini.GeminiSchema;
+import com.healthchat.backend.config.gemini.GeminiUnavailableException;
 import com.healthchat.backend.dto.DailyAnalysis;
 import com.healthchat.backend.dto.MealEntry;
 import com.healthchat.backend.entity.DailyMeal;
 import com.healthchat.backend.entity.User;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,56 +25,81 @@ public class GeminiMealAnalysisService {
 
     private final GeminiClient geminiClient;
     private final DailyMealService dailyMealService;
+    private final Scheduler aiScheduler;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @Async
+    /** 구조화 출력 스키마 — message 는 서버에서 채우므로 제외 */
+    private static final GeminiSchema SCHEMA = GeminiSchema.of(DailyAnalysis.class, "message");
+
+    /**
+     * Gemini 호출은 논블로킹 — 응답이 오면 파싱해서 future 완료 (대기 중 스레드 점유 없음)
+     * 프롬프트 준비(오늘 식단 조회)와 파싱은 aiExecutor 에서 실행
+     */
     public CompletableFuture<DailyAnalysis> analyzeDailyLog(User user, String userText) {
 
         long start = System.currentTimeMillis();
 
-        DailyMeal todayMeal = dailyMealService.getTodayMeal(user);
-        String todayMealPrompt = buildTodayMealSection(todayMeal);
+        return Mono.fromCallable(() -> buildPrompt(user, userText))
+                .subscribeOn(aiScheduler)
+                .flatMap(prompt -> geminiClient.generateSmartJsonAsync(prompt, GeminiCaller.MEAL, SCHEMA))
+                .publishOn(aiScheduler)
+                .map(geminiResponse -> parse(geminiResponse, userText, start))
+                // 서킷 오픈 / 동시성 한도 초과 / aiExecutor 포화 → 즉시 fallback
+                .onErrorResume(GeminiUnavailableException.class, e -> Mono.just(buildFallback(userText)))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(buildFallback(userText)))
+                .toFuture();
+    }
 
-        String prompt = buildPromptV8(userText, todayMealPrompt);
+    /** 오늘 식단 + 입력 문장으로 프롬프트 생성 (통합 파이프라인에서도 사용) */
+    String buildPrompt(User user, String userText) {
+        DailyMeal todayMeal = dailyMealService.getTodayMeal(user);
+        return buildPromptV8(userText, buildTodayMealSection(todayMeal));
+    }
 
-        String geminiResponse = geminiClient.generateSmartJson(prompt);
+    /** 구조화 출력 응답(JSON 그대로)을 DailyAnalysis 로 한 번에 바인딩 */
+    DailyAnalysis parse(String geminiResponse, String userText, long start) {
 
         if (geminiResponse == null || geminiResponse.isBlank()) {
-            return CompletableFuture.completedFuture(buildFallback(userText));
+            return buildFallback(userText);
         }
 
-        String json = extractJson(geminiResponse);
-
         try {
-            DailyAnalysis result = objectMapper.readValue(json, DailyAnalysis.class);
-
-            // replace → update 오탐 교정
-            if ("replace".equalsIgnoreCase(result.getAction())) {
-                boolean single = userText.matches(".*(아침|점심|저녁|간식).*");
-                boolean fullReset = userText.matches(".*(전체|전부|다시|새로|처음부터|식단).*");
-                if (single && !fullReset) {
-                    result.setAction("update");
-                }
-            }
+            return complete(objectMapper.readValue(geminiResponse, DailyAnalysis.class), userText, start);
+        } catch (Exception e) {
+            return buildFallback(userText);
+        }
+    }
 
-            // update인데 끼니 1개면 target 자동 추론
-            if ("update".equalsIgnoreCase(result.getAction())
-                    && result.getTargetMeal() == null
-                    && result.getMeals() != null
-                    && result.getMeals().size() == 1) {
+    /** 바인딩된 결과 보정 (통합 파이프라인은 응답 전체를 한 번 바인딩한 뒤 영역 값으로 호출) */
+    DailyAnalysis complete(DailyAnalysis result, String userText, long start) {
 
-                result.setTargetMeal(result.getMeals().get(0).getTime());
-            }
+        if (result == null) {
+            return buildFallback(userText);
+        }
 
-            System.out.printf("✔ [Meal] 분석 완료 (%dms) → %s%n",
-                    (System.currentTimeMillis() - start),
-                    result.getAction());
+        // replace → update 오탐 교정
+        if ("replace".equalsIgnoreCase(result.getAction())) {
+            boolean single = userText.matches(".*(아침|점심|저녁|간식).*");
+            boolean fullReset = userText.matches(".*(전체|전부|다시|새로|처음부터|식단).*");
+            if (single && !fullReset) {
+                result.setAction("update");
+            }
+        }
 
-            return CompletableFuture.completedFuture(result);
+        // update인데 끼니 1개면 target 자동 추론
+        if ("update".equalsIgnoreCase(result.getAction())
+                && result.getTargetMeal() == null
+                && result.getMeals() != null
+                && result.getMeals().size() == 1) {
 
-        } catch (Exception e) {
-            return CompletableFuture.completedFuture(buildFallback(userText));
+            result.setTargetMeal(result.getMeals().get(0).getTime());
         }
+
+        System.out.printf("✔ [Meal] 분석 완료 (%dms) → %s%n",
+                (System.currentTimeMillis() - start),
+                result.getAction());
+
+        return result;
     }
 
     /* ===========================================
@@ -115,9 +145,6 @@ public class GeminiMealAnalysisService {
 너는 사용자의 '식단 기록'을 분석하는 전문 AI다.
 
 ⚠️ 반드시 아래 규칙을 지켜야 한다:
-- JSON 이외의 글 출력 금지
-- 코드블록 금지
-- 설명 금지
 - 단위는 항상 g
 - 새 음식의 칼로리/탄단지는 반드시 새로 계산할 것
 - 기존 기록의 칼로리를 복사하거나 그대로 가져오면 안됨
@@ -183,14 +210,6 @@ replace: 다시, 처음부터, 전체, 전부(전체 교체)
 """ + userText;
     }
 
-    private String extractJson(String text) {
-        if (text == null) return "{}";
-        int s = text.indexOf("{");
-        int e = text.lastIndexOf("}");
-        if (s >= 0 && e > s) return text.substring(s, e + 1).trim();
-        return "{}";
-    }
-
     private DailyAnalysis buildFallback(String userText) {
         return DailyAnalysis.builder()
                 .action("error")
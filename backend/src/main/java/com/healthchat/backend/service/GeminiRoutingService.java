@@ -1,12 +1,22 @@
 package com.healthchat.backend.service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthchat.backend.config.GeminiClient;
+import com.healthchat.backend.config.gemini.GeminiCaller;
+import com.healthchat.backend.config.gemini.GeminiSchema;
+import com.healthchat.backend.config.gemini.GeminiUnavailableException;
+import com.healthchat.backend.service.routing.Intent;
+import com.healthchat.backend.service.routing.IntentMatcher;
+import com.healthchat.backend.service.routing.LocalPreRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
-import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * ✨ 라우팅 전용 서비스
@@ -18,7 +28,13 @@ import java.util.Map;
 public class GeminiRoutingService {
 
     private final GeminiClient geminiClient;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final LocalPreRouter preRouter;
+    private final IntentMatcher intentMatcher;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /** 구조화 출력 스키마 — mealText / exerciseText / emotionText */
+    private static final GeminiSchema SCHEMA = GeminiSchema.of(RoutingResult.class);
 
 
     // --------------------------------------------
@@ -36,37 +52,39 @@ public class GeminiRoutingService {
     // ======================================================================
     public RoutingResult route(String userText) {
 
-        // -------------------------------------------------------
-        // 1) 전체 삭제 명령 → AI 호출 안 함
-        // -------------------------------------------------------
-        if (isDeleteAllCommand(userText)) {
-            log.info("🧹 [Routing] 전체 삭제 명령 감지 → Gemini 호출 생략");
+        return routeAsync(userText).block();
+    }
 
-            return new RoutingResult(
-                    "DELETE_ALL",
-                    "DELETE_ALL",
-                    "DELETE_ALL"
-            );
-        }
+    /** route() 의 논블로킹 버전 — 스트리밍 응답에서 사용 */
+    public Mono<RoutingResult> routeAsync(String userText) {
 
         // -------------------------------------------------------
-        // 2) 개별 삭제 명령(식단/운동/감정)
+        // 1~2.5) 삭제 명령 / 어휘로 확실한 입력 → AI 호출 안 함
         // -------------------------------------------------------
-        if (isDeleteMealCommand(userText)) {
-            log.info("🍱 [Routing] 식단 삭제 명령 감지");
-            return new RoutingResult("DELETE_MEAL", "", "");
-        }
+        Optional<RoutingResult> local = routeLocally(userText);
+        if (local.isPresent()) return Mono.just(local.get());
 
-        if (isDeleteExerciseCommand(userText)) {
-            log.info("🏋 [Routing] 운동 삭제 명령 감지");
-            return new RoutingResult("", "DELETE_EXERCISE", "");
-        }
+        // 서킷 오픈 / 한도 초과 → 빈 라우팅 (기존 blocking 동작과 동일)
+        return routeWithGemini(userText)
+                .onErrorResume(GeminiUnavailableException.class, e -> Mono.just(new RoutingResult("", "", "")));
+    }
 
-        if (isDeleteEmotionCommand(userText)) {
-            log.info("💬 [Routing] 감정 삭제 명령 감지");
-            return new RoutingResult("", "", "DELETE_EMOTION");
-        }
+    /** 삭제 명령 → 로컬 사전 라우터 순으로 판단, 둘 다 아니면 empty (LLM 필요) */
+    public Optional<RoutingResult> routeLocally(String userText) {
 
+        // 1~2) 삭제 명령
+        Optional<RoutingResult> command = detectDeleteCommand(userText);
+        if (command.isPresent()) return command;
+
+        // 2.5) 어휘만으로 확실히 나뉘는 입력
+        return preRouter.route(userText);
+    }
+
+    // ======================================================================
+    // 🔥 Gemini 라우팅 (논블로킹) — 삭제/로컬 판단 없이 바로 LLM
+    //    추측 실행 파이프라인이 라우팅 대기 중에 분석을 미리 시작할 때 사용
+    // ======================================================================
+    public Mono<RoutingResult> routeWithGemini(String userText) {
 
         // -------------------------------------------------------
         // 3) 프롬프트 생성
@@ -76,7 +94,11 @@ public class GeminiRoutingService {
         // -------------------------------------------------------
         // 4) pro → flash fallback 자동 적용
         // -------------------------------------------------------
-        String response = geminiClient.generateSmartJson(prompt);
+        return geminiClient.generateSmartJsonAsync(prompt, GeminiCaller.ROUTING, SCHEMA)
+                .map(this::parseRouting);
+    }
+
+    private RoutingResult parseRouting(String response) {
 
         if (response == null || response.isBlank()) {
             log.warn("⚠️ Routing 응답 null/공백 — fallback 반환");
@@ -84,20 +106,14 @@ public class GeminiRoutingService {
         }
 
         // -------------------------------------------------------
-        // 5) JSON만 추출
-        // -------------------------------------------------------
-        String json = extractJson(response);
-
-
-        // -------------------------------------------------------
-        // 6) JSON → map 파싱
+        // 5) JSON → RoutingResult (스키마상 nullable — null 도 "" 로 취급)
         // -------------------------------------------------------
         try {
-            Map<String, Object> map = mapper.readValue(json, Map.class);
+            RoutingResult bound = mapper.readValue(response, RoutingResult.class);
 
-            String meal = map.getOrDefault("mealText", "").toString();
-            String exercise = map.getOrDefault("exerciseText", "").toString();
-            String emotion = map.getOrDefault("emotionText", "").toString();
+            String meal = Objects.toString(bound.mealText(), "");
+            String exercise = Objects.toString(bound.exerciseText(), "");
+            String emotion = Objects.toString(bound.emotionText(), "");
 
             log.info("===== 🧩 Routing 결과 =====");
             log.info("📌 Meal: {}", meal.isBlank() ? "(없음)" : meal);
@@ -117,112 +133,48 @@ public class GeminiRoutingService {
 
 
     // ======================================================================
-// 🔥 삭제 명령 감지 — 전체 삭제 (자연어 버전 확장)
-// ======================================================================
-    private boolean isDeleteAllCommand(String text) {
-        if (text == null) return false;
-
-        String t = text.toLowerCase();
-
-        // 개별 삭제 의도 포함하면 전체 삭제 아님
-        if (t.contains("운동") || t.contains("식단") || t.contains("감정")) return false;
-
-        String[] phrases = {
-                "오늘 기록 전체 삭제",
-                "전체 기록 삭제",
-                "전체기록삭제",
-                "기록 전체 삭제",
-                "기록 전부 삭제",
-                "오늘 기록 초기화",
-                "오늘 기록 다 지워줘",
-                "기록 다 지워",
-                "기록 싹 지워",
-                "모든 기록 삭제",
-                "전부 다 지워",
-                "오늘 거 전부 없애줘",
-                "전체 데이터 리셋",
-                "오늘 기록 비워줘"
-        };
-
-        for (String p : phrases) {
-            if (t.contains(p)) return true;
-        }
-        return false;
-    }
+    // 🧹 삭제 명령 감지 — 구문표(routing/intents.txt) 기반, 입력 1회 스캔
+    //    (통합 파이프라인에서도 AI 호출 전에 사용)
+    // ======================================================================
+    public Optional<RoutingResult> detectDeleteCommand(String userText) {
 
+        Set<Intent> intents = intentMatcher.match(userText);
 
-    // ======================================================================
-// 🍱 식단 삭제 명령 감지 — 자연어 확장
-// ======================================================================
-    private boolean isDeleteMealCommand(String text) {
-        if (text == null) return false;
-        String t = text.toLowerCase();
-
-        String[] phrases = {
-                "식단 삭제", "식단 좀 삭제해줘", "식단 초기화","식단삭제",
-                "식단 기록 삭제", "식단 기록 지워줘",
-                "오늘 식단 삭제", "오늘 식단 없애줘",
-                "먹은거 삭제", "먹은거 전부 삭제",
-                "먹은 거 다 지워", "먹은 거 지워줘",
-                "오늘 먹은 거 삭제", "오늘 먹은 거 리셋",
-                "식사 기록 삭제", "식사 기록 초기화"
-        };
-
-        for (String p : phrases) if (t.contains(p)) return true;
-
-        return false;
-    }
+        // 전체 삭제 — 개별 영역(운동/식단/감정)을 언급하면 전체 삭제 아님
+        if (intents.contains(Intent.DELETE_ALL) && !intents.contains(Intent.DOMAIN_KEYWORD)) {
+            log.info("🧹 [Routing] 전체 삭제 명령 감지 → Gemini 호출 생략");
 
+            return Optional.of(new RoutingResult(
+                    "DELETE_ALL",
+                    "DELETE_ALL",
+                    "DELETE_ALL"
+            ));
+        }
 
-    // ======================================================================
-// 🏋 운동 삭제 명령 감지 — 자연어 확장
-// ======================================================================
-    private boolean isDeleteExerciseCommand(String text) {
-        if (text == null) return false;
-        String t = text.toLowerCase();
-
-        String[] phrases = {
-                "운동 삭제", "운동 기록 삭제", "운동 좀 삭제해줘","운동삭제",
-                "운동 초기화", "운동 기록 리셋",
-                "오늘 운동 삭제", "오늘 운동 지워줘",
-                "운동 다 지워", "운동 전부 삭제",
-                "오늘 한 운동 삭제", "운동 데이터 삭제",
-                "운동 기록 비워줘", "운동 기록 없애줘"
-        };
-
-        for (String p : phrases) if (t.contains(p)) return true;
-
-        return false;
-    }
+        // 개별 삭제 명령(식단/운동/감정)
+        if (intents.contains(Intent.DELETE_MEAL)) {
+            log.info("🍱 [Routing] 식단 삭제 명령 감지");
+            return Optional.of(new RoutingResult("DELETE_MEAL", "", ""));
+        }
 
+        if (intents.contains(Intent.DELETE_EXERCISE)) {
+            log.info("🏋 [Routing] 운동 삭제 명령 감지");
+            return Optional.of(new RoutingResult("", "DELETE_EXERCISE", ""));
+        }
 
-    // ======================================================================
-// 💬 감정 삭제 명령 감지 — 자연어 확장
-// ======================================================================
-    private boolean isDeleteEmotionCommand(String text) {
-        if (text == null) return false;
-        String t = text.toLowerCase();
-
-        String[] phrases = {
-                "감정 삭제", "오늘 감정 삭제", "감정 기록 삭제","감정삭제",
-                "감정 다 지워", "감정 초기화",
-                "기분 기록 삭제", "기분 기록 지워줘",
-                "기분 기록 없애줘", "기분 삭제해줘",
-                "감정 전부 삭제", "감정 데이터 삭제",
-                "오늘 감정 리셋", "오늘 감정 비워줘",
-                "기분 초기화"
-        };
-
-        for (String p : phrases) if (t.contains(p)) return true;
-
-        return false;
+        if (intents.contains(Intent.DELETE_EMOTION)) {
+            log.info("💬 [Routing] 감정 삭제 명령 감지");
+            return Optional.of(new RoutingResult("", "", "DELETE_EMOTION"));
+        }
+
+        return Optional.empty();
     }
 
 
     /**
      * 🔥 기존 프롬프트 — 절대 수정하지 않음
      */
-    private String buildPrompt(String text) {
+    String buildPrompt(String text) {
         return """
 너는 한국어 건강 일기 문장을 [식단], [운동], [감정] 세 가지로 정확하게 분류하는 AI 라우터다.
 
@@ -342,15 +294,4 @@ AI가 반드시 의미가 명확한 완전한 문장으로 확장해야 한다.
 "%s"
 """.formatted(text);
     }
-
-    /**
-     * GPT 응답에서 JSON만 추출
-     */
-    private String extractJson(String text) {
-        if (text == null) return "{}";
-        int s = text.indexOf("{");
-        int e = text.lastIndexOf("}");
-        if (s >= 0 && e > s) return text.substring(s, e + 1);
-        return "{}";
-    }
 }
@@ -0,0 +1,178 @@
+package com.healthchat.backend.service;
+
+import com.healthchat.backend.config.gemini.GeminiUnavailableException;
+import com.healthchat.backend.dto.DailyAnalysis;
+import com.healthchat.backend.dto.EmotionAnalysisResult;
+import com.healthchat.backend.dto.ExerciseAnalysisResult;
+import com.healthchat.backend.entity.User;
+import com.healthchat.backend.service.GeminiRoutingService.RoutingResult;
+import com.healthchat.backend.service.routing.LocalPreRouter;
+import com.healthchat.backend.service.routing.LocalPreRouter.Category;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ✨ 추측 실행 — LLM 라우팅을 기다리는 동안 분석을 원문으로 미리 시작
+ *
+ * 1) Gemini 라우팅 요청과 동시에, 어휘 신호(LocalPreRouter.signals)가 한 영역뿐이면 그 영역 분석기를 원문으로 실행
+ *    - 신호가 여러 영역이면 라우터가 문장을 나누므로 원문 그대로 배정될 수 없음 → 추측하지 않음
+ *    - 신호가 없으면 어느 영역인지 알 수 없음 → 추측하지 않음
+ * 2) 라우팅이 끝나면 영역별로
+ *    - hit   : 라우팅이 그 영역에 배정한 문장이 원문과 같음 (공백·문장부호 차이 무시) → 미리 받은 결과 사용
+ *    - waste : 라우팅이 배정하지 않았거나 원문과 다른 문장을 배정 → 취소 (진행 중이면 요청도 취소)
+ *    - miss  : 라우팅이 배정했는데 미리 시작하지 않았음 → 라우팅 문장으로 새로 분석
+ *    원문 전체를 분석한 결과는 배정 문장이 원문과 다르면(영역이 하나뿐이어도) 쓰지 않음 — 다른 영역 문장까지 섞인 분석이므로
+ * 3) 결과는 gemini.speculation{domain, result} 카운터로 집계 (hit / waste 비율)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GeminiSpeculativeAnalysisService {
+
+    private final GeminiRoutingService routingService;
+    private final LocalPreRouter preRouter;
+    private final GeminiMealAnalysisService mealService;
+    private final GeminiExerciseAnalysisService exerciseService;
+    private final GeminiEmotionAnalysisService emotionService;
+    private final DailyExerciseService dailyExerciseService;
+    private final MeterRegistry meterRegistry;
+
+    /** Gemini 라우팅 + (신호가 한 영역뿐이면) 그 영역 분석을 동시에 시작 */
+    public Speculation start(User user, String text) {
+
+        // 라우팅 먼저 구독 — 이후 분석기 준비(DB 조회) 시간과 겹치게
+        CompletableFuture<RoutingResult> routing = routingService.routeWithGemini(text)
+                .onErrorResume(GeminiUnavailableException.class, e -> Mono.just(new RoutingResult("", "", "")))
+                .toFuture();
+
+        Set<Category> signals = preRouter.signals(text);
+        if (signals.size() != 1) {
+            log.info("🔮 [Speculative] 신호 영역 {}개 → 추측 없이 라우팅만: {}", signals.size(), signals);
+            return new Speculation(text, routing, null, null, null);
+        }
+
+        CompletableFuture<DailyAnalysis> meal = signals.contains(Category.MEAL)
+                ? mealService.analyzeDailyLog(user, text)
+                : null;
+
+        CompletableFuture<ExerciseAnalysisResult> exercise = signals.contains(Category.EXERCISE)
+                ? exerciseService.analyzeExercise(user.getId(), text, dailyExerciseService.getTodayExercises(user))
+                : null;
+
+        CompletableFuture<EmotionAnalysisResult> emotion = signals.contains(Category.EMOTION)
+                ? emotionService.analyzeEmotion(text)
+                : null;
+
+        log.info("🔮 [Speculative] 라우팅 대기 중 미리 시작: {}", signals);
+        return new Speculation(text, routing, meal, exercise, emotion);
+    }
+
+
+    /* ============================================================
+     * 🔸 진행 중인 추측 실행 — 라우팅 결과로 채택/폐기
+     * ============================================================ */
+    public final class Speculation {
+
+        private final String text;
+        private final CompletableFuture<RoutingResult> routing;
+        private CompletableFuture<DailyAnalysis> meal;
+        private CompletableFuture<ExerciseAnalysisResult> exercise;
+        private CompletableFuture<EmotionAnalysisResult> emotion;
+
+        private Speculation(String text,
+                            CompletableFuture<RoutingResult> routing,
+                            CompletableFuture<DailyAnalysis> meal,
+                            CompletableFuture<ExerciseAnalysisResult> exercise,
+                            CompletableFuture<EmotionAnalysisResult> emotion) {
+            this.text = text;
+            this.routing = routing;
+            this.meal = meal;
+            this.exercise = exercise;
+            this.emotion = emotion;
+        }
+
+        /** 라우팅 실패(GeminiUnavailable 외 오류)로 예외가 나면 미리 시작한 분석도 모두 취소 */
+        public RoutingResult awaitRouting() {
+            try {
+                return routing.join();
+            } catch (RuntimeException e) {
+                discardRest();
+                throw e;
+            }
+        }
+
+        /** 채택 가능하면 미리 시작한 future, 아니면 null (호출자가 라우팅 문장으로 새로 분석) */
+        public CompletableFuture<DailyAnalysis> takeMeal(RoutingResult routed) {
+            CompletableFuture<DailyAnalysis> taken = take(Category.MEAL, meal, routed.mealText());
+            if (taken != null) meal = null;
+            return taken;
+        }
+
+        public CompletableFuture<ExerciseAnalysisResult> takeExercise(RoutingResult routed) {
+            CompletableFuture<ExerciseAnalysisResult> taken =
+                    take(Category.EXERCISE, exercise, routed.exerciseText());
+            if (taken != null) exercise = null;
+            return taken;
+        }
+
+        public CompletableFuture<EmotionAnalysisResult> takeEmotion(RoutingResult routed) {
+            CompletableFuture<EmotionAnalysisResult> taken =
+                    take(Category.EMOTION, emotion, routed.emotionText());
+            if (taken != null) emotion = null;
+            return taken;
+        }
+
+        /** 채택되지 않은 추측 실행 취소 */
+        public void discardRest() {
+            discard(Category.MEAL, meal);
+            discard(Category.EXERCISE, exercise);
+            discard(Category.EMOTION, emotion);
+            meal = null;
+            exercise = null;
+            emotion = null;
+        }
+
+        private <T> CompletableFuture<T> take(Category category, CompletableFuture<T> started,
+                                              String routedText) {
+            boolean needed = routedText != null && !routedText.isBlank();
+
+            if (started == null) {
+                if (needed) record(category, "miss");
+                return null;
+            }
+
+            if (needed && sameText(routedText, text)) {
+                record(category, "hit");
+                return started;
+            }
+            return null;
+        }
+
+        private void discard(Category category, CompletableFuture<?> started) {
+            if (started == null) return;
+            started.cancel(true);
+            record(category, "waste");
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 채택 조건
+     * ============================================================ */
+
+    /** 공백·문장부호 차이만 있으면 같은 입력 */
+    private static boolean sameText(String a, String b) {
+        return a.replaceAll("[\\s\\p{P}~]+", "").equals(b.replaceAll("[\\s\\p{P}~]+", ""));
+    }
+
+    private void record(Category category, String result) {
+        meterRegistry.counter("gemini.speculation",
+                "domain", category.name().toLowerCase(), "result", result).increment();
+    }
+}
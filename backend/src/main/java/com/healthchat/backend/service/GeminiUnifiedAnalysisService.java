@@ -1,14 +1,27 @@
 package com.healthchat.backend.service;
 
+import com.healthchat.backend.config.gemini.GeminiUnavailableException;
 import com.healthchat.backend.dto.*;
 import com.healthchat.backend.entity.*;
 import com.healthchat.backend.repository.UserRepository;
+import com.healthchat.backend.service.GeminiFusedAnalysisService.FusedAnalysis;
+import com.healthchat.backend.service.GeminiSpeculativeAnalysisService.Speculation;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class GeminiUnifiedAnalysisService {
@@ -22,6 +35,98 @@ public class GeminiUnifiedAnalysisService {
     private final DailyExerciseService dailyExerciseService;
     private final DailyEmotionService dailyEmotionService;
     private final DailyLogService dailyLogService;
+    private final GeminiRoutingService routingService;
+    private final GeminiFusedAnalysisService fusedService;
+    private final GeminiSpeculativeAnalysisService speculativeService;
+    private final Scheduler aiScheduler;
+
+    /** 요청에 mode 가 없을 때 사용할 파이프라인 (routed | fused | speculative) */
+    @Value("${gemini.pipeline.mode:routed}")
+    private String defaultMode;
+
+    public AnalysisPipelineMode resolveMode(String requested) {
+        return AnalysisPipelineMode.from(requested,
+                AnalysisPipelineMode.from(defaultMode, AnalysisPipelineMode.ROUTED));
+    }
+
+    /**
+     * 파이프라인 모드 선택 버전
+     * - ROUTED : 라우팅 호출 후 분석 3건 병렬
+     * - FUSED  : 라우팅 + 분석 단일 호출 (실패 시 ROUTED 로 fallback)
+     * - SPECULATIVE : 라우팅 대기 중 분석을 원문으로 미리 시작
+     */
+    public UnifiedAnalysisResult analyzeAll(User user, String text, AnalysisPipelineMode mode) {
+        return analyze(user, text, mode, true);
+    }
+
+    /**
+     * save=false : 같은 파이프라인(로컬 라우팅·추측 채택·fused fallback 포함)을 실행하되 DB 에 쓰지 않음
+     * - 삭제 명령은 삭제 없이 삭제 결과만, 분석 결과는 저장 없이 그대로 반환
+     * - 감정 요약 DTO 는 저장된 엔티티로 만들므로 null
+     * - 파이프라인 벤치마크용 (bench.AnalysisPipelineBenchmarkRunner)
+     */
+    public UnifiedAnalysisResult analyze(User user, String text, AnalysisPipelineMode mode, boolean save) {
+        return switch (mode) {
+            case FUSED -> analyzeFused(user, text, save);
+            case SPECULATIVE -> analyzeSpeculative(user, text, save);
+            case ROUTED -> analyzeAll(user, text, routingService.route(text), null, save);
+        };
+    }
+
+    private UnifiedAnalysisResult analyzeSpeculative(User user, String text, boolean save) {
+
+        // 삭제 명령 / 로컬 라우팅으로 끝나면 LLM 라우팅 대기가 없으므로 추측할 필요 없음
+        Optional<GeminiRoutingService.RoutingResult> local = routingService.routeLocally(text);
+        if (local.isPresent()) {
+            return analyzeAll(user, text, local.get(), null, save);
+        }
+
+        Speculation speculation = speculativeService.start(user, text);
+        GeminiRoutingService.RoutingResult routed = speculation.awaitRouting();
+
+        // 라우팅 지침상 전체 삭제 표현 → 추측 결과 폐기 후 삭제 경로
+        if (isDeleteAllPhrase(routed)) {
+            speculation.discardRest();
+            return analyzeAll(user, text,
+                    new GeminiRoutingService.RoutingResult("DELETE_ALL", "DELETE_ALL", "DELETE_ALL"), null, save);
+        }
+
+        return analyzeAll(user, text, routed, speculation, save);
+    }
+
+    private boolean isDeleteAllPhrase(GeminiRoutingService.RoutingResult routed) {
+        return "전체 기록 삭제".equals(routed.mealText())
+                && "전체 기록 삭제".equals(routed.exerciseText())
+                && "전체 기록 삭제".equals(routed.emotionText());
+    }
+
+    private UnifiedAnalysisResult analyzeFused(User user, String text, boolean save) {
+
+        // 삭제 명령은 AI 호출 없이 기존 경로로
+        Optional<GeminiRoutingService.RoutingResult> command = routingService.detectDeleteCommand(text);
+        if (command.isPresent()) {
+            return analyzeAll(user, text, command.get(), null, save);
+        }
+
+        FusedAnalysis fused = fusedService.analyze(user, text)
+                .onErrorResume(GeminiUnavailableException.class, e -> Mono.empty())
+                .block();
+
+        if (fused == null) {
+            log.warn("⚠️ [Fused] 단일 호출 실패 → routed 파이프라인으로 fallback");
+            return analyzeAll(user, text, routingService.route(text), null, save);
+        }
+
+        // 라우팅 지침상 전체 삭제 표현 → 삭제 경로
+        if (isDeleteAllPhrase(fused.routing())) {
+            return analyzeAll(user, text,
+                    new GeminiRoutingService.RoutingResult("DELETE_ALL", "DELETE_ALL", "DELETE_ALL"), null, save);
+        }
+
+        return save
+                ? persist(user, fused.meal(), fused.exercise(), fused.emotion())
+                : unsaved(fused.meal(), fused.exercise());
+    }
 
     /**
      * 컨트롤러에서 라우팅 결과를 전달받는 버전
@@ -29,6 +134,13 @@ public class GeminiUnifiedAnalysisService {
     public UnifiedAnalysisResult analyzeAll(
             User user, String text, GeminiRoutingService.RoutingResult routed
     ) {
+        return analyzeAll(user, text, routed, null, true);
+    }
+
+    /** speculation 이 있으면 라우팅과 맞는 추측 결과를 재사용하고 나머지는 취소 */
+    private UnifiedAnalysisResult analyzeAll(
+            User user, String text, GeminiRoutingService.RoutingResult routed, Speculation speculation, boolean save
+    ) {
 
         /* =====================================================================
            🔥 1) 먼저 삭제 명령을 처리한다 (AI 호출 안 함)
@@ -37,39 +149,73 @@ public class GeminiUnifiedAnalysisService {
         // -------------------------
         // 전체 삭제
         // -------------------------
-        if ("DELETE_ALL".equals(routed.mealText())
-                && "DELETE_ALL".equals(routed.exerciseText())
-                && "DELETE_ALL".equals(routed.emotionText())) {
-
-            dailyMealService.deleteToday(user);
-            dailyExerciseService.deleteToday(user);
-            dailyEmotionService.deleteToday(user);
-            dailyLogService.deleteAll(user);
-            aiCoachFeedbackService.deleteTodayFeedback(user.getId());
-            return UnifiedAnalysisResult.builder()
-                    .mealAnalysis(DailyAnalysis.deleted("meal"))
-                    .exerciseAnalysis(ExerciseAnalysisResult.deleted())
-                    .emotionAnalysis(EmotionSummaryDto.deleted())
-                    .build();
+        if (isDeleteAll(routed)) {
+            return save ? deleteAllToday(user) : deletedAll();
         }
 
+        Analyses analyses = startAnalyses(user, routed, speculation, save);
+
+
+        /* =====================================================================
+           🔥 2) AI Future들 모두 기다림
+           ===================================================================== */
+        CompletableFuture.allOf(analyses.meal(), analyses.exercise(), analyses.emotion()).join();
+
+        return save
+                ? persist(user, analyses.meal().join(), analyses.exercise().join(), analyses.emotion().join())
+                : unsaved(analyses.meal().join(), analyses.exercise().join());
+    }
+
+    private boolean isDeleteAll(GeminiRoutingService.RoutingResult routed) {
+        return "DELETE_ALL".equals(routed.mealText())
+                && "DELETE_ALL".equals(routed.exerciseText())
+                && "DELETE_ALL".equals(routed.emotionText());
+    }
+
+    private UnifiedAnalysisResult deleteAllToday(User user) {
+        dailyMealService.deleteToday(user);
+        dailyExerciseService.deleteToday(user);
+        dailyEmotionService.deleteToday(user);
+        dailyLogService.deleteAll(user);
+        aiCoachFeedbackService.deleteTodayFeedback(user.getId());
+        return deletedAll();
+    }
+
+    private UnifiedAnalysisResult deletedAll() {
+        return UnifiedAnalysisResult.builder()
+                .mealAnalysis(DailyAnalysis.deleted("meal"))
+                .exerciseAnalysis(ExerciseAnalysisResult.deleted())
+                .emotionAnalysis(EmotionSummaryDto.deleted())
+                .build();
+    }
+
+    /** 영역별 분석 future — 개별 삭제 명령은 바로 처리하고 완료된 future, 입력 없는 영역은 null 결과 */
+    private record Analyses(CompletableFuture<DailyAnalysis> meal,
+                            CompletableFuture<ExerciseAnalysisResult> exercise,
+                            CompletableFuture<EmotionAnalysisResult> emotion) {}
+
+    private Analyses startAnalyses(
+            User user, GeminiRoutingService.RoutingResult routed, Speculation speculation, boolean save
+    ) {
+
         /* -------------------------
            개별 삭제 (식단)
            ------------------------- */
         CompletableFuture<DailyAnalysis> mealFuture;
         if ("DELETE_MEAL".equals(routed.mealText())) {
 
-            dailyMealService.deleteToday(user);
+            if (save) dailyMealService.deleteToday(user);
 
             mealFuture = CompletableFuture.completedFuture(
                     DailyAnalysis.deleted("meal")
             );
 
         } else {
-            // AI 호출
+            // AI 호출 (추측 실행 결과가 맞으면 재사용)
+            CompletableFuture<DailyAnalysis> speculated = speculation == null ? null : speculation.takeMeal(routed);
             mealFuture = routed.mealText().isBlank()
                     ? CompletableFuture.completedFuture(DailyAnalysis.empty("meal"))
-                    : mealService.analyzeDailyLog(user, routed.mealText());
+                    : speculated != null ? speculated : mealService.analyzeDailyLog(user, routed.mealText());
         }
 
 
@@ -80,7 +226,7 @@ public class GeminiUnifiedAnalysisService {
 
         if ("DELETE_EXERCISE".equals(routed.exerciseText())) {
 
-            dailyExerciseService.deleteToday(user);
+            if (save) dailyExerciseService.deleteToday(user);
 
             exerciseFuture = CompletableFuture.completedFuture(
                     ExerciseAnalysisResult.deleted()
@@ -89,11 +235,15 @@ public class GeminiUnifiedAnalysisService {
         } else {
 
             String exerciseText = routed.exerciseText();
-            List<ExerciseItem> todayExercises = dailyExerciseService.getTodayExercises(user);
+            CompletableFuture<ExerciseAnalysisResult> speculated =
+                    speculation == null ? null : speculation.takeExercise(routed);
 
             if (exerciseText.isBlank()) {
                 exerciseFuture = CompletableFuture.completedFuture(null);
+            } else if (speculated != null) {
+                exerciseFuture = speculated;
             } else {
+                List<ExerciseItem> todayExercises = dailyExerciseService.getTodayExercises(user);
                 exerciseFuture = exerciseService.analyzeExercise(
                         user.getId(),
                         exerciseText,
@@ -111,7 +261,7 @@ public class GeminiUnifiedAnalysisService {
 
         if ("DELETE_EMOTION".equalsIgnoreCase(emoText)) {
 
-            dailyEmotionService.deleteToday(user);
+            if (save) dailyEmotionService.deleteToday(user);
 
             emotionFuture = CompletableFuture.completedFuture(
                     EmotionAnalysisResult.deleted()
@@ -123,61 +273,141 @@ public class GeminiUnifiedAnalysisService {
 
         } else {
 
-            emotionFuture = emotionService.analyzeEmotion(emoText);
+            CompletableFuture<EmotionAnalysisResult> speculated =
+                    speculation == null ? null : speculation.takeEmotion(routed);
+            emotionFuture = speculated != null ? speculated : emotionService.analyzeEmotion(emoText);
         }
 
+        // 라우팅과 맞지 않은 추측 실행은 취소
+        if (speculation != null) speculation.discardRest();
 
-        /* =====================================================================
-           🔥 2) AI Future들 모두 기다림
-           ===================================================================== */
-        CompletableFuture.allOf(mealFuture, exerciseFuture, emotionFuture).join();
+        return new Analyses(mealFuture, exerciseFuture, emotionFuture);
+    }
 
-        DailyAnalysis mealAnalysis = mealFuture.join();
-        ExerciseAnalysisResult exerciseAnalysis = exerciseFuture.join();
-        EmotionAnalysisResult emotionAnalysis = emotionFuture.join();
+    /* =====================================================================
+       🔥 3) DB 반영 + 4) 최종 응답 — ROUTED / FUSED 공통
+       ===================================================================== */
+    private UnifiedAnalysisResult persist(
+            User user,
+            DailyAnalysis mealAnalysis,
+            ExerciseAnalysisResult exerciseAnalysis,
+            EmotionAnalysisResult emotionAnalysis
+    ) {
+
+        persistMeal(user, mealAnalysis);
+        persistExercise(user, exerciseAnalysis);
+        EmotionSummaryDto responseEmotionDto = persistEmotion(user, emotionAnalysis);
 
 
         /* =====================================================================
-           🔥 3) DB 반영
+           🔥 4) 최종 응답
            ===================================================================== */
+        return UnifiedAnalysisResult.builder()
+                .mealAnalysis(mealAnalysis)
+                .exerciseAnalysis(exerciseAnalysis)
+                .emotionAnalysis(responseEmotionDto)
+                .build();
+    }
+
+    /** save=false 응답 — 저장 없이 분석 결과만 (감정 요약은 저장 엔티티 기반이라 생략) */
+    private UnifiedAnalysisResult unsaved(DailyAnalysis mealAnalysis, ExerciseAnalysisResult exerciseAnalysis) {
+        return UnifiedAnalysisResult.builder()
+                .mealAnalysis(mealAnalysis)
+                .exerciseAnalysis(exerciseAnalysis)
+                .build();
+    }
 
-        DailyMeal savedMeal = null;
+    private void persistMeal(User user, DailyAnalysis mealAnalysis) {
         if (mealAnalysis != null && !"delete".equals(mealAnalysis.getAction())) {
-            savedMeal = dailyMealService.saveDailyMeal(user, mealAnalysis);
+            DailyMeal savedMeal = dailyMealService.saveDailyMeal(user, mealAnalysis);
             dailyLogService.updateMeal(user, savedMeal);
         }
+    }
 
-        DailyActivity savedActivity = null;
+    private void persistExercise(User user, ExerciseAnalysisResult exerciseAnalysis) {
         if (exerciseAnalysis != null && !"delete".equals(exerciseAnalysis.getAction())) {
-            savedActivity = dailyExerciseService.saveOrUpdateDailyActivity(user, exerciseAnalysis);
+            DailyActivity savedActivity = dailyExerciseService.saveOrUpdateDailyActivity(user, exerciseAnalysis);
             dailyLogService.updateActivity(user, savedActivity);
         }
+    }
 
-        EmotionSummaryDto responseEmotionDto = null;
+    /** 응답용 감정 요약 DTO (입력이 없으면 null) */
+    private EmotionSummaryDto persistEmotion(User user, EmotionAnalysisResult emotionAnalysis) {
 
-        if (emotionAnalysis != null) {
+        if (emotionAnalysis == null) return null;
 
-            // ✅ 1) 삭제 액션이면: DB 저장 X, 삭제용 DTO를 그대로 응답
-            if ("delete".equals(emotionAnalysis.getAction())) {
-                responseEmotionDto = EmotionSummaryDto.deleted();
-            }
-            // ✅ 2) 정상 분석이면: 저장 후 Summary DTO로 변환
-            else {
-                DailyEmotion savedEmotion = dailyEmotionService.saveDailyEmotion(user, emotionAnalysis);
-                dailyLogService.updateEmotion(user, savedEmotion);
-                responseEmotionDto = dailyEmotionService.toSummaryDto(savedEmotion);
-            }
+        // ✅ 1) 삭제 액션이면: DB 저장 X, 삭제용 DTO를 그대로 응답
+        if ("delete".equals(emotionAnalysis.getAction())) {
+            return EmotionSummaryDto.deleted();
         }
 
+        // ✅ 2) 정상 분석이면: 저장 후 Summary DTO로 변환
+        DailyEmotion savedEmotion = dailyEmotionService.saveDailyEmotion(user, emotionAnalysis);
+        dailyLogService.updateEmotion(user, savedEmotion);
+        return dailyEmotionService.toSummaryDto(savedEmotion);
+    }
 
-        /* =====================================================================
-           🔥 4) 최종 응답
-           ===================================================================== */
-        return UnifiedAnalysisResult.builder()
-                .mealAnalysis(mealAnalysis)
-                .exerciseAnalysis(exerciseAnalysis)
-                .emotionAnalysis(responseEmotionDto)
-                .build();
+
+    /* =====================================================================
+       🔥 스트리밍 — 영역별 결과를 완료 순서대로 저장하고 바로 이벤트로 내보냄
+       routing → (meal | exercise | emotion, 먼저 끝난 순서) → summary
+       ===================================================================== */
+    public Flux<AnalysisEvent> analyzeStream(User user, String text) {
+
+        Flux<AnalysisEvent> events = routingService.routeAsync(text)
+                // 삭제 처리 / 오늘 운동 조회는 DB 접근 → WebClient 이벤트 루프에서 실행하지 않음
+                .publishOn(aiScheduler)
+                .flatMapMany(routed -> streamRouted(user, routed))
+                .onErrorResume(e -> {
+                    log.error("❌ [Stream] 분석 실패: {}", e.getMessage(), e);
+                    return Flux.just(new AnalysisEvent("error", Map.of("message", "분석 중 오류가 발생했습니다.")));
+                });
+
+        // 클라이언트가 연결을 끊어도 분석·저장은 끝까지 진행 (일반 /analyze 와 동일)
+        return events.replay().autoConnect(0);
+    }
+
+    private Flux<AnalysisEvent> streamRouted(User user, GeminiRoutingService.RoutingResult routed) {
+
+        AnalysisEvent routing = new AnalysisEvent("routing", routed);
+
+        // 라우팅 지침상 전체 삭제 표현도 전체 삭제로 처리
+        if (isDeleteAll(routed) || isDeleteAllPhrase(routed)) {
+            return Flux.just(routing, new AnalysisEvent("summary", deleteAllToday(user)));
+        }
+
+        Analyses analyses = startAnalyses(user, routed, null, true);
+        UnifiedAnalysisResult summary = new UnifiedAnalysisResult();
+
+        // 완료 순서대로 하나씩 저장 (DailyLog 갱신이 겹치지 않도록 concatMap 으로 직렬화)
+        Flux<AnalysisEvent> results = Flux.merge(
+                        whenDone(analyses.meal(), meal -> {
+                            persistMeal(user, meal);
+                            summary.setMealAnalysis(meal);
+                            return new AnalysisEvent("meal", meal);
+                        }),
+                        whenDone(analyses.exercise(), exercise -> {
+                            persistExercise(user, exercise);
+                            summary.setExerciseAnalysis(exercise);
+                            return new AnalysisEvent("exercise", exercise);
+                        }),
+                        whenDone(analyses.emotion(), emotion -> {
+                            EmotionSummaryDto dto = persistEmotion(user, emotion);
+                            summary.setEmotionAnalysis(dto);
+                            return new AnalysisEvent("emotion", dto);
+                        }))
+                .concatMap(save -> Mono.fromSupplier(save).subscribeOn(aiScheduler));
+
+        return Flux.just(routing)
+                .concatWith(results)
+                .concatWith(Mono.fromSupplier(() -> new AnalysisEvent("summary", summary)));
+    }
+
+    /** future 가 값으로 완료되면 저장 작업을 내보냄 (null 결과 = 해당 영역 입력 없음 → 생략) */
+    private <T> Mono<Supplier<AnalysisEvent>> whenDone(CompletableFuture<T> future,
+                                                       Function<T, AnalysisEvent> save) {
+        // 구독 취소가 분석 future 를 취소하지 않도록 (저장까지 진행)
+        return Mono.fromFuture(future, true).map(result -> () -> save.apply(result));
     }
 }
 
@@ -0,0 +1,61 @@
+package com.healthchat.backend.service.rag;
+
+import com.healthchat.backend.entity.GuidelineChunk;
+
+/**
+ * ✨ 임베딩 양자화 유틸
+ * - int8: 정규화 벡터를 행별 scale(max|x| / 127)로 나눠 -127~127 정수로 저장 (4배 축소)
+ * - binary: 각 차원의 부호만 1bit로 저장 (32배 축소)
+ */
+public class EmbeddingQuantizer {
+
+    /**
+     * 원본 임베딩으로 청크의 양자화 컬럼(dim / int8 / bits) 채우기
+     * - dim 은 코드가 채워졌다는 표시로 쓰이므로(인덱스 적재, 백필 대상 조회) 코드를 채운 뒤 마지막에 설정
+     */
+    public static void fill(GuidelineChunk chunk, float[] embedding) {
+        float[] normalized = EmbeddingUtil.normalize(embedding);
+        if (normalized == null) return;
+
+        Int8Code int8 = toInt8(normalized);
+        chunk.setEmbeddingInt8(int8.codes());
+        chunk.setEmbeddingScale(int8.scale());
+        chunk.setEmbeddingBits(toSignBits(normalized));
+        chunk.setEmbeddingDim(embedding.length);
+    }
+
+    /** int8 코드 + 복원 배율 (x ≈ code × scale) */
+    public record Int8Code(byte[] codes, float scale) {}
+
+    public static Int8Code toInt8(float[] normalized) {
+        float max = 0f;
+        for (float x : normalized) max = Math.max(max, Math.abs(x));
+
+        byte[] codes = new byte[normalized.length];
+        if (max == 0f) return new Int8Code(codes, 0f);
+
+        float scale = max / 127f;
+        for (int i = 0; i < normalized.length; i++) {
+            codes[i] = (byte) Math.round(normalized[i] / scale);
+        }
+        return new Int8Code(codes, scale);
+    }
+
+    /** 부호 비트 (x > 0 → 1), 차원 i는 byte[i / 8]의 (i % 8)번째 비트 */
+    public static byte[] toSignBits(float[] vector) {
+        byte[] bits = new byte[(vector.length + 7) / 8];
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] > 0f) bits[i >>> 3] |= (byte) (1 << (i & 7));
+        }
+        return bits;
+    }
+
+    /** 부호 비트 byte[] → popcount 계산용 long[] (little-endian) */
+    public static long[] toWords(byte[] bits) {
+        long[] words = new long[(bits.length + 7) / 8];
+        for (int i = 0; i < bits.length; i++) {
+            words[i >>> 3] |= (bits[i] & 0xFFL) << ((i & 7) * 8);
+        }
+        return words;
+    }
+}
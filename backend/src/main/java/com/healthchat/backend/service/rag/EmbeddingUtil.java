@@ -17,4 +17,16 @@ public class EmbeddingUtil {
             vector[i] = buffer.getFloat();
         return vector;
     }
+
+    /** L2 정규화 (norm 0이면 null) */
+    public static float[] normalize(float[] vector) {
+        double norm = 0.0;
+        for (float v : vector) norm += (double) v * v;
+        if (norm == 0.0) return null;
+
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        float[] out = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) out[i] = vector[i] * inv;
+        return out;
+    }
 }
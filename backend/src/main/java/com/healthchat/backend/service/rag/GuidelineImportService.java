@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -18,14 +19,15 @@ public class GuidelineImportService {
     private final ChunkSplitter chunkSplitter;
     private final GeminiClient gemini;
     private final GuidelineChunkRepository repo;
+    private final GuidelineIndexService index;
 
     /**
-     * PDF → 청크 → 임베딩 → DB 저장
+     * PDF → 청크 → 배치 임베딩 → DB 저장
      */
     public void importGuideline(String source, String pdfPath) {
 
-        // 이미 import 완료된 source면 skip
-        if (repo.existsBySource(source)) {
+        // 이미 import 완료된 source면 skip (스냅샷 사전 먼저, 없을 때만 DB 확인)
+        if (index.hasSnapshotSource(source) || repo.existsBySource(source)) {
             log.info("📌 이미 임포트된 문서이므로 스킵: {}", source);
             return;
         }
@@ -37,26 +39,39 @@ public class GuidelineImportService {
 
         log.info("🧩 총 {}개 청크 생성됨", chunks.size());
 
-        int idx = 0;
+        // 청크 전체를 batchEmbedContents 로 한 번에 임베딩
+        List<float[]> embeddings = gemini.embedBatch(chunks);
 
-        for (String chunk : chunks) {
-            float[] embedding = gemini.embed(chunk);
+        // 하나라도 실패하면 저장하지 않음 → 다음 기동 시 다시 임포트
+        long failed = embeddings.stream().filter(e -> e.length == 0).count();
+        if (embeddings.size() != chunks.size() || failed > 0) {
+            log.error("❌ {} 임베딩 실패 {}건 → 저장 중단", source, failed);
+            return;
+        }
+
+        List<GuidelineChunk> entities = new ArrayList<>(chunks.size());
+
+        for (int idx = 0; idx < chunks.size(); idx++) {
+            float[] embedding = embeddings.get(idx);
 
             GuidelineChunk entity = GuidelineChunk.builder()
                     .source(source)
                     .chunkIndex(idx)
-                    .text(chunk)
+                    .text(chunks.get(idx))
                     .embedding(EmbeddingUtil.toBytes(embedding))
                     .build();
 
-            repo.save(entity);
+            // int8 / 1bit 양자화 코드도 함께 저장
+            EmbeddingQuantizer.fill(entity, embedding);
 
-            if (idx % 10 == 0)
-                log.info("  - 청크 {} 저장 완료", idx);
-
-            idx++;
+            entities.add(entity);
         }
 
+        repo.saveAll(entities);
+
         log.info("✅ {} 문서 DB 저장 완료!", source);
+
+        // 상주 검색 인덱스에 새 문서 반영
+        index.onSourceImported(source);
     }
 }
@@ -0,0 +1,409 @@
+package com.healthchat.backend.service.rag;
+
+import com.healthchat.backend.entity.GuidelineChunk;
+import com.healthchat.backend.repository.GuidelineChunkRepository;
+import com.healthchat.backend.repository.GuidelineChunkRepository.EmbeddingView;
+import com.healthchat.backend.repository.GuidelineChunkRepository.QuantizedView;
+import com.healthchat.backend.service.rag.index.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ✨ 상주 임베딩 인덱스 관리
+ * 설정(rag.index.type)에 따라 검색 엔진을 고른다.
+ * - brute-force: 정확 검색 (recall 비교 기준)
+ * - hnsw: 근사 최근접 이웃 그래프
+ * - int8 / binary: 양자화 코드 coarse 스캔 + 원본 벡터 재정렬
+ * 검색 시에는 DB 접근 없이 메모리 인덱스만 조회한다.
+ * 정규화된 float 벡터는 스냅샷 파일(rag.index.snapshot.path)로 보관하고 mmap 으로 열어서
+ * 기동 시 DB의 LONGBLOB 을 다시 읽지 않는다. (brute-force 는 매핑 영역을 그대로 스캔)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GuidelineIndexService {
+
+    private final GuidelineChunkRepository repo;
+
+    @Value("${rag.index.type:brute-force}")
+    private String indexType;
+
+    @Value("${rag.index.hnsw.m:16}")
+    private int hnswM;
+
+    @Value("${rag.index.hnsw.ef-construction:200}")
+    private int hnswEfConstruction;
+
+    @Value("${rag.index.hnsw.ef-search:64}")
+    private int hnswEfSearch;
+
+    @Value("${rag.index.hnsw.path:data/guideline-hnsw.idx}")
+    private String hnswPath;
+
+    @Value("${rag.index.snapshot.path:data/guideline-embeddings.snap}")
+    private String snapshotPath;
+
+    /** 양자화 coarse 스캔 후 원본 벡터로 재정렬할 후보 배수 */
+    @Value("${rag.index.quantization.rerank-factor:4}")
+    private int rerankFactor;
+
+    /** brute-force 외 엔진 사용 시 정확 검색 결과와 비교해 recall@k 로그 출력 */
+    @Value("${rag.index.verify-recall:false}")
+    private boolean verifyRecall;
+
+    private volatile SearchableVectorIndex index = new BruteForceVectorIndex();
+    private volatile SearchableVectorIndex exactIndex;
+    private volatile EmbeddingSnapshot snapshot;
+    private volatile boolean loaded = false;
+
+    /** 구축/갱신 직렬화 — DB·파일 I/O 를 포함하므로 synchronized 대신 사용 (가상 스레드 carrier pinning 방지) */
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    /** 인덱스 내용이 바뀔 때마다 증가 (구축/문서 추가) — 검색 결과 캐시 키에 포함 */
+    private final AtomicLong version = new AtomicLong();
+
+
+    /* ============================================================
+     * 🔸 기동 시 1회 구축 (Import Runner 이후 실행됨)
+     * ============================================================ */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!loaded) rebuild();
+    }
+
+
+    /* ============================================================
+     * 🔸 전체 구축 — HNSW는 저장 파일이 있으면 복원 후 누락분만 삽입
+     * ============================================================ */
+    public void rebuild() {
+        buildLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        long start = System.currentTimeMillis();
+        VectorIndexType type = VectorIndexType.from(indexType);
+
+        snapshot = openSnapshot();
+
+        SearchableVectorIndex built = switch (type) {
+            case BRUTE_FORCE -> snapshot != null ? snapshot : new BruteForceVectorIndex();
+            case HNSW -> loadOrCreateHnsw();
+            case INT8 -> new QuantizedVectorIndex(QuantizedVectorIndex.Mode.INT8, rerankFactor, this::loadFullVectors);
+            case BINARY -> new QuantizedVectorIndex(QuantizedVectorIndex.Mode.BINARY, rerankFactor, this::loadFullVectors);
+        };
+
+        if (built instanceof QuantizedVectorIndex) backfillQuantization();
+
+        int before = built.size();
+        if (built instanceof VectorIndex mutable) appendNewChunks(mutable);
+
+        if (built instanceof HnswVectorIndex hnsw && hnsw.size() != before) saveHnsw(hnsw);
+
+        if (verifyRecall && type != VectorIndexType.BRUTE_FORCE) {
+            exactIndex = snapshot != null ? snapshot : exactCopy();
+        }
+
+        index = built;
+        loaded = true;
+        version.incrementAndGet();
+
+        log.info("🧮 [RAG] {} 인덱스 준비 완료: {}개 청크, dim={} ({}ms)",
+                type, built.size(), built.dimension(), System.currentTimeMillis() - start);
+    }
+
+
+    /* ============================================================
+     * 🔸 문서 추가 시 갱신 — 새로 저장된 청크만 증분 삽입
+     * ============================================================ */
+    public void onSourceImported(String source) {
+        buildLock.lock();
+        try {
+            if (!loaded) {
+                rebuildLocked();
+                return;
+            }
+
+            snapshot = appendSnapshot(snapshot);
+
+            index = refresh(index);
+            if (exactIndex != null) exactIndex = refresh(exactIndex);
+
+            if (index instanceof HnswVectorIndex hnsw) saveHnsw(hnsw);
+
+            version.incrementAndGet();
+
+            log.info("🧮 [RAG] 인덱스 갱신: source={}, 총 {}개 청크", source, index.size());
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 상위 k개 청크 검색
+     * ============================================================ */
+    public List<VectorHit> search(float[] query, int k) {
+        SearchableVectorIndex current = index;
+
+        if (current.size() == 0) return List.of();
+
+        if (query == null || query.length != current.dimension()) {
+            log.warn("⚠ [RAG] 쿼리 차원 불일치: query={}, index={}",
+                    query == null ? 0 : query.length, current.dimension());
+            return List.of();
+        }
+
+        float[] q = EmbeddingUtil.normalize(query);
+        if (q == null) return List.of();
+
+        List<VectorHit> hits = current.search(q, k);
+
+        SearchableVectorIndex exact = exactIndex;
+        if (exact != null && exact != current) {
+            logRecall(hits, exact.search(q, k), k);
+        }
+        return hits;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /** 인덱스에 들어있는 문헌(source) 이름 */
+    public Set<String> sources() {
+        return index.sources();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /** 스냅샷에 이미 들어있는 문서인지 — 임포트 시 DB 조회 전에 확인 */
+    public boolean hasSnapshotSource(String source) {
+        EmbeddingSnapshot snap = snapshot;
+        if (snap == null) snap = snapshot = openSnapshotIfCurrent();
+        return snap != null && snap.sources().contains(source);
+    }
+
+
+    /* ============================================================
+     * 🔸 maxId 이후 청크 적재 (id는 증가만 하므로 증분 동기화 기준)
+     * ============================================================ */
+    private void appendNewChunks(VectorIndex target) {
+        if (target instanceof QuantizedVectorIndex quantized) {
+            appendQuantized(quantized);
+            return;
+        }
+
+        // 스냅샷에 있는 행은 파일에서, 그 이후 행만 DB에서
+        EmbeddingSnapshot snap = snapshot;
+        if (snap != null && (target.dimension() == 0 || target.dimension() == snap.dimension())) {
+            snap.appendTo(target);
+        }
+
+        for (EmbeddingView row : repo.findEmbeddingsAfter(target.maxId())) {
+            float[] v = EmbeddingUtil.normalize(EmbeddingUtil.toFloatArray(row.getEmbedding()));
+            if (v == null || (target.dimension() != 0 && v.length != target.dimension())) {
+                log.warn("⚠ [RAG] 임베딩 스킵: id={}", row.getId());
+                continue;
+            }
+            target.add(row.getId(), row.getSource(), v);
+        }
+    }
+
+    /** float 임베딩 대신 DB의 양자화 코드만 읽어서 적재 */
+    private void appendQuantized(QuantizedVectorIndex target) {
+        for (QuantizedView row : repo.findQuantizedAfter(target.maxId())) {
+            Integer dim = row.getEmbeddingDim();
+            boolean valid = dim != null && dim > 0
+                    && (target.dimension() == 0 || dim == target.dimension());
+
+            if (!valid || row.getEmbeddingInt8() == null || row.getEmbeddingScale() == null
+                    || row.getEmbeddingBits() == null) {
+                log.warn("⚠ [RAG] 양자화 코드 없음 → 스킵: id={}", row.getId());
+                continue;
+            }
+
+            if (target.mode() == QuantizedVectorIndex.Mode.INT8) {
+                target.addInt8(row.getId(), row.getSource(), row.getEmbeddingInt8(), row.getEmbeddingScale());
+            } else {
+                target.addBits(row.getId(), row.getSource(), dim, row.getEmbeddingBits());
+            }
+        }
+    }
+
+    /** 양자화 컬럼 도입 이전에 저장된 청크 채우기 (1회성) */
+    private void backfillQuantization() {
+        List<GuidelineChunk> legacy = repo.findByEmbeddingDimIsNull();
+        if (legacy.isEmpty()) return;
+
+        for (GuidelineChunk chunk : legacy) {
+            EmbeddingQuantizer.fill(chunk, EmbeddingUtil.toFloatArray(chunk.getEmbedding()));
+        }
+        repo.saveAll(legacy);
+
+        log.info("🗜 [RAG] 기존 청크 양자화 코드 생성: {}개", legacy.size());
+    }
+
+    /** 재정렬 후보의 원본 벡터 조회 (정규화해서 반환) — 스냅샷 우선, 없는 id만 DB */
+    private Map<Long, float[]> loadFullVectors(Collection<Long> ids) {
+        EmbeddingSnapshot snap = snapshot;
+        Map<Long, float[]> vectors = snap != null ? snap.vectors(ids) : new HashMap<>();
+        if (vectors.size() == ids.size()) return vectors;
+
+        List<Long> missing = ids.stream().filter(id -> !vectors.containsKey(id)).toList();
+        for (EmbeddingView row : repo.findEmbeddingsByIdIn(missing)) {
+            float[] v = EmbeddingUtil.normalize(EmbeddingUtil.toFloatArray(row.getEmbedding()));
+            if (v != null) vectors.put(row.getId(), v);
+        }
+        return vectors;
+    }
+
+    /** 임포트 후 인덱스 갱신 — 삽입 가능한 인덱스는 증분 삽입, 읽기 전용 스냅샷은 새로 매핑한 파일로 교체 */
+    private SearchableVectorIndex refresh(SearchableVectorIndex current) {
+        if (current instanceof VectorIndex mutable) {
+            appendNewChunks(mutable);
+            return mutable;
+        }
+        return snapshot != null ? snapshot : exactCopy();
+    }
+
+    private VectorIndex exactCopy() {
+        VectorIndex exact = new BruteForceVectorIndex();
+        appendNewChunks(exact);
+        return exact;
+    }
+
+
+    /* ============================================================
+     * 🔸 임베딩 스냅샷 — 최신이면 매핑, 아니면 DB에서 다시 작성
+     * ============================================================ */
+    private EmbeddingSnapshot openSnapshot() {
+        EmbeddingSnapshot current = openSnapshotIfCurrent();
+        if (current != null) {
+            log.info("📂 [RAG] 임베딩 스냅샷 매핑: {} ({}개)", snapshotPath, current.size());
+            return current;
+        }
+        return writeSnapshot();
+    }
+
+    /** DB 최대 id와 일치하고 행 수가 DB보다 많지 않을 때만 최신으로 본다 */
+    private EmbeddingSnapshot openSnapshotIfCurrent() {
+        Path path = Path.of(snapshotPath);
+        if (!Files.exists(path)) return null;
+
+        try {
+            EmbeddingSnapshot snap = EmbeddingSnapshot.open(path);
+            if (snap.maxId() == repo.findMaxId() && snap.size() <= repo.count()) return snap;
+            log.info("🔄 [RAG] 임베딩 스냅샷이 DB와 다름 → 재작성 필요");
+        } catch (Exception e) {
+            log.warn("⚠ [RAG] 임베딩 스냅샷 열기 실패: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /** DB 전체 임베딩을 정규화해서 스냅샷으로 저장 후 매핑 (실패 시 null → DB 경로 사용) */
+    private EmbeddingSnapshot writeSnapshot() {
+        List<EmbeddingSnapshot.Row> rows = normalizedRowsAfter(0, 0);
+        if (rows.isEmpty()) return null;
+
+        int dim = rows.get(0).vector().length;
+        try {
+            Path path = Path.of(snapshotPath);
+            EmbeddingSnapshot.write(path, dim, rows);
+            log.info("💾 [RAG] 임베딩 스냅샷 저장: {} ({}개, dim={})", snapshotPath, rows.size(), dim);
+            return EmbeddingSnapshot.open(path);
+        } catch (Exception e) {
+            log.warn("⚠ [RAG] 임베딩 스냅샷 저장 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /** 기존 스냅샷 뒤에 maxId 이후 청크만 DB에서 읽어 이어 붙임 (스냅샷이 없거나 실패하면 전체 재작성) */
+    private EmbeddingSnapshot appendSnapshot(EmbeddingSnapshot base) {
+        if (base == null) return writeSnapshot();
+
+        List<EmbeddingSnapshot.Row> rows = normalizedRowsAfter(base.maxId(), base.dimension());
+        if (rows.isEmpty()) return base;
+
+        try {
+            Path path = Path.of(snapshotPath);
+            EmbeddingSnapshot.append(path, base, rows);
+            log.info("💾 [RAG] 임베딩 스냅샷 추가: {} (+{}개, 총 {}개)", snapshotPath, rows.size(), base.size() + rows.size());
+            return EmbeddingSnapshot.open(path);
+        } catch (Exception e) {
+            log.warn("⚠ [RAG] 임베딩 스냅샷 추가 실패 → 전체 재작성: {}", e.getMessage());
+            return writeSnapshot();
+        }
+    }
+
+    /** afterId 이후 임베딩을 정규화 (dim=0 이면 첫 행 차원 기준, 다른 차원은 스킵) */
+    private List<EmbeddingSnapshot.Row> normalizedRowsAfter(long afterId, int dim) {
+        List<EmbeddingSnapshot.Row> rows = new ArrayList<>();
+
+        for (EmbeddingView row : repo.findEmbeddingsAfter(afterId)) {
+            float[] v = EmbeddingUtil.normalize(EmbeddingUtil.toFloatArray(row.getEmbedding()));
+            if (v == null || (dim != 0 && v.length != dim)) {
+                log.warn("⚠ [RAG] 임베딩 스킵: id={}", row.getId());
+                continue;
+            }
+            dim = v.length;
+            rows.add(new EmbeddingSnapshot.Row(row.getId(), row.getSource(), v));
+        }
+        return rows;
+    }
+
+    private HnswVectorIndex loadOrCreateHnsw() {
+        Path path = Path.of(hnswPath);
+
+        if (Files.exists(path)) {
+            try {
+                HnswVectorIndex restored = HnswVectorIndex.load(path, hnswEfConstruction, hnswEfSearch);
+
+                // DB에서 삭제된 청크가 있으면 그래프를 새로 만든다
+                if (restored.size() <= repo.count()) {
+                    log.info("📂 [RAG] HNSW 인덱스 파일 복원: {} ({}개)", path, restored.size());
+                    return restored;
+                }
+                log.warn("⚠ [RAG] HNSW 파일이 DB보다 큼 → 재구축");
+            } catch (Exception e) {
+                log.warn("⚠ [RAG] HNSW 파일 복원 실패 → 재구축: {}", e.getMessage());
+            }
+        }
+        return new HnswVectorIndex(hnswM, hnswEfConstruction, hnswEfSearch);
+    }
+
+    private void saveHnsw(HnswVectorIndex hnsw) {
+        try {
+            hnsw.save(Path.of(hnswPath));
+            log.info("💾 [RAG] HNSW 인덱스 저장: {}", hnswPath);
+        } catch (Exception e) {
+            log.warn("⚠ [RAG] HNSW 인덱스 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private void logRecall(List<VectorHit> approx, List<VectorHit> exact, int k) {
+        if (exact.isEmpty()) return;
+
+        Set<Long> truth = new HashSet<>();
+        for (VectorHit h : exact) truth.add(h.chunkId());
+
+        long matched = approx.stream().filter(h -> truth.contains(h.chunkId())).count();
+        log.info("📏 [RAG] recall@{} = {}", k, String.format("%.3f", (double) matched / truth.size()));
+    }
+}
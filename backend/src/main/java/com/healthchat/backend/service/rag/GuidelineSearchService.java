@@ -1,10 +1,11 @@
 package com.healthchat.backend.service.rag;
 
-import com.healthchat.backend.config.GeminiClient;
 import com.healthchat.backend.entity.GuidelineChunk;
 import com.healthchat.backend.repository.GuidelineChunkRepository;
+import com.healthchat.backend.service.rag.index.VectorHit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -14,8 +15,10 @@ import java.util.*;
 @Slf4j
 public class GuidelineSearchService {
 
-    private final GeminiClient gemini;
+    private final QueryEmbeddingCache queryEmbeddings;
     private final GuidelineChunkRepository repo;
+    private final GuidelineIndexService index;
+    private final RetrievalResultCache retrievalCache;
 
     /** 최종 반환할 문헌 개수 (문헌별 1개씩) */
     private static final int TOP_K = 2;
@@ -23,74 +26,78 @@ public class GuidelineSearchService {
     /** 문헌 텍스트 길이 축소 기준 */
     private static final int MAX_TEXT_LEN = 350;
 
+    /** 인덱스에서 처음 가져올 후보 청크 수 (상위 문헌이 확정되지 않으면 전체 검색 1회) */
+    @Value("${rag.search.candidates:64}")
+    private int candidates;
+
     /**
-     * 사용자 질문 → 임베딩 → 청크 검색 → 문헌별 상위 1개씩 → 상위 K개 반환
+     * 사용자 질문 → 임베딩 → 인덱스 후보 검색 → 문헌별 상위 1개씩 → 상위 K개 본문 조회
+     * 같은 쿼리 + 같은 인덱스 버전이면 캐시된 결과 반환
      */
     public List<RetrievedChunk> searchRelevantChunks(String query) {
+        return retrievalCache.getOrSearch(query, () -> search(query));
+    }
+
+    private List<RetrievedChunk> search(String query) {
 
         // 0. 로그 (쿼리 미리 보기)
         log.info("🔎 [RAG] 검색 시작, queryPreview={}", preview(query, 200));
 
-        // 1. query embedding 생성
-        float[] queryEmbedding = gemini.embed(query);
+        // 1. query embedding (같은 쿼리는 캐시에서 — 임베딩 API 호출 생략)
+        float[] queryEmbedding = queryEmbeddings.embed(query);
         if (queryEmbedding == null || queryEmbedding.length == 0) {
             log.error("⚠ [RAG] 쿼리 임베딩 실패 → 빈 결과 반환");
             return List.of();
         }
 
-        // 2. 모든 저장된 chunks 가져오기
-        List<GuidelineChunk> all = repo.findAll();
-        if (all.isEmpty()) {
-            log.warn("⚠ [RAG] guideline_chunks 테이블이 비어 있음");
+        // 2. 상주 인덱스에서 상위 후보 청크 검색 (DB 접근 없음)
+        // 3. 문헌(source)별 최고 유사도 청크만 남기고 목표 기반 가중치 적용
+        //    후보 밖 문헌이 가중치로 상위 TOP_K 를 뒤집을 수 있으면 전체 청크로 한 번 더 검색
+        //    → 전체 청크를 점수화하던 방식과 같은 순위
+        int size = index.size();
+        int k = Math.max(candidates, TOP_K);
+
+        List<VectorHit> hits = index.search(queryEmbedding, k);
+        if (hits.isEmpty()) {
+            log.warn("⚠ [RAG] 검색 인덱스가 비어 있음");
             return List.of();
         }
 
-        // 3. 청크별 similarity + 목표 기반 가중치 계산
-        List<ChunkScore> scored = new ArrayList<>();
+        List<ChunkScore> scored = bestPerSource(query, hits);
 
-        for (GuidelineChunk chunk : all) {
-            float[] chunkVector = EmbeddingUtil.toFloatArray(chunk.getEmbedding());
-
-            double rawSim = cosineSimilarity(queryEmbedding, chunkVector);
-            double boostedSim = applyGoalAwareBoost(query, chunk.getSource(), rawSim);
-
-            scored.add(new ChunkScore(chunk, rawSim, boostedSim));
+        if (k < size && !isSettled(query, scored, hits)) {
+            log.info("🔁 [RAG] 후보 {}개로 상위 {}개 문헌 확정 불가 → 전체 {}개 검색", k, TOP_K, size);
+            hits = index.search(queryEmbedding, size);
+            scored = bestPerSource(query, hits);
         }
 
-        // 3-1. boosted similarity 기준 상위 10개 로그 출력
-        scored.stream()
-                .sorted(Comparator.comparingDouble((ChunkScore c) -> c.boostedSim).reversed())
-                .limit(10)
-                .forEach(c -> log.info(
-                        "   ▸ [raw={}] [boosted={}] [src={}] preview={}",
-                        String.format("%.4f", c.rawSim),
-                        String.format("%.4f", c.boostedSim),
-                        c.chunk.getSource(),
-                        preview(c.chunk.getText(), 60)
-                ));
-
-        // 4. 문헌(source)별로 boostedSim 가장 높은 청크 선택
-        Map<String, RetrievedChunk> bestBySource = new HashMap<>();
-
-        for (ChunkScore c : scored) {
-            String source = c.chunk.getSource();
-            RetrievedChunk existing = bestBySource.get(source);
-
-            if (existing == null || c.boostedSim > existing.similarity) {
-                // 🔥 문헌 text를 줄여서 저장 (중요!)
-                String shortened = shorten(c.chunk.getText(), MAX_TEXT_LEN);
-
-                bestBySource.put(source,
-                        new RetrievedChunk(source, shortened, c.boostedSim));
-            }
+        // 3-1. 문헌별 최고 유사도 로그 출력
+        scored.forEach(c -> log.info(
+                "   ▸ [raw={}] [boosted={}] [src={}] chunkId={}",
+                String.format("%.4f", c.hit.similarity()),
+                String.format("%.4f", c.boostedSim),
+                c.hit.source(),
+                c.hit.chunkId()
+        ));
+
+        // 4. 상위 TOP_K 문헌 선택
+        List<ChunkScore> winners = scored.subList(0, Math.min(TOP_K, scored.size()));
+
+        // 5. 선택된 청크 본문만 id로 조회
+        Map<Long, GuidelineChunk> texts = new HashMap<>();
+        for (GuidelineChunk chunk : repo.findAllById(
+                winners.stream().map(c -> c.hit.chunkId()).toList())) {
+            texts.put(chunk.getId(), chunk);
         }
 
-        // 5. 문헌별 상위 1개 중 전체 TOP_K 선택
-        List<RetrievedChunk> aggregated = new ArrayList<>(bestBySource.values());
-        aggregated.sort((a, b) -> Double.compare(b.similarity, a.similarity));
+        List<RetrievedChunk> aggregated = new ArrayList<>();
+        for (ChunkScore c : winners) {
+            GuidelineChunk chunk = texts.get(c.hit.chunkId());
+            if (chunk == null) continue;
 
-        if (aggregated.size() > TOP_K) {
-            aggregated = aggregated.subList(0, TOP_K);
+            // 🔥 문헌 text를 줄여서 저장 (중요!)
+            String shortened = shorten(chunk.getText(), MAX_TEXT_LEN);
+            aggregated.add(new RetrievedChunk(c.hit.source(), shortened, c.boostedSim));
         }
 
         // 5-1. 최종 선택된 문헌 로그 출력
@@ -107,28 +114,64 @@ public class GuidelineSearchService {
 
 
     /* ============================================================
-     * 🔸 코사인 유사도 계산
+     * 🔸 문헌별 최고 유사도 청크 + 가중치, 가중 점수 내림차순
+     *    (hits는 유사도 내림차순이므로 source별 첫 등장이 최고값)
      * ============================================================ */
-    private double cosineSimilarity(float[] a, float[] b) {
-        if (a == null || b == null || a.length == 0 || b.length == 0 || a.length != b.length)
-            return 0.0;
+    private List<ChunkScore> bestPerSource(String query, List<VectorHit> hits) {
+        Map<String, ChunkScore> bestBySource = new LinkedHashMap<>();
 
-        double dot = 0.0, normA = 0.0, normB = 0.0;
-
-        for (int i = 0; i < a.length; i++) {
-            dot += a[i] * b[i];
-            normA += a[i] * a[i];
-            normB += b[i] * b[i];
+        for (VectorHit hit : hits) {
+            bestBySource.computeIfAbsent(hit.source(), source ->
+                    new ChunkScore(hit, applyGoalAwareBoost(query, source, hit.similarity())));
         }
 
-        if (normA == 0 || normB == 0) return 0.0;
-        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+        List<ChunkScore> scored = new ArrayList<>(bestBySource.values());
+        scored.sort(Comparator.comparingDouble((ChunkScore c) -> c.boostedSim).reversed());
+        return scored;
+    }
+
+    /**
+     * 후보 밖 문헌은 원점수 ≤ 마지막 후보 유사도 → 가중 점수 ≤ 마지막 유사도 + 그 문헌의 가중치
+     * TOP_K 번째 문헌 점수가 후보 밖 문헌들의 상한 이상이면 순위에 들 수 없음
+     */
+    private boolean isSettled(String query, List<ChunkScore> scored, List<VectorHit> hits) {
+        Set<String> outside = new HashSet<>(index.sources());
+        for (ChunkScore c : scored) outside.remove(c.hit.source());
+
+        if (outside.isEmpty()) return true;
+        if (scored.size() < TOP_K) return false;
+
+        double lastSim = hits.get(hits.size() - 1).similarity();
+        double outsideUpperBound = Double.NEGATIVE_INFINITY;
+        for (String source : outside) {
+            outsideUpperBound = Math.max(outsideUpperBound, applyGoalAwareBoost(query, source, lastSim));
+        }
+        return scored.get(TOP_K - 1).boostedSim >= outsideUpperBound;
     }
 
 
     /* ============================================================
      * 🔸 목표 기반 가중치 Boost
+     *  쿼리 키워드 + 문헌 이름 키워드가 모두 맞으면 가중치 추가
      * ============================================================ */
+    private record BoostRule(List<String> queryKeywords, List<String> sourceKeywords, double boost) {}
+
+    private static final List<BoostRule> BOOST_RULES = List.of(
+            // 감정 관련
+            new BoostRule(List.of("스트레스", "stress", "감정", "기분", "우울", "불안", "멘탈"),
+                    List.of("stress"), 0.15),
+            // 운동 관련
+            new BoostRule(List.of("운동", "activity", "활동량", "유산소", "근력", "소모"),
+                    List.of("physical-activity"), 0.10),
+            // 체중/비만 관련
+            new BoostRule(List.of("체중", "몸무게", "비만", "obesity", "감량"),
+                    List.of("obesity"), 0.08),
+            // 영양/식단 관련
+            new BoostRule(List.of("칼로리", "섭취", "영양", "식단", "diet", "nutrition",
+                    "단백질", "탄수화물", "지방"),
+                    List.of("kdr", "dietary"), 0.06)
+    );
+
     private double applyGoalAwareBoost(String query, String source, double baseSim) {
         if (query == null || query.isBlank()) return baseSim;
 
@@ -136,29 +179,11 @@ public class GuidelineSearchService {
         String s = source.toLowerCase();
 
         double boost = 0.0;
-
-        // 감정 관련
-        if (containsAny(q, "스트레스", "stress", "감정", "기분", "우울", "불안", "멘탈")) {
-            if (s.contains("stress")) boost += 0.15;
-        }
-
-        // 운동 관련
-        if (containsAny(q, "운동", "activity", "활동량", "유산소", "근력", "소모")) {
-            if (s.contains("physical-activity")) boost += 0.10;
-        }
-
-        // 체중/비만 관련
-        if (containsAny(q, "체중", "몸무게", "비만", "obesity", "감량")) {
-            if (s.contains("obesity")) boost += 0.08;
-        }
-
-        // 영양/식단 관련
-        if (containsAny(q, "칼로리", "섭취", "영양", "식단", "diet", "nutrition",
-                "단백질", "탄수화물", "지방")) {
-            if (s.contains("kdr") || s.contains("dietary"))
-                boost += 0.06;
+        for (BoostRule rule : BOOST_RULES) {
+            if (containsAny(q, rule.queryKeywords()) && containsAny(s, rule.sourceKeywords())) {
+                boost += rule.boost();
+            }
         }
-
         return baseSim + boost;
     }
 
@@ -166,7 +191,7 @@ public class GuidelineSearchService {
     /* ============================================================
      * 🔸 여러 키워드 포함 여부
      * ============================================================ */
-    private boolean containsAny(String text, String... keywords) {
+    private boolean containsAny(String text, List<String> keywords) {
         for (String k : keywords) {
             if (text.contains(k.toLowerCase())) return true;
         }
@@ -204,13 +229,11 @@ public class GuidelineSearchService {
      * 🔸 내부 계산용 구조체
      * ============================================================ */
     private static class ChunkScore {
-        final GuidelineChunk chunk;
-        final double rawSim;
+        final VectorHit hit;
         final double boostedSim;
 
-        ChunkScore(GuidelineChunk chunk, double rawSim, double boostedSim) {
-            this.chunk = chunk;
-            this.rawSim = rawSim;
+        ChunkScore(VectorHit hit, double boostedSim) {
+            this.hit = hit;
             this.boostedSim = boostedSim;
         }
     }
@@ -0,0 +1,141 @@
+package com.healthchat.backend.service.rag;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.healthchat.backend.config.GeminiClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * ✨ RAG 쿼리 임베딩 캐시
+ * 정규화한 쿼리 문자열 → float[] 임베딩
+ * - 1차: 로컬 bounded 캐시 (Caffeine)
+ * - 2차: Redis — float 배열을 byte[] 그대로 저장 (JSON 아님, dim × 4 바이트)
+ * 같은 쿼리로 코치 피드백을 다시 만들 때 임베딩 API 왕복을 생략한다.
+ */
+@Slf4j
+@Component
+public class QueryEmbeddingCache {
+
+    private static final String REDIS_PREFIX = "rag:qemb:";
+
+    private final GeminiClient gemini;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, float[]> local;
+    private final boolean redisEnabled;
+    private final Duration ttl;
+
+    @Value("${gemini.model.embed}")
+    private String embedModel;
+
+    public QueryEmbeddingCache(
+            GeminiClient gemini,
+            RedisTemplate<String, byte[]> binaryRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${rag.query-cache.max-size:1000}") long maxSize,
+            @Value("${rag.query-cache.ttl:24h}") Duration ttl,
+            @Value("${rag.query-cache.redis.enabled:true}") boolean redisEnabled
+    ) {
+        this.gemini = gemini;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.redisEnabled = redisEnabled;
+        this.ttl = ttl;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+
+    /* ============================================================
+     * 🔸 로컬 → Redis → Gemini 순서로 조회 (실패한 빈 임베딩은 저장 안 함)
+     * ============================================================ */
+    public float[] embed(String query) {
+        String key = key(query);
+
+        float[] cached = local.getIfPresent(key);
+        record("local", cached != null);
+        if (cached != null) return cached;
+
+        float[] remote = readRedis(key);
+        if (remote != null) {
+            local.put(key, remote);
+            return remote;
+        }
+
+        float[] embedding = gemini.embed(query);
+        if (embedding != null && embedding.length > 0) {
+            local.put(key, embedding);
+            writeRedis(key, embedding);
+        }
+        return embedding;
+    }
+
+    private float[] readRedis(String key) {
+        if (!redisEnabled) return null;
+
+        try {
+            byte[] bytes = binaryRedisTemplate.opsForValue().get(REDIS_PREFIX + key);
+            boolean hit = bytes != null && bytes.length > 0 && bytes.length % Float.BYTES == 0;
+            record("redis", hit);
+            return hit ? EmbeddingUtil.toFloatArray(bytes) : null;
+        } catch (Exception e) {
+            log.warn("⚠ [RAG] 쿼리 임베딩 Redis 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, float[] embedding) {
+        if (!redisEnabled) return;
+
+        try {
+            binaryRedisTemplate.opsForValue().set(REDIS_PREFIX + key, EmbeddingUtil.toBytes(embedding), ttl);
+        } catch (Exception e) {
+            log.warn("⚠ [RAG] 쿼리 임베딩 Redis 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private void record(String tier, boolean hit) {
+        meterRegistry.counter("rag.query-embedding.cache", "tier", tier, "result", hit ? "hit" : "miss")
+                .increment();
+    }
+
+
+    /* ============================================================
+     * 🔸 키 = SHA-256(임베딩 모델 + 정규화 쿼리)
+     *  NFC 정규화 → 공백 압축 → trim → 소문자
+     * ============================================================ */
+    private String key(String query) {
+        String normalized = normalize(query);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(embedModel.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 캐시 키용 쿼리 정규화 (RetrievalResultCache 도 같은 규칙 사용) */
+    static String normalize(String query) {
+        return Normalizer.normalize(query == null ? "" : query, Normalizer.Form.NFC)
+                .replaceAll("\\s+", " ")
+                .trim()
+                .toLowerCase();
+    }
+}
@@ -0,0 +1,103 @@
+package com.healthchat.backend.service.rag;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * ✨ RAG 검색 결과 캐시
+ * 키 = SHA-256(인덱스 버전 + 정규화 쿼리) → 최종 선택 문헌(RetrievedChunk 목록)
+ * - 코치 분석 쿼리는 사용자 프로필 + 하루 기록 요약이라, 같은 사용자의 같은 하루면 결과가 같다
+ *   → 임베딩 · 후보 검색 · 목표 가중치 계산 · 본문 조회를 모두 생략
+ * - 문서를 임포트하면 GuidelineIndexService 버전이 올라가 이전 결과는 더 이상 조회되지 않음 (로컬 캐시도 비움)
+ * - 인덱스 버전이 인스턴스별 값이라 로컬(Caffeine)에만 저장
+ * - 메트릭: rag.retrieval.cache{result=hit|miss}, rag.retrieval.cache.size
+ */
+@Slf4j
+@Component
+public class RetrievalResultCache {
+
+    private final GuidelineIndexService index;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, List<GuidelineSearchService.RetrievedChunk>> local;
+    private final boolean enabled;
+
+    /** 마지막으로 본 인덱스 버전 — 바뀌면 캐시 전체 비움 */
+    private volatile long seenVersion = -1;
+
+    public RetrievalResultCache(
+            GuidelineIndexService index,
+            MeterRegistry meterRegistry,
+            @Value("${rag.retrieval-cache.enabled:true}") boolean enabled,
+            @Value("${rag.retrieval-cache.max-size:1000}") long maxSize,
+            @Value("${rag.retrieval-cache.ttl:24h}") Duration ttl
+    ) {
+        this.index = index;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .build();
+
+        meterRegistry.gauge("rag.retrieval.cache.size", local, Cache::estimatedSize);
+    }
+
+
+    /* ============================================================
+     * 🔸 캐시 조회 → 없으면 search 실행 후 저장 (빈 결과는 저장 안 함)
+     * ============================================================ */
+    public List<GuidelineSearchService.RetrievedChunk> getOrSearch(
+            String query, Supplier<List<GuidelineSearchService.RetrievedChunk>> search) {
+
+        if (!enabled) return search.get();
+
+        long version = index.version();
+        if (version != seenVersion) {
+            local.invalidateAll();
+            seenVersion = version;
+        }
+
+        String key = key(version, query);
+
+        List<GuidelineSearchService.RetrievedChunk> cached = local.getIfPresent(key);
+        record(cached != null);
+        if (cached != null) {
+            log.info("⚡ [RAG] 검색 결과 캐시 적중 ({}건, index v{})", cached.size(), version);
+            return cached;
+        }
+
+        List<GuidelineSearchService.RetrievedChunk> result = search.get();
+        if (result != null && !result.isEmpty()) {
+            local.put(key, List.copyOf(result));
+        }
+        return result;
+    }
+
+    private void record(boolean hit) {
+        meterRegistry.counter("rag.retrieval.cache", "result", hit ? "hit" : "miss").increment();
+    }
+
+    private static String key(long version, String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Long.toString(version).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(QueryEmbeddingCache.normalize(query).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.healthchat.backend.service.rag.index;
+
+import com.healthchat.backend.service.rag.simd.SimilarityKernel;
+import com.healthchat.backend.service.rag.simd.SimilarityKernels;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ✨ 정확 검색 인덱스
+ * 정규화된 벡터를 하나의 연속 float 행렬(row-major)로 보관하고 전체를 내적 스캔한다.
+ * HNSW 결과의 recall 비교 기준으로도 사용된다.
+ */
+public final class BruteForceVectorIndex implements VectorIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SourceDictionary sources = new SourceDictionary();
+    private final SimilarityKernel kernel = SimilarityKernels.get();
+
+    private int dim;
+    private int size;
+    private float[] data = new float[0];
+    private long[] ids = new long[0];
+    private int[] sourceIdx = new int[0];
+    private long maxId;
+
+    @Override
+    public int dimension() {
+        lock.readLock().lock();
+        try {
+            return dim;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long maxId() {
+        lock.readLock().lock();
+        try {
+            return maxId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<String> sources() {
+        lock.readLock().lock();
+        try {
+            return Set.copyOf(sources.names());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(long id, String source, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (size == 0 && dim == 0) dim = vector.length;
+            if (vector.length != dim) {
+                throw new IllegalArgumentException("벡터 차원 불일치: " + vector.length + " != " + dim);
+            }
+
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                data = Arrays.copyOf(data, capacity * dim);
+                ids = Arrays.copyOf(ids, capacity);
+                sourceIdx = Arrays.copyOf(sourceIdx, capacity);
+            }
+
+            System.arraycopy(vector, 0, data, size * dim, dim);
+            ids[size] = id;
+            sourceIdx[size] = sources.intern(source);
+            maxId = Math.max(maxId, id);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<VectorHit> search(float[] query, int k) {
+        lock.readLock().lock();
+        try {
+            if (size == 0 || query.length != dim) return List.of();
+
+            TopKCollector top = new TopKCollector(Math.min(k, size));
+
+            for (int row = 0, offset = 0; row < size; row++, offset += dim) {
+                float dot = kernel.dot(query, data, offset);
+                if (dot > top.threshold()) top.offer(row, dot);
+            }
+
+            return top.toHits(row -> ids[row], row -> sources.name(sourceIdx[row]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
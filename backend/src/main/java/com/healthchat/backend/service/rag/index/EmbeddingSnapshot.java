@@ -0,0 +1,272 @@
+package com.healthchat.backend.service.rag.index;
+
+import com.healthchat.backend.service.rag.simd.SimilarityKernel;
+import com.healthchat.backend.service.rag.simd.SimilarityKernels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * ✨ 메모리 매핑 임베딩 스냅샷 (읽기 전용 정확 검색 인덱스)
+ *
+ * 파일 형식 (모두 little-endian)
+ *  - header : magic "HCES", version, dim, count, maxId
+ *  - source : 사전 크기 + (길이 short, UTF-8 바이트) 반복
+ *  - rows   : id long[count], source index int[count]
+ *  - vectors: 8바이트 정렬 후 정규화된 float[count × dim] (row-major)
+ *
+ * 벡터 영역은 FileChannel.map 으로 열어 힙에 올리지 않고 페이지 캐시에서 바로 읽는다.
+ * 새 청크는 append 로 기존 벡터 영역을 그대로 복사하고 뒤에 이어 붙인 파일로 교체한다.
+ */
+public final class EmbeddingSnapshot implements SearchableVectorIndex {
+
+    private static final int MAGIC = 0x48434553;   // "HCES"
+    private static final int VERSION = 1;
+
+    private final SimilarityKernel kernel = SimilarityKernels.get();
+
+    private final int dim;
+    private final int size;
+    private final long maxId;
+    private final long[] ids;
+    private final int[] sourceIdx;
+    private final List<String> sourceNames;
+    private final ByteBuffer vectorBytes;
+    private final FloatBuffer vectors;
+
+    private EmbeddingSnapshot(int dim, long maxId, long[] ids, int[] sourceIdx,
+                              List<String> sourceNames, ByteBuffer vectorBytes) {
+        this.dim = dim;
+        this.size = ids.length;
+        this.maxId = maxId;
+        this.ids = ids;
+        this.sourceIdx = sourceIdx;
+        this.sourceNames = sourceNames;
+        this.vectorBytes = vectorBytes;
+        this.vectors = vectorBytes.asFloatBuffer();
+    }
+
+    /** 스냅샷 한 행 — vector는 정규화된 상태여야 한다 */
+    public record Row(long id, String source, float[] vector) {}
+
+
+    /* ============================================================
+     * 🔸 저장 — 임시 파일에 쓴 뒤 원자적으로 교체 (rows는 id 오름차순)
+     * ============================================================ */
+    public static void write(Path path, int dim, List<Row> rows) throws IOException {
+        writeFile(path, dim, null, rows);
+    }
+
+    /** base 뒤에 rows(base.maxId 이후, id 오름차순)를 이어 붙여 저장 — base 벡터 영역은 바이트 그대로 복사 */
+    public static void append(Path path, EmbeddingSnapshot base, List<Row> rows) throws IOException {
+        writeFile(path, base.dim, base, rows);
+    }
+
+    private static void writeFile(Path path, int dim, EmbeddingSnapshot base, List<Row> rows) throws IOException {
+        int baseCount = base != null ? base.size : 0;
+        int count = baseCount + rows.size();
+
+        SourceDictionary sources = new SourceDictionary();
+        int[] rowSource = new int[count];
+        long maxId = base != null ? base.maxId : 0;
+        for (int r = 0; r < baseCount; r++) {
+            rowSource[r] = sources.intern(base.sourceNames.get(base.sourceIdx[r]));
+        }
+        for (int r = 0; r < rows.size(); r++) {
+            Row row = rows.get(r);
+            if (row.vector().length != dim) {
+                throw new IllegalArgumentException("벡터 차원 불일치: id=" + row.id());
+            }
+            if (base != null && row.id() <= base.maxId) {
+                throw new IllegalArgumentException("기존 스냅샷 이후 id가 아님: id=" + row.id());
+            }
+            rowSource[baseCount + r] = sources.intern(row.source());
+            maxId = Math.max(maxId, row.id());
+        }
+
+        List<byte[]> names = new ArrayList<>();
+        int headerSize = 4 * 4 + 8 + 4;
+        for (String name : sources.names()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            names.add(bytes);
+            headerSize += 2 + bytes.length;
+        }
+        headerSize += count * (8 + 4);
+        int vectorOffset = align8(headerSize);
+
+        ByteBuffer header = ByteBuffer.allocate(vectorOffset).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(dim).putInt(count).putLong(maxId);
+        header.putInt(names.size());
+        for (byte[] bytes : names) {
+            header.putShort((short) bytes.length).put(bytes);
+        }
+        for (int r = 0; r < baseCount; r++) header.putLong(base.ids[r]);
+        for (Row row : rows) header.putLong(row.id());
+        for (int s : rowSource) header.putInt(s);
+        header.position(0);
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            while (header.hasRemaining()) channel.write(header);
+
+            if (base != null) {
+                ByteBuffer baseVectors = base.vectorBytes.duplicate().limit(baseCount * dim * Float.BYTES);
+                while (baseVectors.hasRemaining()) channel.write(baseVectors);
+            }
+
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            for (Row row : rows) {
+                for (float f : row.vector()) {
+                    if (!chunk.hasRemaining()) flush(channel, chunk);
+                    chunk.putFloat(f);
+                }
+            }
+            flush(channel, chunk);
+            channel.force(true);
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /* ============================================================
+     * 🔸 열기 — 헤더/행 메타만 힙에 읽고 벡터 영역은 매핑 그대로 사용
+     * ============================================================ */
+    public static EmbeddingSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("스냅샷이 너무 큼 (2GB 초과): " + path);
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            ByteBuffer buf = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buf.getInt() != MAGIC) throw new IOException("스냅샷 파일 형식이 아님: " + path);
+
+            int version = buf.getInt();
+            if (version != VERSION) throw new IOException("지원하지 않는 스냅샷 버전: " + version);
+
+            int dim = buf.getInt();
+            int count = buf.getInt();
+            long maxId = buf.getLong();
+
+            int sourceCount = buf.getInt();
+            List<String> names = new ArrayList<>(sourceCount);
+            for (int i = 0; i < sourceCount; i++) {
+                byte[] bytes = new byte[Short.toUnsignedInt(buf.getShort())];
+                buf.get(bytes);
+                names.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+
+            long[] ids = new long[count];
+            int[] sourceIdx = new int[count];
+            for (int i = 0; i < count; i++) ids[i] = buf.getLong();
+            for (int i = 0; i < count; i++) sourceIdx[i] = buf.getInt();
+
+            int vectorOffset = align8(buf.position());
+            if (fileSize < vectorOffset + (long) count * dim * Float.BYTES) {
+                throw new IOException("스냅샷 파일이 잘림: " + path);
+            }
+
+            ByteBuffer vectorBytes = buf.position(vectorOffset).slice()
+                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            return new EmbeddingSnapshot(dim, maxId, ids, sourceIdx, List.copyOf(names), vectorBytes);
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 SearchableVectorIndex
+     * ============================================================ */
+    @Override
+    public int dimension() {
+        return dim;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long maxId() {
+        return maxId;
+    }
+
+    @Override
+    public List<VectorHit> search(float[] query, int k) {
+        if (size == 0 || query.length != dim) return List.of();
+
+        TopKCollector top = new TopKCollector(Math.min(k, size));
+
+        for (int row = 0, offset = 0; row < size; row++, offset += dim) {
+            float dot = kernel.dot(query, vectors, offset);
+            if (dot > top.threshold()) top.offer(row, dot);
+        }
+
+        return top.toHits(row -> ids[row], row -> sourceNames.get(sourceIdx[row]));
+    }
+
+
+    /* ============================================================
+     * 🔸 다른 엔진/재정렬에서 사용하는 조회
+     * ============================================================ */
+    @Override
+    public Set<String> sources() {
+        return new HashSet<>(sourceNames);
+    }
+
+    /** id에 해당하는 벡터 복사본 (없는 id는 결과에서 빠짐) */
+    public Map<Long, float[]> vectors(Collection<Long> chunkIds) {
+        Map<Long, float[]> result = new HashMap<>();
+        for (Long id : chunkIds) {
+            int row = Arrays.binarySearch(ids, id);
+            if (row >= 0) result.put(id, vector(row));
+        }
+        return result;
+    }
+
+    /** target.maxId() 이후 행을 target 인덱스에 삽입 */
+    public void appendTo(VectorIndex target) {
+        int row = Arrays.binarySearch(ids, target.maxId() + 1);
+        if (row < 0) row = -row - 1;
+
+        for (; row < size; row++) {
+            target.add(ids[row], sourceNames.get(sourceIdx[row]), vector(row));
+        }
+    }
+
+    private float[] vector(int row) {
+        float[] v = new float[dim];
+        vectors.get(row * dim, v, 0, dim);
+        return v;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) channel.write(chunk);
+        chunk.clear();
+    }
+
+    private static int align8(int offset) {
+        return (offset + 7) & ~7;
+    }
+}
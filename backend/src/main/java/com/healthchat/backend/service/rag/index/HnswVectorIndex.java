@@ -0,0 +1,457 @@
+package com.healthchat.backend.service.rag.index;
+
+import com.healthchat.backend.service.rag.simd.SimilarityKernel;
+import com.healthchat.backend.service.rag.simd.SimilarityKernels;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ✨ HNSW (Hierarchical Navigable Small World) 근사 최근접 이웃 인덱스
+ *
+ * - M: 상위 레이어 노드당 최대 이웃 수 (레이어 0은 2M)
+ * - efConstruction: 삽입 시 후보 탐색 폭 (클수록 그래프 품질↑, 삽입 속도↓)
+ * - efSearch: 검색 시 후보 탐색 폭 (클수록 recall↑, 지연↑)
+ *
+ * 입력 벡터는 정규화되어 있다고 가정하고 유사도 = 내적으로 계산한다.
+ * 증분 삽입을 지원하며 로컬 파일로 저장/복원할 수 있다.
+ */
+public final class HnswVectorIndex implements VectorIndex {
+
+    private static final int MAGIC = 0x48435357;   // "HCSW"
+    private static final int VERSION = 1;
+    private static final SimilarityKernel KERNEL = SimilarityKernels.get();
+    private static final long LEVEL_SEED = 42;
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMult;
+    private final Random random;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SourceDictionary sources = new SourceDictionary();
+
+    private int dim;
+    private int size;
+    private float[][] vectors = new float[16][];
+    private long[] ids = new long[16];
+    private int[] sourceIdx = new int[16];
+
+    /** links[node][level] = [count, n1, n2, ...] */
+    private int[][][] links = new int[16][][];
+
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private long maxId;
+
+    public HnswVectorIndex(int m, int efConstruction, int efSearch) {
+        if (m < 2) throw new IllegalArgumentException("M은 2 이상이어야 합니다: " + m);
+
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = Math.max(efSearch, 1);
+        this.levelMult = 1.0 / Math.log(m);
+        this.random = new Random(LEVEL_SEED);
+    }
+
+    @Override
+    public int dimension() {
+        lock.readLock().lock();
+        try {
+            return dim;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long maxId() {
+        lock.readLock().lock();
+        try {
+            return maxId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<String> sources() {
+        lock.readLock().lock();
+        try {
+            return Set.copyOf(sources.names());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 삽입
+     * ============================================================ */
+    @Override
+    public void add(long id, String source, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (size == 0 && dim == 0) dim = vector.length;
+            if (vector.length != dim) {
+                throw new IllegalArgumentException("벡터 차원 불일치: " + vector.length + " != " + dim);
+            }
+
+            ensureCapacity(size + 1);
+
+            int node = size;
+            int level = randomLevel();
+
+            vectors[node] = vector.clone();
+            ids[node] = id;
+            sourceIdx[node] = sources.intern(source);
+            links[node] = newLinks(level);
+            maxId = Math.max(maxId, id);
+            size++;
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            float[] q = vectors[node];
+            int ep = entryPoint;
+
+            // 1) 새 노드 레벨보다 위 레이어는 greedy 하강
+            for (int l = maxLevel; l > level; l--) {
+                ep = greedyClosest(q, ep, l);
+            }
+
+            // 2) 겹치는 레이어마다 이웃 연결
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                List<Candidate> candidates = searchLayer(q, ep, efConstruction, l);
+                List<Candidate> neighbors = selectNeighbors(candidates, m);
+
+                int[] own = links[node][l];
+                for (Candidate c : neighbors) {
+                    own[++own[0]] = c.node;
+                }
+                for (Candidate c : neighbors) {
+                    connect(c.node, node, c.sim, l);
+                }
+
+                ep = candidates.get(0).node;
+            }
+
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = node;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 검색
+     * ============================================================ */
+    @Override
+    public List<VectorHit> search(float[] query, int k) {
+        lock.readLock().lock();
+        try {
+            if (size == 0 || query.length != dim || k <= 0) return List.of();
+
+            int ep = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                ep = greedyClosest(query, ep, l);
+            }
+
+            List<Candidate> found = searchLayer(query, ep, Math.max(efSearch, k), 0);
+
+            List<VectorHit> hits = new ArrayList<>(Math.min(k, found.size()));
+            for (int i = 0; i < found.size() && i < k; i++) {
+                Candidate c = found.get(i);
+                hits.add(new VectorHit(ids[c.node], sources.name(sourceIdx[c.node]), c.sim));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 레이어 내 greedy 탐색 (상위 레이어 하강용)
+     * ============================================================ */
+    private int greedyClosest(float[] q, int ep, int level) {
+        int current = ep;
+        float best = dot(q, vectors[current]);
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] nb = links[current][level];
+            for (int i = 1; i <= nb[0]; i++) {
+                float sim = dot(q, vectors[nb[i]]);
+                if (sim > best) {
+                    best = sim;
+                    current = nb[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+
+    /* ============================================================
+     * 🔸 레이어 내 beam 탐색 — 유사도 내림차순 최대 ef개 반환
+     * ============================================================ */
+    private List<Candidate> searchLayer(float[] q, int ep, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        visited.set(ep);
+
+        Candidate start = new Candidate(ep, dot(q, vectors[ep]));
+
+        // 탐색 후보: 유사도 높은 순
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Candidate.BY_SIM_DESC);
+        // 결과: 유사도 낮은 순 (가장 나쁜 것을 빠르게 제거)
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Candidate.BY_SIM_ASC);
+
+        frontier.add(start);
+        results.add(start);
+
+        while (!frontier.isEmpty()) {
+            Candidate c = frontier.poll();
+            if (results.size() >= ef && c.sim < results.peek().sim) break;
+
+            int[] nb = links[c.node].length > level ? links[c.node][level] : null;
+            if (nb == null) continue;
+
+            for (int i = 1; i <= nb[0]; i++) {
+                int n = nb[i];
+                if (visited.get(n)) continue;
+                visited.set(n);
+
+                float sim = dot(q, vectors[n]);
+                if (results.size() < ef || sim > results.peek().sim) {
+                    Candidate next = new Candidate(n, sim);
+                    frontier.add(next);
+                    results.add(next);
+                    if (results.size() > ef) results.poll();
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(Candidate.BY_SIM_DESC);
+        return sorted;
+    }
+
+
+    /* ============================================================
+     * 🔸 이웃 선택 휴리스틱 (논문 Algorithm 4)
+     *    후보가 이미 선택된 이웃과 더 가까우면 건너뛰어 다양성을 확보
+     * ============================================================ */
+    private List<Candidate> selectNeighbors(List<Candidate> candidatesDesc, int max) {
+        List<Candidate> selected = new ArrayList<>(max);
+        List<Candidate> pruned = new ArrayList<>();
+
+        for (Candidate c : candidatesDesc) {
+            if (selected.size() >= max) break;
+
+            boolean diverse = true;
+            for (Candidate s : selected) {
+                if (dot(vectors[c.node], vectors[s.node]) > c.sim) {
+                    diverse = false;
+                    break;
+                }
+            }
+
+            if (diverse) selected.add(c);
+            else pruned.add(c);
+        }
+
+        // 연결성 유지를 위해 부족한 자리는 버려진 후보로 채운다
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+
+    /* ============================================================
+     * 🔸 역방향 연결 — 이웃 수 초과 시 휴리스틱으로 재선택
+     * ============================================================ */
+    private void connect(int from, int to, float sim, int level) {
+        int[] nb = links[from][level];
+        int capacity = nb.length - 1;
+
+        if (nb[0] < capacity) {
+            nb[++nb[0]] = to;
+            return;
+        }
+
+        List<Candidate> candidates = new ArrayList<>(capacity + 1);
+        candidates.add(new Candidate(to, sim));
+        for (int i = 1; i <= nb[0]; i++) {
+            candidates.add(new Candidate(nb[i], dot(vectors[from], vectors[nb[i]])));
+        }
+        candidates.sort(Candidate.BY_SIM_DESC);
+
+        List<Candidate> kept = selectNeighbors(candidates, capacity);
+        nb[0] = kept.size();
+        for (int i = 0; i < kept.size(); i++) {
+            nb[i + 1] = kept.get(i).node;
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 저장 — 임시 파일에 쓴 뒤 원자적으로 교체
+     * ============================================================ */
+    public void save(Path path) throws IOException {
+        lock.readLock().lock();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(m);
+                out.writeInt(dim);
+                out.writeInt(size);
+                out.writeInt(entryPoint);
+                out.writeInt(maxLevel);
+
+                List<String> names = sources.names();
+                out.writeInt(names.size());
+                for (String name : names) out.writeUTF(name);
+
+                for (int node = 0; node < size; node++) {
+                    out.writeLong(ids[node]);
+                    out.writeInt(sourceIdx[node]);
+
+                    float[] v = vectors[node];
+                    for (int i = 0; i < dim; i++) out.writeFloat(v[i]);
+
+                    int[][] nodeLinks = links[node];
+                    out.writeInt(nodeLinks.length);
+                    for (int[] nb : nodeLinks) {
+                        out.writeInt(nb[0]);
+                        for (int i = 1; i <= nb[0]; i++) out.writeInt(nb[i]);
+                    }
+                }
+            }
+
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 복원 — M은 파일 값을 따르고 ef 값은 현재 설정을 사용
+     *    레벨 난수는 저장된 노드 수만큼 진행시켜, 이후 삽입이 처음부터 한 번에 만든 인덱스와 같은 레벨을 받게 한다
+     * ============================================================ */
+    public static HnswVectorIndex load(Path path, int efConstruction, int efSearch) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+
+            if (in.readInt() != MAGIC) throw new IOException("HNSW 파일 형식이 아님: " + path);
+
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("지원하지 않는 HNSW 파일 버전: " + version);
+
+            HnswVectorIndex index = new HnswVectorIndex(in.readInt(), efConstruction, efSearch);
+
+            index.dim = in.readInt();
+            int count = in.readInt();
+            index.entryPoint = in.readInt();
+            index.maxLevel = in.readInt();
+
+            int sourceCount = in.readInt();
+            for (int i = 0; i < sourceCount; i++) index.sources.intern(in.readUTF());
+
+            index.ensureCapacity(count);
+
+            for (int node = 0; node < count; node++) {
+                index.ids[node] = in.readLong();
+                index.sourceIdx[node] = in.readInt();
+
+                float[] v = new float[index.dim];
+                for (int i = 0; i < index.dim; i++) v[i] = in.readFloat();
+                index.vectors[node] = v;
+
+                int levels = in.readInt();
+                int[][] nodeLinks = index.newLinks(levels - 1);
+                for (int l = 0; l < levels; l++) {
+                    int n = in.readInt();
+                    nodeLinks[l][0] = n;
+                    for (int i = 1; i <= n; i++) nodeLinks[l][i] = in.readInt();
+                }
+                index.links[node] = nodeLinks;
+                index.maxId = Math.max(index.maxId, index.ids[node]);
+            }
+
+            index.size = count;
+            for (int i = 0; i < count; i++) index.randomLevel();
+            return index;
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 내부 유틸
+     * ============================================================ */
+    private int randomLevel() {
+        return (int) Math.floor(-Math.log(1.0 - random.nextDouble()) * levelMult);
+    }
+
+    private int[][] newLinks(int level) {
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+        return nodeLinks;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) return;
+
+        int capacity = Math.max(required, ids.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        sourceIdx = Arrays.copyOf(sourceIdx, capacity);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    private static float dot(float[] a, float[] b) {
+        return KERNEL.dot(a, b);
+    }
+
+    private record Candidate(int node, float sim) {
+        static final Comparator<Candidate> BY_SIM_DESC = (a, b) -> Float.compare(b.sim, a.sim);
+        static final Comparator<Candidate> BY_SIM_ASC = (a, b) -> Float.compare(a.sim, b.sim);
+    }
+}
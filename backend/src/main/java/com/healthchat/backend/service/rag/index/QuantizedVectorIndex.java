@@ -0,0 +1,229 @@
+package com.healthchat.backend.service.rag.index;
+
+import com.healthchat.backend.service.rag.EmbeddingQuantizer;
+import com.healthchat.backend.service.rag.simd.SimilarityKernel;
+import com.healthchat.backend.service.rag.simd.SimilarityKernels;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ✨ 양자화 코드 기반 2단계 검색 인덱스
+ * 1) 메모리에는 int8 코드(또는 1bit 부호 코드)만 두고 전체를 빠르게 coarse 스캔
+ * 2) 상위 k × rerankFactor 후보만 원본 float 벡터를 불러와 정확한 코사인으로 재정렬
+ */
+public final class QuantizedVectorIndex implements VectorIndex {
+
+    public enum Mode { INT8, BINARY }
+
+    /** 재정렬용 원본(정규화) 벡터 로더 — id → float[] */
+    @FunctionalInterface
+    public interface FullVectorLoader {
+        Map<Long, float[]> load(Collection<Long> ids);
+    }
+
+    private final Mode mode;
+    private final int rerankFactor;
+    private final FullVectorLoader loader;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SourceDictionary sources = new SourceDictionary();
+    private final SimilarityKernel kernel = SimilarityKernels.get();
+
+    private int dim;
+    private int words;
+    private int size;
+    private long[] ids = new long[0];
+    private int[] sourceIdx = new int[0];
+    private long maxId;
+
+    /** INT8: row-major 코드 + 행별 scale */
+    private byte[] codes = new byte[0];
+    private float[] scales = new float[0];
+
+    /** BINARY: row-major 부호 비트 */
+    private long[] bits = new long[0];
+
+    public QuantizedVectorIndex(Mode mode, int rerankFactor, FullVectorLoader loader) {
+        this.mode = mode;
+        this.rerankFactor = Math.max(rerankFactor, 1);
+        this.loader = loader;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    @Override
+    public int dimension() {
+        lock.readLock().lock();
+        try {
+            return dim;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long maxId() {
+        lock.readLock().lock();
+        try {
+            return maxId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<String> sources() {
+        lock.readLock().lock();
+        try {
+            return Set.copyOf(sources.names());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 삽입 — float 벡터는 보관하지 않고 코드만 저장
+     * ============================================================ */
+    @Override
+    public void add(long id, String source, float[] vector) {
+        if (mode == Mode.INT8) {
+            EmbeddingQuantizer.Int8Code code = EmbeddingQuantizer.toInt8(vector);
+            addInt8(id, source, code.codes(), code.scale());
+        } else {
+            addBits(id, source, vector.length, EmbeddingQuantizer.toSignBits(vector));
+        }
+    }
+
+    /** DB에 저장된 int8 코드를 그대로 적재 */
+    public void addInt8(long id, String source, byte[] code, float scale) {
+        lock.writeLock().lock();
+        try {
+            int row = prepareRow(id, source, code.length);
+            System.arraycopy(code, 0, codes, row * dim, dim);
+            scales[row] = scale;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** DB에 저장된 부호 비트를 그대로 적재 */
+    public void addBits(long id, String source, int dimension, byte[] signBits) {
+        lock.writeLock().lock();
+        try {
+            int row = prepareRow(id, source, dimension);
+            System.arraycopy(EmbeddingQuantizer.toWords(signBits), 0, bits, row * words, words);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 검색 — coarse 스캔 후 원본 벡터로 재정렬
+     * ============================================================ */
+    @Override
+    public List<VectorHit> search(float[] query, int k) {
+        List<VectorHit> coarse;
+
+        lock.readLock().lock();
+        try {
+            if (size == 0 || query.length != dim || k <= 0) return List.of();
+
+            TopKCollector top = new TopKCollector(Math.min(k * rerankFactor, size));
+            if (mode == Mode.INT8) scanInt8(query, top);
+            else scanBits(query, top);
+
+            coarse = top.toHits(row -> ids[row], row -> sources.name(sourceIdx[row]));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return rerank(query, coarse, k);
+    }
+
+    private void scanInt8(float[] q, TopKCollector top) {
+        for (int row = 0, offset = 0; row < size; row++, offset += dim) {
+            float score = kernel.dotInt8(q, codes, offset) * scales[row];
+            if (score > top.threshold()) top.offer(row, score);
+        }
+    }
+
+    private void scanBits(float[] q, TopKCollector top) {
+        long[] qBits = EmbeddingQuantizer.toWords(EmbeddingQuantizer.toSignBits(q));
+
+        for (int row = 0, offset = 0; row < size; row++, offset += words) {
+            int hamming = 0;
+            for (int w = 0; w < words; w++) {
+                hamming += Long.bitCount(qBits[w] ^ bits[offset + w]);
+            }
+            // 해밍 거리 → 각도 기반 코사인 근사치
+            float score = 1f - 2f * hamming / dim;
+            if (score > top.threshold()) top.offer(row, score);
+        }
+    }
+
+    private List<VectorHit> rerank(float[] q, List<VectorHit> coarse, int k) {
+        if (loader == null || coarse.isEmpty()) {
+            return coarse.subList(0, Math.min(k, coarse.size()));
+        }
+
+        Map<Long, float[]> full = loader.load(coarse.stream().map(VectorHit::chunkId).toList());
+
+        List<VectorHit> exact = new ArrayList<>(coarse.size());
+        for (VectorHit hit : coarse) {
+            float[] v = full.get(hit.chunkId());
+            if (v == null || v.length != q.length) continue;
+
+            exact.add(new VectorHit(hit.chunkId(), hit.source(), kernel.dot(q, v)));
+        }
+
+        exact.sort(Comparator.comparingDouble(VectorHit::similarity).reversed());
+        return exact.subList(0, Math.min(k, exact.size()));
+    }
+
+
+    /* ============================================================
+     * 🔸 내부 유틸
+     * ============================================================ */
+    private int prepareRow(long id, String source, int dimension) {
+        if (size == 0 && dim == 0) {
+            dim = dimension;
+            words = (dim + 63) / 64;
+        }
+        if (dimension != dim) {
+            throw new IllegalArgumentException("벡터 차원 불일치: " + dimension + " != " + dim);
+        }
+
+        if (size == ids.length) {
+            int capacity = Math.max(16, size * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            sourceIdx = Arrays.copyOf(sourceIdx, capacity);
+            if (mode == Mode.INT8) {
+                codes = Arrays.copyOf(codes, capacity * dim);
+                scales = Arrays.copyOf(scales, capacity);
+            } else {
+                bits = Arrays.copyOf(bits, capacity * words);
+            }
+        }
+
+        int row = size++;
+        ids[row] = id;
+        sourceIdx[row] = sources.intern(source);
+        maxId = Math.max(maxId, id);
+        return row;
+    }
+}
@@ -0,0 +1,27 @@
+package com.healthchat.backend.service.rag.index;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ✨ 읽기 전용 벡터 검색 인터페이스
+ * - 입력 벡터는 호출 측에서 L2 정규화해서 넘긴다 (유사도 = 내적)
+ * - 구현체: 삽입 가능한 VectorIndex, 메모리 매핑 스냅샷(EmbeddingSnapshot)
+ */
+public interface SearchableVectorIndex {
+
+    /** 벡터 차원 (비어 있으면 0) */
+    int dimension();
+
+    /** 저장된 벡터 개수 */
+    int size();
+
+    /** 가장 큰 청크 id (비어 있으면 0) — 증분 동기화 기준 */
+    long maxId();
+
+    /** 저장된 문헌(source) 이름 */
+    Set<String> sources();
+
+    /** 유사도 내림차순 상위 k개 */
+    List<VectorHit> search(float[] query, int k);
+}
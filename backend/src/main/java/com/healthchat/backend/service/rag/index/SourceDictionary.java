@@ -0,0 +1,35 @@
+package com.healthchat.backend.service.rag.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 문헌(source) 이름 ↔ 정수 index 사전
+ * 행마다 문자열을 들고 있지 않도록 int 로 치환해서 저장한다.
+ */
+final class SourceDictionary {
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> index = new HashMap<>();
+
+    int intern(String source) {
+        return index.computeIfAbsent(source, s -> {
+            names.add(s);
+            return names.size() - 1;
+        });
+    }
+
+    String name(int idx) {
+        return names.get(idx);
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    List<String> names() {
+        return List.copyOf(names);
+    }
+}
@@ -0,0 +1,97 @@
+package com.healthchat.backend.service.rag.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * 상위 k개 유지용 최소 힙 (박싱 없이 row/score 배열로 관리)
+ */
+final class TopKCollector {
+
+    private final int k;
+    private final int[] rows;
+    private final float[] scores;
+    private int size;
+
+    TopKCollector(int k) {
+        this.k = k;
+        this.rows = new int[k];
+        this.scores = new float[k];
+    }
+
+    /** 현재 k번째 점수 — 이보다 낮으면 offer 할 필요 없음 */
+    float threshold() {
+        return size < k ? Float.NEGATIVE_INFINITY : scores[0];
+    }
+
+    void offer(int row, float score) {
+        if (k == 0) return;
+
+        if (size < k) {
+            rows[size] = row;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            rows[0] = row;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /** 점수 내림차순 결과 */
+    List<VectorHit> toHits(IntToLongFunction ids, IntFunction<String> sources) {
+        int n = size;
+        int[] r = new int[n];
+        float[] s = new float[n];
+
+        // 힙에서 하나씩 꺼내면 오름차순 → 뒤에서부터 채움
+        for (int i = n - 1; i >= 0; i--) {
+            r[i] = rows[0];
+            s[i] = scores[0];
+            rows[0] = rows[--size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+
+        List<VectorHit> hits = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            hits.add(new VectorHit(ids.applyAsLong(r[i]), sources.apply(r[i]), s[i]));
+        }
+        return hits;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+
+            int right = left + 1;
+            int smallest = (right < size && scores[right] < scores[left]) ? right : left;
+            if (scores[i] <= scores[smallest]) break;
+
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int r = rows[a];
+        rows[a] = rows[b];
+        rows[b] = r;
+
+        float s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+    }
+}
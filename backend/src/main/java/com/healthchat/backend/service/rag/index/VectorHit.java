@@ -0,0 +1,6 @@
+package com.healthchat.backend.service.rag.index;
+
+/**
+ * 검색 결과 (본문 없이 청크 id / 문헌 / 유사도만)
+ */
+public record VectorHit(long chunkId, String source, double similarity) {}
@@ -0,0 +1,11 @@
+package com.healthchat.backend.service.rag.index;
+
+/**
+ * ✨ 벡터 삽입이 가능한 검색 엔진 공통 인터페이스
+ * - 구현체: 정확 검색(BruteForce), 근사 검색(HNSW), 양자화(Quantized)
+ */
+public interface VectorIndex extends SearchableVectorIndex {
+
+    /** 벡터 1개 추가 */
+    void add(long id, String source, float[] vector);
+}
@@ -0,0 +1,24 @@
+package com.healthchat.backend.service.rag.index;
+
+/**
+ * rag.index.type 설정값
+ */
+public enum VectorIndexType {
+
+    /** 전체 스캔 — 정확 검색 (recall 비교 기준) */
+    BRUTE_FORCE,
+
+    /** HNSW 근사 검색 */
+    HNSW,
+
+    /** int8 양자화 코드 스캔 + 원본 벡터 재정렬 */
+    INT8,
+
+    /** 1bit 부호 코드 스캔 + 원본 벡터 재정렬 */
+    BINARY;
+
+    public static VectorIndexType from(String value) {
+        if (value == null || value.isBlank()) return BRUTE_FORCE;
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
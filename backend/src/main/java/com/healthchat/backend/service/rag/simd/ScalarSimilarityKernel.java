@@ -0,0 +1,46 @@
+package com.healthchat.backend.service.rag.simd;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 순수 자바 스칼라 구현 — Vector API 모듈이 없을 때의 기본값
+ */
+public final class ScalarSimilarityKernel implements SimilarityKernel {
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        return dot(a, b, 0);
+    }
+
+    @Override
+    public float dot(float[] q, float[] matrix, int offset) {
+        float sum = 0f;
+        for (int i = 0; i < q.length; i++) {
+            sum += q[i] * matrix[offset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public float dot(float[] q, FloatBuffer matrix, int offset) {
+        float sum = 0f;
+        for (int i = 0; i < q.length; i++) {
+            sum += q[i] * matrix.get(offset + i);
+        }
+        return sum;
+    }
+
+    @Override
+    public float dotInt8(float[] q, byte[] codes, int offset) {
+        float sum = 0f;
+        for (int i = 0; i < q.length; i++) {
+            sum += q[i] * codes[offset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
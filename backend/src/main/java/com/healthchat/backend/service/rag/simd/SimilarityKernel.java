@@ -0,0 +1,25 @@
+package com.healthchat.backend.service.rag.simd;
+
+import java.nio.FloatBuffer;
+
+/**
+ * ✨ 유사도 계산 커널
+ * 저장 벡터와 쿼리는 모두 미리 L2 정규화되어 있으므로 코사인 유사도 = 내적 1회.
+ */
+public interface SimilarityKernel {
+
+    /** a · b */
+    float dot(float[] a, float[] b);
+
+    /** q · matrix[offset .. offset + q.length) — row-major 행렬의 한 행과 내적 */
+    float dot(float[] q, float[] matrix, int offset);
+
+    /** q · matrix[offset ..] — 메모리 매핑된 스냅샷(off-heap) 행과 내적 */
+    float dot(float[] q, FloatBuffer matrix, int offset);
+
+    /** q · codes[offset .. offset + q.length) — int8 코드 행과 내적 (scale 미적용) */
+    float dotInt8(float[] q, byte[] codes, int offset);
+
+    /** 로그/벤치마크용 이름 */
+    String name();
+}
@@ -0,0 +1,59 @@
+package com.healthchat.backend.service.rag.simd;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔸 커널 선택
+ * jdk.incubator.vector 모듈 + --enable-preview 로 기동하면 SIMD 구현, 아니면 스칼라 구현을 사용한다 (대체 시 WARN).
+ * (-Drag.simd.enabled=false 로 강제 비활성화 가능)
+ */
+@Slf4j
+public final class SimilarityKernels {
+
+    private static final SimilarityKernel INSTANCE = select();
+
+    private SimilarityKernels() {}
+
+    public static SimilarityKernel get() {
+        return INSTANCE;
+    }
+
+    /** 벤치마크 비교용 스칼라 구현 */
+    public static SimilarityKernel scalar() {
+        return new ScalarSimilarityKernel();
+    }
+
+    /** Vector API 구현 (모듈·simd 소스셋·--enable-preview 중 하나라도 없으면 null) */
+    public static SimilarityKernel vectorApi() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+
+        try {
+            // simd 소스셋(preview 컴파일)에 있으므로 main 에서는 이름으로만 참조한다
+            return (SimilarityKernel) Class.forName(SimilarityKernels.class.getPackageName() + ".VectorApiSimilarityKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (Throwable e) {
+            log.warn("⚠ [RAG] Vector API 커널 초기화 실패: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static SimilarityKernel select() {
+        if (!Boolean.parseBoolean(System.getProperty("rag.simd.enabled", "true"))) {
+            SimilarityKernel kernel = scalar();
+            log.info("🧮 [RAG] 유사도 커널: {} (rag.simd.enabled=false)", kernel.name());
+            return kernel;
+        }
+
+        SimilarityKernel kernel = vectorApi();
+        if (kernel == null) {
+            kernel = scalar();
+            log.warn("⚠ [RAG] Vector API 커널 사용 불가 → {} 로 대체 "
+                    + "(--add-modules jdk.incubator.vector --enable-preview 확인)", kernel.name());
+            return kernel;
+        }
+
+        log.info("🧮 [RAG] 유사도 커널: {}", kernel.name());
+        return kernel;
+    }
+}
@@ -0,0 +1,198 @@
+package com.healthchat.backend.service.routing;
+
+import java.util.*;
+
+/**
+ * ✨ Aho–Corasick 다중 패턴 매칭 오토마톤
+ * 패턴 수와 무관하게 입력을 한 번만 훑어서 모든 적중을 찾는다. (O(텍스트 길이 + 적중 수))
+ *
+ * - 공백 무시: 패턴은 공백을 제거해 등록하고, 입력의 공백 문자는 건너뛴다
+ *   ("식단 기록 삭제" 패턴이 "식단기록삭제", "식단  기록 삭제" 모두에 적중)
+ * - 대소문자 무시 (소문자 기준)
+ * - 빌드 후에는 불변 — 여러 스레드에서 동시에 사용해도 안전
+ *
+ * @param <T> 패턴에 연결된 값 (인텐트, 어휘 분류 등)
+ */
+public final class AhoCorasick<T> {
+
+    /** 노드별 자식 — 문자 오름차순 정렬 (이진 탐색) */
+    private final char[][] keys;
+    private final int[][] next;
+    private final int[] fail;
+    /** 노드에서 끝나는 패턴 (실패 링크를 따라 끝나는 패턴 포함) */
+    private final int[][] outputs;
+    private final List<T> values;
+
+    private AhoCorasick(char[][] keys, int[][] next, int[] fail, int[][] outputs, List<T> values) {
+        this.keys = keys;
+        this.next = next;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.values = values;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+
+    /* ============================================================
+     * 🔸 매칭 — 적중한 모든 위치의 값을 순서대로 (같은 값 중복 가능)
+     * ============================================================ */
+    public List<T> findAll(CharSequence text) {
+        return findAll(text, true);
+    }
+
+    /**
+     * 어절 안에서만 매칭 — 공백에서 상태를 처음으로 되돌린다
+     * 짧은 어휘가 어절 경계를 넘어 적중하지 않도록 ("행운 동전" 에서 "운동" 미적중)
+     */
+    public List<T> findAllInWords(CharSequence text) {
+        return findAll(text, false);
+    }
+
+    private List<T> findAll(CharSequence text, boolean spanWhitespace) {
+        if (text == null || text.isEmpty()) return List.of();
+
+        List<T> found = new ArrayList<>();
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!spanWhitespace) state = 0;
+                continue;
+            }
+            c = Character.toLowerCase(c);
+
+            int to;
+            while ((to = child(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(to, 0);
+
+            for (int pattern : outputs[state]) {
+                found.add(values.get(pattern));
+            }
+        }
+        return found;
+    }
+
+    /** 적중한 값 집합 (등장 순서 유지) */
+    public Set<T> findDistinct(CharSequence text) {
+        return new LinkedHashSet<>(findAll(text));
+    }
+
+    public boolean matches(CharSequence text) {
+        return !findAll(text).isEmpty();
+    }
+
+    private int child(int node, char c) {
+        int idx = Arrays.binarySearch(keys[node], c);
+        return idx >= 0 ? next[node][idx] : -1;
+    }
+
+
+    /* ============================================================
+     * 🔸 빌더 — trie 구성 → BFS 로 실패 링크/출력 병합 → 배열로 고정
+     * ============================================================ */
+    public static final class Builder<T> {
+
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<List<Integer>> ends = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+
+        private Builder() {
+            newNode();
+        }
+
+        /** 공백만 있는 패턴은 무시 */
+        public Builder<T> add(String pattern, T value) {
+            String normalized = normalize(pattern);
+            if (normalized.isEmpty()) return this;
+
+            int node = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                Integer to = children.get(node).get(c);
+                if (to == null) {
+                    to = newNode();
+                    children.get(node).put(c, to);
+                }
+                node = to;
+            }
+
+            ends.get(node).add(values.size());
+            values.add(value);
+            return this;
+        }
+
+        public AhoCorasick<T> build() {
+            int n = children.size();
+            int[] fail = new int[n];
+            List<List<Integer>> merged = new ArrayList<>(n);
+            for (List<Integer> e : ends) merged.add(new ArrayList<>(e));
+
+            // BFS — 부모의 실패 링크가 먼저 계산되어 있어야 함
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int child : children.get(0).values()) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+
+                for (Map.Entry<Character, Integer> edge : children.get(node).entrySet()) {
+                    char c = edge.getKey();
+                    int child = edge.getValue();
+
+                    int f = fail[node];
+                    while (f != 0 && !children.get(f).containsKey(c)) f = fail[f];
+                    Integer target = children.get(f).get(c);
+                    fail[child] = target != null && target != child ? target : 0;
+
+                    merged.get(child).addAll(merged.get(fail[child]));
+                    queue.add(child);
+                }
+            }
+
+            char[][] keys = new char[n][];
+            int[][] next = new int[n][];
+            int[][] outputs = new int[n][];
+
+            for (int node = 0; node < n; node++) {
+                TreeMap<Character, Integer> sorted = new TreeMap<>(children.get(node));
+                keys[node] = new char[sorted.size()];
+                next[node] = new int[sorted.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : sorted.entrySet()) {
+                    keys[node][i] = edge.getKey();
+                    next[node][i++] = edge.getValue();
+                }
+                outputs[node] = merged.get(node).stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            return new AhoCorasick<>(keys, next, fail, outputs, List.copyOf(values));
+        }
+
+        private int newNode() {
+            children.add(new HashMap<>());
+            ends.add(new ArrayList<>());
+            return children.size() - 1;
+        }
+    }
+
+    static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.healthchat.backend.service.routing;
+
+/**
+ * 구문표(routing/intents.txt)로 감지하는 사용자 명령 인텐트
+ * 새 인텐트는 여기에 상수를 추가하고 구문표에 구문을 등록한다.
+ */
+public enum Intent {
+    DELETE_ALL,
+    DELETE_MEAL,
+    DELETE_EXERCISE,
+    DELETE_EMOTION,
+    /** 개별 영역(운동/식단/감정) 언급 — 전체 삭제 판단에서 제외 조건 */
+    DOMAIN_KEYWORD
+}
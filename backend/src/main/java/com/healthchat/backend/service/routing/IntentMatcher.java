@@ -0,0 +1,45 @@
+package com.healthchat.backend.service.routing;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * ✨ 구문표 기반 인텐트 감지기
+ * routing/intents.txt 의 "인텐트: 구문" 을 한 번만 Aho–Corasick 오토마톤으로 빌드하고,
+ * 요청마다 입력을 한 번 훑어 적중한 인텐트를 모두 반환한다. (공백/대소문자 무시)
+ */
+@Slf4j
+@Component
+public class IntentMatcher {
+
+    private static final String PHRASE_TABLE = "routing/intents.txt";
+
+    private AhoCorasick<Intent> automaton;
+
+    @PostConstruct
+    void load() {
+        AhoCorasick.Builder<Intent> builder = AhoCorasick.builder();
+
+        for (String line : RoutingResources.readLines(PHRASE_TABLE)) {
+            int sep = line.indexOf(':');
+            if (sep <= 0) {
+                throw new IllegalStateException("인텐트 구문 형식 오류 (인텐트: 구문): " + line);
+            }
+            Intent intent = Intent.valueOf(line.substring(0, sep).trim());
+            builder.add(line.substring(sep + 1), intent);
+        }
+
+        automaton = builder.build();
+        log.info("🧭 [IntentMatcher] 인텐트 구문 {}개 로드", automaton.size());
+    }
+
+    public Set<Intent> match(String text) {
+        Set<Intent> intents = EnumSet.noneOf(Intent.class);
+        if (text != null) intents.addAll(automaton.findAll(text));
+        return intents;
+    }
+}
@@ -0,0 +1,198 @@
+package com.healthchat.backend.service.routing;
+
+import com.healthchat.backend.service.GeminiRoutingService.RoutingResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * ✨ 로컬 규칙 기반 사전 라우터 — 애매하지 않은 입력은 LLM 라우팅을 생략
+ *
+ * 1) 보류 표현(삭제/부정/미래/질문)이 있으면 바로 LLM 으로
+ * 2) 문장부호 + 한국어 접속어/연결 어미로 절을 나눔 ("김밥 두 줄 먹고 조깅했어" → ["김밥 두 줄 먹고", "조깅했어"])
+ * 3) 절마다 식단/운동/감정 어휘 적중 수를 세어 가장 많은 영역으로 배정
+ *    절 신뢰도 = 최다 영역 적중 / 전체 적중, 문장 신뢰도 = 절 신뢰도의 최솟값
+ * 4) 어휘가 하나도 없는 절이 있거나 신뢰도가 기준 미만이면 LLM 으로
+ *
+ * 어휘는 classpath routing/*.txt 에서 읽어 Aho–Corasick 오토마톤으로 빌드한다.
+ * 영역 어휘는 어절 안에서만, 보류 표현은 공백을 무시하고 비교한다. ("안 마셨" 같은 띄어쓰기 변형)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalPreRouter {
+
+    @Value("${routing.pre-router.enabled:true}")
+    private boolean enabled;
+
+    /** 이 이상이면 로컬 결과를 그대로 사용 */
+    @Value("${routing.pre-router.min-confidence:0.9}")
+    private double minConfidence;
+
+    private final MeterRegistry meterRegistry;
+
+    private AhoCorasick<Term> lexicon;
+    private AhoCorasick<String> deferTerms;
+    private Set<String> connectives;
+    private List<String> endings;
+    private DistributionSummary confidenceSummary;
+
+    public enum Category { MEAL, EXERCISE, EMOTION }
+
+    private record Term(String text, Category category) {}
+
+    /** 분류 결과 — result 가 null 이면 LLM 으로 넘김 (reason 은 메트릭 태그) */
+    public record Decision(RoutingResult result, double confidence, String reason) {}
+
+    @PostConstruct
+    void load() {
+        AhoCorasick.Builder<Term> terms = AhoCorasick.builder();
+        addTerms(terms, "routing/meal.txt", Category.MEAL);
+        addTerms(terms, "routing/exercise.txt", Category.EXERCISE);
+        addTerms(terms, "routing/emotion.txt", Category.EMOTION);
+        lexicon = terms.build();
+
+        AhoCorasick.Builder<String> defer = AhoCorasick.builder();
+        RoutingResources.readLines("routing/defer.txt").forEach(term -> defer.add(term, term));
+        deferTerms = defer.build();
+
+        connectives = Set.copyOf(RoutingResources.readLines("routing/connectives.txt"));
+        endings = RoutingResources.readLines("routing/endings.txt");
+
+        confidenceSummary = DistributionSummary.builder("routing.pre-router.confidence")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        log.info("🧭 [PreRouter] 어휘 {}개 / 보류 표현 {}개 로드", lexicon.size(), deferTerms.size());
+    }
+
+    private void addTerms(AhoCorasick.Builder<Term> builder, String path, Category category) {
+        for (String term : RoutingResources.readLines(path)) {
+            builder.add(term, new Term(AhoCorasick.normalize(term), category));
+        }
+    }
+
+
+    /* ============================================================
+     * 🔸 라우팅 — 신뢰도가 충분할 때만 결과 반환
+     * ============================================================ */
+    public Optional<RoutingResult> route(String text) {
+        if (!enabled || text == null || text.isBlank()) return Optional.empty();
+
+        Decision decision = classify(text);
+        boolean bypass = decision.result() != null && decision.confidence() >= minConfidence;
+        String result = bypass ? "bypass" : decision.result() == null ? decision.reason() : "low-confidence";
+
+        meterRegistry.counter("routing.pre-router", "result", result).increment();
+        confidenceSummary.record(decision.confidence());
+
+        if (!bypass) {
+            log.debug("🧭 [PreRouter] LLM 위임 ({}, 신뢰도 {})", result, decision.confidence());
+            return Optional.empty();
+        }
+
+        log.info("🧭 [PreRouter] 로컬 라우팅 — LLM 호출 생략 (신뢰도 {})", decision.confidence());
+        return Optional.of(decision.result());
+    }
+
+    /** 문장 전체에서 어휘가 하나라도 적중한 영역 — 추측 실행 후보 (보류 표현 무관) */
+    public Set<Category> signals(String text) {
+        Set<Category> categories = EnumSet.noneOf(Category.class);
+        if (text == null) return categories;
+        for (Term term : lexicon.findAllInWords(text)) categories.add(term.category());
+        return categories;
+    }
+
+    public Decision classify(String text) {
+
+        if (deferTerms.matches(text)) return new Decision(null, 0.0, "defer-term");
+
+        List<String> clauses = splitClauses(text);
+        if (clauses.isEmpty()) return new Decision(null, 0.0, "unknown");
+
+        Map<Category, List<String>> routed = new EnumMap<>(Category.class);
+        double confidence = 1.0;
+
+        for (String clause : clauses) {
+            Map<Category, Integer> hits = countHits(clause);
+
+            int total = hits.values().stream().mapToInt(Integer::intValue).sum();
+            if (total == 0) return new Decision(null, 0.0, "unknown");
+
+            Map.Entry<Category, Integer> top = Collections.max(hits.entrySet(), Map.Entry.comparingByValue());
+            confidence = Math.min(confidence, (double) top.getValue() / total);
+
+            routed.computeIfAbsent(top.getKey(), k -> new ArrayList<>()).add(clause);
+        }
+
+        RoutingResult result = new RoutingResult(
+                String.join(" ", routed.getOrDefault(Category.MEAL, List.of())),
+                String.join(" ", routed.getOrDefault(Category.EXERCISE, List.of())),
+                String.join(" ", routed.getOrDefault(Category.EMOTION, List.of()))
+        );
+        return new Decision(result, confidence, "classified");
+    }
+
+
+    /* ============================================================
+     * 🔸 절 분리 — 문장부호, 단독 접속어(버림), 연결 어미로 끝나는 어절 뒤
+     * ============================================================ */
+    List<String> splitClauses(String text) {
+        List<String> clauses = new ArrayList<>();
+
+        for (String sentence : text.split("[.!,~\\n]+")) {
+            StringBuilder current = new StringBuilder();
+            int tokens = 0;
+
+            for (String token : sentence.trim().split("\\s+")) {
+                if (token.isEmpty()) continue;
+
+                if (connectives.contains(token)) {
+                    flush(current, clauses);
+                    tokens = 0;
+                    continue;
+                }
+
+                if (!current.isEmpty()) current.append(' ');
+                current.append(token);
+                tokens++;
+
+                // 어절 하나뿐인 절("운동하고 나니 …")은 뒤 절의 일부로 보고 이어 붙임
+                if (tokens >= 2 && endsWithConnective(token)) {
+                    flush(current, clauses);
+                    tokens = 0;
+                }
+            }
+            flush(current, clauses);
+        }
+        return clauses;
+    }
+
+    private boolean endsWithConnective(String token) {
+        for (String ending : endings) {
+            if (token.length() > ending.length() && token.endsWith(ending)) return true;
+        }
+        return false;
+    }
+
+    private void flush(StringBuilder current, List<String> clauses) {
+        String clause = current.toString().trim();
+        if (!clause.isEmpty()) clauses.add(clause);
+        current.setLength(0);
+    }
+
+    /** 영역별 적중 어휘 수 (같은 어휘가 여러 번 나와도 1) */
+    private Map<Category, Integer> countHits(String clause) {
+        Map<Category, Integer> hits = new EnumMap<>(Category.class);
+        for (Term term : new LinkedHashSet<>(lexicon.findAllInWords(clause))) {
+            hits.merge(term.category(), 1, Integer::sum);
+        }
+        return hits;
+    }
+}
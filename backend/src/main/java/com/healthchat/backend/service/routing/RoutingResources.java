@@ -0,0 +1,25 @@
+package com.healthchat.backend.service.routing;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/** classpath routing/*.txt 읽기 — 한 줄에 하나, 빈 줄과 # 주석 제외 */
+final class RoutingResources {
+
+    private RoutingResources() {}
+
+    static List<String> readLines(String path) {
+        try {
+            return new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8).lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("라우팅 리소스 로드 실패: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.healthchat.backend.service.rag.simd;
+
+import jdk.incubator.vector.*;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * ✨ JDK Vector API(jdk.incubator.vector) SIMD 구현
+ * CPU가 지원하는 최대 폭(SPECIES_PREFERRED)으로 FMA 누적 후 마지막에 한 번만 합산한다.
+ * 이 클래스는 --add-modules jdk.incubator.vector 로 기동했을 때만 로드된다.
+ * (JDK 21 의 MemorySegment 는 preview API 라 별도 simd 소스셋에서 --enable-preview 로 컴파일 — build.gradle 참고)
+ */
+final class VectorApiSimilarityKernel implements SimilarityKernel {
+
+    private static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+
+    /** int8 → float 변환용: float 레인 수와 같은 레인 수의 byte species (64bit 미만이면 미지원) */
+    private static final VectorSpecies<Byte> B = F.length() * 8 >= 64
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(F.length() * 8))
+            : null;
+
+    /** 마지막으로 감싼 매핑 버퍼와 그 세그먼트 뷰 (스냅샷 교체 전까지 같은 버퍼가 반복 전달됨) */
+    private volatile Mapped mapped;
+
+    private record Mapped(FloatBuffer buffer, MemorySegment segment) {}
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        return dot(a, b, 0);
+    }
+
+    @Override
+    public float dot(float[] q, float[] matrix, int offset) {
+        int n = q.length;
+        int upper = F.loopBound(n);
+
+        FloatVector acc = FloatVector.zero(F);
+        int i = 0;
+        for (; i < upper; i += F.length()) {
+            FloatVector x = FloatVector.fromArray(F, q, i);
+            FloatVector y = FloatVector.fromArray(F, matrix, offset + i);
+            acc = x.fma(y, acc);
+        }
+
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += q[i] * matrix[offset + i];
+        }
+        return sum;
+    }
+
+    /**
+     * 매핑 영역을 MemorySegment 뷰로 감싸 fromMemorySegment 로 직접 로드한다 (힙 복사 없음).
+     * 스냅샷 파일은 little-endian 으로 기록된다.
+     */
+    @Override
+    public float dot(float[] q, FloatBuffer matrix, int offset) {
+        MemorySegment segment = segmentOf(matrix);
+        long base = (long) offset * Float.BYTES;
+        int n = q.length;
+        int upper = F.loopBound(n);
+
+        FloatVector acc = FloatVector.zero(F);
+        int i = 0;
+        for (; i < upper; i += F.length()) {
+            FloatVector x = FloatVector.fromArray(F, q, i);
+            FloatVector y = FloatVector.fromMemorySegment(F, segment, base + (long) i * Float.BYTES, ByteOrder.LITTLE_ENDIAN);
+            acc = x.fma(y, acc);
+        }
+
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += q[i] * matrix.get(offset + i);
+        }
+        return sum;
+    }
+
+    private MemorySegment segmentOf(FloatBuffer matrix) {
+        Mapped m = mapped;
+        if (m == null || m.buffer() != matrix) {
+            m = new Mapped(matrix, MemorySegment.ofBuffer(matrix));
+            mapped = m;
+        }
+        return m.segment();
+    }
+
+    @Override
+    public float dotInt8(float[] q, byte[] codes, int offset) {
+        int n = q.length;
+        int i = 0;
+        float sum = 0f;
+
+        if (B != null) {
+            int upper = F.loopBound(n);
+            FloatVector acc = FloatVector.zero(F);
+
+            for (; i < upper; i += F.length()) {
+                FloatVector x = FloatVector.fromArray(F, q, i);
+                FloatVector y = (FloatVector) ByteVector.fromArray(B, codes, offset + i)
+                        .convertShape(VectorOperators.B2F, F, 0);
+                acc = x.fma(y, acc);
+            }
+            sum = acc.reduceLanes(VectorOperators.ADD);
+        }
+
+        for (; i < n; i++) {
+            sum += q[i] * codes[offset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String name() {
+        return "vector-api(" + F.vectorBitSize() + "bit)";
+    }
+}
@@ -0,0 +1,22 @@
+package com.healthchat.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiClientJsonTest {
+
+    @Test
+    void extractJsonObject_stripsFenceAndExplanation() {
+        String text = "분석 결과입니다.\n```json\n{\"mealText\": \"김밥\"}\n```\n참고하세요.";
+
+        assertThat(GeminiClient.extractJsonObject(text)).isEqualTo("{\"mealText\": \"김밥\"}");
+    }
+
+    @Test
+    void extractJsonObject_keepsTextWithoutObject() {
+        assertThat(GeminiClient.extractJsonObject("")).isEmpty();
+        assertThat(GeminiClient.extractJsonObject("응답 없음")).isEqualTo("응답 없음");
+        assertThat(GeminiClient.extractJsonObject(null)).isNull();
+    }
+}
@@ -0,0 +1,86 @@
+package com.healthchat.backend.config.gemini;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdConcurrencyLimiterTest {
+
+    private static final long SLOW = 1_000_000_000L;
+    private static final long FAST = 1_000_000L;
+
+    @Test
+    void tryAcquire_rejectsAtLimitWithoutWaiting() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 10, 0.5, SLOW);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+
+        limiter.onIgnored();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void onSuccess_growsByOnePerWindow() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 1, 10, 0.5, SLOW);
+
+        // limit 4 → 성공마다 1/limit (4.25, 4.49, 4.71, 4.92, 5.12) — 한 창(약 limit 회)마다 +1
+        for (int i = 0; i < 4; i++) succeed(limiter, FAST);
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        succeed(limiter, FAST);
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void onSuccess_neverExceedsMax() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(3, 1, 3, 0.5, SLOW);
+
+        for (int i = 0; i < 20; i++) succeed(limiter, FAST);
+
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void slowSuccess_andDrop_multiplyLimitByBackoff() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 1, 16, 0.5, SLOW);
+
+        succeed(limiter, SLOW + 1);
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertThat(limiter.limit()).isEqualTo(2);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void decrease_neverGoesBelowMin() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 2, 16, 0.5, SLOW);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void onIgnored_keepsLimit() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 1, 16, 0.5, SLOW);
+
+        limiter.tryAcquire();
+        limiter.onIgnored();
+
+        assertThat(limiter.limit()).isEqualTo(4);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    private static void succeed(AimdConcurrencyLimiter limiter, long latencyNanos) {
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onSuccess(latencyNanos);
+    }
+}
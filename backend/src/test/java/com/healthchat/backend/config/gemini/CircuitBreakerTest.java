@@ -0,0 +1,109 @@
+package com.healthchat.backend.config.gemini;
+
+import com.healthchat.backend.config.gemini.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final Duration LONG_OPEN = Duration.ofHours(1);
+
+    @Test
+    void closed_staysClosedBelowMinCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 5, 0.5, LONG_OPEN, 2);
+
+        for (int i = 0; i < 4; i++) breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void closed_opensWhenFailureRateReachesThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, LONG_OPEN, 2);
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);   // 1/3
+
+        breaker.onFailure();                                   // 2/4 = 0.5
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void window_oldOutcomesSlideOut() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, LONG_OPEN, 1);
+
+        for (int i = 0; i < 6; i++) breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);   // 창 [S S F F] = 2/4
+
+        // 창 [S F F F] = 3/4 — 밀려난 성공까지 세면 3/9 라 열리지 않음
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void halfOpen_allowsOnlyTrialCallsAndClosesWhenAllSucceed() {
+        CircuitBreaker breaker = openedBreaker(2);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void halfOpen_anyFailureReopens() {
+        CircuitBreaker breaker = openedBreaker(2);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void halfOpen_ignoredCallReturnsTrialSlot() {
+        CircuitBreaker breaker = openedBreaker(1);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onIgnored();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void close_resetsWindow() {
+        CircuitBreaker breaker = openedBreaker(1);
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        // 닫힌 뒤 실패 1건은 minCalls 미만 → open 아님
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    /** open 지속시간 0 — 다음 tryAcquire 에서 바로 half-open */
+    private static CircuitBreaker openedBreaker(int halfOpenCalls) {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, Duration.ZERO, halfOpenCalls);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        return breaker;
+    }
+}
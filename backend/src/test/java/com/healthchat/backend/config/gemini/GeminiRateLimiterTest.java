@@ -0,0 +1,122 @@
+package com.healthchat.backend.config.gemini;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GeminiRateLimiterTest {
+
+    private static final String MODEL = "gemini-2.5-pro";
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private GeminiRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("gemini.rate-limit.models[" + MODEL + "].rpm", "6")
+                .withProperty("gemini.rate-limit.models[" + MODEL + "].burst", "10");
+
+        limiter = new GeminiRateLimiter(redisTemplate, env, meterRegistry);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "redisEnabled", false);
+        ReflectionTestUtils.setField(limiter, "defaultRpm", 60);
+        ReflectionTestUtils.setField(limiter, "defaultBurst", 10);
+        ReflectionTestUtils.setField(limiter, "backgroundReserve", 0.3);
+        // 분당 6회 → 토큰 1개에 10초: 대기 한도 0 이면 버킷이 비는 즉시 거절
+        ReflectionTestUtils.setField(limiter, "interactiveMaxWait", Duration.ZERO);
+        ReflectionTestUtils.setField(limiter, "backgroundMaxWait", Duration.ZERO);
+        ReflectionTestUtils.setField(limiter, "defaultRetryAfter", Duration.ofSeconds(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void acquire_redisFailure_fallsBackToLocalBucket() {
+        ReflectionTestUtils.setField(limiter, "redisEnabled", true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        for (int i = 0; i < 10; i++) acquire(GeminiPriority.INTERACTIVE);
+
+        assertRejected(GeminiPriority.INTERACTIVE);
+        verify(redisTemplate, times(11)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        assertThat(meterRegistry.counter("gemini.rate-limit.rejected",
+                "model", MODEL, "priority", "INTERACTIVE").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void acquire_backgroundLeavesReserveForInteractive() {
+        // burst 10 × reserve 0.3 → BACKGROUND 는 7 개까지
+        for (int i = 0; i < 7; i++) acquire(GeminiPriority.BACKGROUND);
+        assertRejected(GeminiPriority.BACKGROUND);
+
+        for (int i = 0; i < 3; i++) acquire(GeminiPriority.INTERACTIVE);
+        assertRejected(GeminiPriority.INTERACTIVE);
+    }
+
+    @Test
+    void acquire_waitsWithinMaxWait() {
+        ReflectionTestUtils.setField(limiter, "interactiveMaxWait", Duration.ofSeconds(1));
+        limiter.onRateLimited(MODEL, Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        acquire(GeminiPriority.INTERACTIVE);
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(90);
+        assertThat(meterRegistry.counter("gemini.rate-limit.waited",
+                "model", MODEL, "priority", "INTERACTIVE").count()).isPositive();
+    }
+
+    @Test
+    void onRateLimited_blocksBucketForRetryAfter() {
+        limiter.onRateLimited(MODEL, Duration.ofSeconds(30));
+
+        // 토큰이 가득 차 있어도 Retry-After 동안은 획득 불가
+        assertRejected(GeminiPriority.INTERACTIVE);
+        // 다른 모델 버킷은 영향 없음
+        limiter.acquire("gemini-2.5-flash").block();
+    }
+
+    @Test
+    void onRateLimited_withoutRetryAfterUsesDefault() {
+        limiter.onRateLimited(MODEL, null);
+
+        assertRejected(GeminiPriority.INTERACTIVE);
+    }
+
+    @Test
+    void acquire_disabled_neverWaits() {
+        ReflectionTestUtils.setField(limiter, "enabled", false);
+        limiter.onRateLimited(MODEL, Duration.ofSeconds(30));
+
+        for (int i = 0; i < 20; i++) acquire(GeminiPriority.BACKGROUND);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private void acquire(GeminiPriority priority) {
+        limiter.acquire(MODEL).contextWrite(priority.context()).block();
+    }
+
+    private void assertRejected(GeminiPriority priority) {
+        Mono<Void> acquire = limiter.acquire(MODEL).contextWrite(priority.context());
+        assertThatThrownBy(acquire::block)
+                .isInstanceOfSatisfying(GeminiUnavailableException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(GeminiUnavailableException.Reason.RATE_LIMITED));
+    }
+}
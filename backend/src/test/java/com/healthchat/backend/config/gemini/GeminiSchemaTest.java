@@ -0,0 +1,152 @@
+package com.healthchat.backend.config.gemini;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.healthchat.backend.dto.AiCoachFeedbackDto;
+import com.healthchat.backend.service.GeminiFusedAnalysisService.FusedAnalysis;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiSchemaTest {
+
+    enum Mood { HAPPY, SAD }
+
+    record Food(String name, int kcal) {}
+
+    record Meal(String message, String summary, List<Food> foods, @JsonIgnore String internal) {}
+
+    /** Lombok DTO 와 같은 형태 — 스키마는 접근자가 아니라 선언 필드를 읽음 */
+    static class Entry {
+        static final String CONSTANT = "x";
+
+        private Integer score;
+        private double ratio;
+        private boolean done;
+        private Boolean flagged;
+        private Mood mood;
+        private Meal meal;
+        private transient String cached;
+
+        @JsonIgnore
+        private String serverOnly;
+    }
+
+    static class Node {
+        private Node next;
+    }
+
+    @Test
+    void record_usesComponentOrderAndSkipsJsonIgnore() {
+        Map<String, Object> schema = GeminiSchema.of(Meal.class).schema();
+
+        assertThat(schema.get("type")).isEqualTo("OBJECT");
+        assertThat(properties(schema)).containsOnlyKeys("message", "summary", "foods");
+        assertThat(schema.get("propertyOrdering")).isEqualTo(List.of("message", "summary", "foods"));
+        assertThat(schema.get("required")).isEqualTo(List.of("message", "summary", "foods"));
+    }
+
+    @Test
+    void fieldClass_usesDeclaredFieldOrderAndSkipsStaticTransientJsonIgnore() {
+        Map<String, Object> schema = GeminiSchema.of(Entry.class).schema();
+
+        assertThat(schema.get("propertyOrdering"))
+                .isEqualTo(List.of("score", "ratio", "done", "flagged", "mood", "meal"));
+    }
+
+    @Test
+    void types_mapToOpenApiSubset() {
+        Map<String, Object> props = properties(GeminiSchema.of(Entry.class).schema());
+
+        assertThat(prop(props, "score").get("type")).isEqualTo("INTEGER");
+        assertThat(prop(props, "ratio").get("type")).isEqualTo("NUMBER");
+        assertThat(prop(props, "done").get("type")).isEqualTo("BOOLEAN");
+        assertThat(prop(props, "mood")).containsEntry("type", "STRING")
+                .containsEntry("enum", List.of("HAPPY", "SAD"));
+
+        Map<String, Object> foods = prop(properties(prop(props, "meal")), "foods");
+        assertThat(foods.get("type")).isEqualTo("ARRAY");
+        Map<String, Object> food = cast(foods.get("items"));
+        assertThat(food.get("type")).isEqualTo("OBJECT");
+        assertThat(food.get("propertyOrdering")).isEqualTo(List.of("name", "kcal"));
+    }
+
+    @Test
+    void nullable_onlyForNonPrimitiveTypes() {
+        Map<String, Object> props = properties(GeminiSchema.of(Entry.class).schema());
+
+        assertThat(prop(props, "score")).containsEntry("nullable", true);
+        assertThat(prop(props, "flagged")).containsEntry("nullable", true);
+        assertThat(prop(props, "mood")).containsEntry("nullable", true);
+        assertThat(prop(props, "meal")).containsEntry("nullable", true);
+        assertThat(prop(props, "ratio")).doesNotContainKey("nullable");
+        assertThat(prop(props, "done")).doesNotContainKey("nullable");
+
+        Map<String, Object> food = cast(prop(properties(prop(props, "meal")), "foods").get("items"));
+        assertThat(prop(properties(food), "kcal")).doesNotContainKey("nullable");
+        assertThat(prop(properties(food), "name")).containsEntry("nullable", true);
+
+        // 최상위 객체는 nullable 아님
+        assertThat(GeminiSchema.of(Entry.class).schema()).doesNotContainKey("nullable");
+    }
+
+    @Test
+    void exclude_topLevelAndDottedPaths() {
+        Map<String, Object> top = properties(GeminiSchema.of(Meal.class, "message").schema());
+        assertThat(top).containsOnlyKeys("summary", "foods");
+
+        Map<String, Object> nested = properties(GeminiSchema.of(Entry.class, "meal.message", "meal.foods.kcal").schema());
+        Map<String, Object> meal = prop(nested, "meal");
+        assertThat(meal.get("propertyOrdering")).isEqualTo(List.of("summary", "foods"));
+        assertThat(meal.get("required")).isEqualTo(List.of("summary", "foods"));
+
+        Map<String, Object> food = cast(prop(properties(meal), "foods").get("items"));
+        assertThat(properties(food)).containsOnlyKeys("name");
+
+        // 점 없는 이름은 최상위만 — 중첩 필드는 그대로
+        Map<String, Object> notNested = properties(GeminiSchema.of(Entry.class, "message").schema());
+        assertThat(properties(prop(notNested, "meal"))).containsKey("message");
+    }
+
+    @Test
+    void applicationDtos_excludeServerFilledFields() {
+        // Lombok DTO — 선언 순서 그대로, @JsonIgnore 필드 제외
+        assertThat(GeminiSchema.of(AiCoachFeedbackDto.class).schema().get("propertyOrdering")).isEqualTo(List.of(
+                "summary", "dietAdvice", "exerciseAdvice", "emotionAdvice", "goalAlignment", "references"));
+
+        Map<String, Object> fused = properties(GeminiSchema.of(FusedAnalysis.class,
+                "meal.message", "exercise.message", "emotion.action", "emotion.rawText").schema());
+        assertThat(properties(prop(fused, "meal"))).doesNotContainKey("message");
+        assertThat(properties(prop(fused, "emotion"))).doesNotContainKeys("action", "rawText");
+        assertThat(properties(prop(fused, "routing"))).containsKeys("mealText", "exerciseText", "emotionText");
+    }
+
+    @Test
+    void json_isStableAndDiffersByExclusion() {
+        assertThat(GeminiSchema.of(Meal.class).json()).isEqualTo(GeminiSchema.of(Meal.class).json());
+        assertThat(GeminiSchema.of(Meal.class, "message").json()).isNotEqualTo(GeminiSchema.of(Meal.class).json());
+        assertThat(GeminiSchema.of(Meal.class).name()).isEqualTo("Meal");
+    }
+
+    @Test
+    void cyclicType_rejected() {
+        assertThatThrownBy(() -> GeminiSchema.of(Node.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, Object> properties(Map<String, Object> schema) {
+        return cast(schema.get("properties"));
+    }
+
+    private static Map<String, Object> prop(Map<String, Object> properties, String name) {
+        return cast(properties.get(name));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cast(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
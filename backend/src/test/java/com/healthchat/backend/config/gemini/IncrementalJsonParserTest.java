@@ -0,0 +1,150 @@
+package com.healthchat.backend.config.gemini;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthchat.backend.config.gemini.IncrementalJsonParser.Field;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalJsonParserTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** 한글(3바이트 UTF-8) · 이모지(서로게이트 쌍) · 이스케이프 · 중첩 값 · 숫자/불리언/null */
+    private static final String JSON = """
+            {
+              "summary": "오늘은 단백질이 부족했어요 💪🏻 내일은 \\"닭가슴살\\" 추천!",
+              "score": 72,
+              "ratio": -0.125e1,
+              "ok": true,
+              "missing": null,
+              "tips": ["물 2L 🥤", {"meal": "저녁", "foods": [{"name": "두부", "kcal": 150}]}, []],
+              "detail": {"nested": {"deep": ["🍚", "🥗", 3.5]}, "empty": {}},
+              "last": "끝 😀"
+            }""";
+
+    @Test
+    void randomSplits_yieldSameFieldsAsReadTree() throws Exception {
+        List<Field> expected = fieldsOf(MAPPER.readTree(JSON));
+        Random random = new Random(42);
+
+        for (int round = 0; round < 500; round++) {
+            List<Field> actual = feedAll(new IncrementalJsonParser(), split(JSON, random, 1 + random.nextInt(40)));
+            assertThat(actual).as("round %d", round).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void everyTwoWaySplit_includingInsideSurrogatePairs() throws Exception {
+        List<Field> expected = fieldsOf(MAPPER.readTree(JSON));
+
+        for (int i = 1; i < JSON.length(); i++) {
+            IncrementalJsonParser parser = new IncrementalJsonParser();
+            List<Field> actual = feedAll(parser, List.of(JSON.substring(0, i), JSON.substring(i)));
+            assertThat(actual).as("split at %d", i).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void singleCharChunks() throws Exception {
+        List<String> chunks = new ArrayList<>();
+        for (char c : JSON.toCharArray()) chunks.add(String.valueOf(c));
+
+        assertThat(feedAll(new IncrementalJsonParser(), chunks))
+                .isEqualTo(fieldsOf(MAPPER.readTree(JSON)));
+    }
+
+    @Test
+    void skipsCodeFencePreambleAndTrailingText() throws Exception {
+        String fenced = "```json\n" + JSON + "\n```\n추가 설명";
+        Random random = new Random(7);
+
+        for (int round = 0; round < 100; round++) {
+            List<Field> actual = feedAll(new IncrementalJsonParser(), split(fenced, random, 1 + random.nextInt(20)));
+            assertThat(actual).isEqualTo(fieldsOf(MAPPER.readTree(JSON)));
+        }
+    }
+
+    @Test
+    void fieldIsEmittedAsSoonAsItsValueCloses() {
+        IncrementalJsonParser parser = new IncrementalJsonParser();
+
+        assertThat(parser.feed("{\"a\": \"하나")).isEmpty();
+        assertThat(parser.feed("\", \"b\": [1, {\"c\"")).extracting(Field::name).containsExactly("a");
+        assertThat(parser.feed(": 2}]")).extracting(Field::name).containsExactly("b");
+        // 숫자는 구분자가 와야 끝난 것으로 판단
+        assertThat(parser.feed(", \"n\": 12")).isEmpty();
+        assertThat(parser.feed("3}")).containsExactly(new Field("n", MAPPER.getNodeFactory().numberNode(123)));
+    }
+
+    @Test
+    void truncatedStream_keepsOnlyCompletedFields() throws Exception {
+        Map<String, JsonNode> complete = new LinkedHashMap<>();
+        for (Field f : fieldsOf(MAPPER.readTree(JSON))) complete.put(f.name(), f.value());
+
+        for (int cut = 0; cut < JSON.length(); cut++) {
+            String prefix = JSON.substring(0, cut);
+            List<Field> actual = feedAll(new IncrementalJsonParser(), split(prefix, new Random(cut), 5));
+
+            // 잘린 지점까지 완성된 필드는 원본과 같은 값, 순서도 원본 순서
+            List<String> names = actual.stream().map(Field::name).toList();
+            assertThat(names).isEqualTo(new ArrayList<>(complete.keySet()).subList(0, names.size()));
+            for (Field f : actual) assertThat(f.value()).isEqualTo(complete.get(f.name()));
+        }
+    }
+
+    @Test
+    void brokenJson_stopsWithoutThrowing() {
+        IncrementalJsonParser parser = new IncrementalJsonParser();
+
+        assertThat(parser.feed("{\"a\": 1, ")).extracting(Field::name).containsExactly("a");
+        assertThat(parser.feed("\"b\": ]")).isEmpty();
+        assertThat(parser.feed(", \"c\": 3}")).isEmpty();
+    }
+
+    @Test
+    void nonObjectRootYieldsNothing() {
+        IncrementalJsonParser parser = new IncrementalJsonParser();
+
+        assertThat(parser.feed("no json here")).isEmpty();
+        assertThat(parser.feed(null)).isEmpty();
+        assertThat(parser.feed("")).isEmpty();
+    }
+
+    private static List<Field> feedAll(IncrementalJsonParser parser, List<String> chunks) {
+        List<Field> fields = new ArrayList<>();
+        for (String chunk : chunks) fields.addAll(parser.feed(chunk));
+        return fields;
+    }
+
+    private static List<Field> fieldsOf(JsonNode root) {
+        List<Field> fields = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> e : root.properties()) {
+            fields.add(new Field(e.getKey(), e.getValue()));
+        }
+        return fields;
+    }
+
+    /** 임의 위치(서로게이트 쌍 사이 포함)에서 pieces 조각 이하로 자름 */
+    private static List<String> split(String text, Random random, int pieces) {
+        TreeSet<Integer> cuts = new TreeSet<>();
+        for (int i = 1; i < pieces && text.length() > 1; i++) cuts.add(1 + random.nextInt(text.length() - 1));
+
+        List<String> chunks = new ArrayList<>();
+        int from = 0;
+        for (int cut : cuts) {
+            chunks.add(text.substring(from, cut));
+            from = cut;
+        }
+        chunks.add(text.substring(from));
+        return chunks;
+    }
+}
@@ -0,0 +1,74 @@
+package com.healthchat.backend.config.gemini;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenBucketTest {
+
+    /** 10ms 마다 토큰 1개 */
+    private static final double RATE = 0.1;
+
+    @Test
+    void tryAcquire_burstThenWaitForOneToken() {
+        LocalTokenBucket bucket = new LocalTokenBucket(3, 0.001);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+
+        // 버킷 소진 → 토큰 1개가 찰 때까지의 대기 시간 (1 / 0.001 = 1000ms 이하)
+        assertThat(bucket.tryAcquire(0)).isBetween(1L, 1000L);
+    }
+
+    @Test
+    void tryAcquire_refillsOverTime() throws InterruptedException {
+        LocalTokenBucket bucket = new LocalTokenBucket(2, RATE);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        Thread.sleep(30);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+    }
+
+    @Test
+    void tryAcquire_neverRefillsBeyondCapacity() throws InterruptedException {
+        LocalTokenBucket bucket = new LocalTokenBucket(2, RATE);
+
+        Thread.sleep(50);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isPositive();
+    }
+
+    @Test
+    void tryAcquire_keepsReserveUntouched() {
+        LocalTokenBucket bucket = new LocalTokenBucket(10, 0.0001);
+
+        // 예약 3 → 10 개 중 7 개만 사용 가능
+        for (int i = 0; i < 7; i++) assertThat(bucket.tryAcquire(3)).isZero();
+        assertThat(bucket.tryAcquire(3)).isPositive();
+
+        // 예약 없는 요청은 남은 3 개 사용
+        for (int i = 0; i < 3; i++) assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isPositive();
+    }
+
+    @Test
+    void blockFor_rejectsEvenWithTokensUntilExpired() throws InterruptedException {
+        LocalTokenBucket bucket = new LocalTokenBucket(5, RATE);
+
+        bucket.blockFor(200);
+        assertThat(bucket.tryAcquire(0)).isBetween(1L, 200L);
+
+        // 더 짧은 차단은 기존 차단을 줄이지 않음
+        bucket.blockFor(1);
+        assertThat(bucket.tryAcquire(0)).isGreaterThan(1L);
+
+        Thread.sleep(250);
+        assertThat(bucket.tryAcquire(0)).isZero();
+    }
+}
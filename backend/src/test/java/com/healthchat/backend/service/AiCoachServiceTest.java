@@ -0,0 +1,74 @@
+package com.healthchat.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthchat.backend.config.GeminiClient;
+import com.healthchat.backend.dto.AiCoachFeedbackDto;
+import com.healthchat.backend.dto.AnalysisEvent;
+import com.healthchat.backend.entity.DailyLog;
+import com.healthchat.backend.entity.User;
+import com.healthchat.backend.repository.DailyLogRepository;
+import com.healthchat.backend.repository.UserRepository;
+import com.healthchat.backend.service.rag.GuidelineSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AiCoachServiceTest {
+
+    private static final String WHOLE = """
+            {"summary":"전체 요약","dietAdvice":"식단","exerciseAdvice":"운동","emotionAdvice":"감정"}""";
+
+    private final GeminiClient geminiClient = mock(GeminiClient.class);
+    private final GuidelineSearchService guidelineSearchService = mock(GuidelineSearchService.class);
+
+    private AiCoachService service;
+    private AiCoachService.CoachInputs inputs;
+
+    @BeforeEach
+    void setUp() {
+        service = new AiCoachService(mock(UserRepository.class), mock(DailyLogRepository.class),
+                mock(DailyEmotionService.class), guidelineSearchService, geminiClient,
+                new ObjectMapper(), Schedulers.immediate());
+
+        when(guidelineSearchService.searchRelevantChunks(anyString())).thenReturn(List.of());
+
+        User user = User.builder().id(1L).build();
+        DailyLog dailyLog = DailyLog.builder().user(user).date(LocalDate.of(2026, 10, 16)).build();
+        inputs = new AiCoachService.CoachInputs(user, dailyLog, null, "query", "fp");
+    }
+
+    @Test
+    void streamDailyFeedback_interruptedAfterFields_doneIsWholeResponse() {
+        when(geminiClient.streamSmartJson(anyString(), any(), any())).thenReturn(Flux.concat(
+                Flux.just("{\"summary\":\"부분 요약\",\"dietAdvice\":\"식"),
+                Flux.error(new IllegalStateException("stream reset"))));
+        when(geminiClient.generateSmartJsonAsync(anyString(), any(), any())).thenReturn(Mono.just(WHOLE));
+
+        List<AnalysisEvent> events = service.streamDailyFeedback(inputs).collectList().block();
+
+        assertThat(events).extracting(AnalysisEvent::name).containsExactly("summary", "done");
+        AiCoachFeedbackDto done = (AiCoachFeedbackDto) events.get(1).data();
+        assertThat(done.isFallback()).isFalse();
+        assertThat(done.getSummary()).isEqualTo("전체 요약");
+    }
+
+    @Test
+    void streamDailyFeedback_completedStream_noExtraCall() {
+        when(geminiClient.streamSmartJson(anyString(), any(), any())).thenReturn(Flux.just(WHOLE));
+
+        List<AnalysisEvent> events = service.streamDailyFeedback(inputs).collectList().block();
+
+        assertThat(events.get(events.size() - 1).name()).isEqualTo("done");
+        assertThat(((AiCoachFeedbackDto) events.get(events.size() - 1).data()).getSummary()).isEqualTo("전체 요약");
+        verify(geminiClient, never()).generateSmartJsonAsync(anyString(), any(), any());
+    }
+}
@@ -0,0 +1,118 @@
+package com.healthchat.backend.service;
+
+import com.healthchat.backend.entity.CoachPrecomputeCheckpoint;
+import com.healthchat.backend.repository.CoachPrecomputeCheckpointRepository;
+import com.healthchat.backend.repository.DailyLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CoachPrecomputeSchedulerTest {
+
+    private static final LocalDate TARGET = LocalDate.of(2026, 10, 16);
+
+    private final DailyLogRepository dailyLogRepository = mock(DailyLogRepository.class);
+    private final CoachPrecomputeCheckpointRepository checkpointRepository = mock(CoachPrecomputeCheckpointRepository.class);
+    private final AiCoachFeedbackService feedbackService = mock(AiCoachFeedbackService.class);
+
+    /** 피드백이 최신인 사용자 — 대상 조회에서 빠짐 */
+    private final Set<Long> fresh = new HashSet<>();
+    private CoachPrecomputeCheckpoint saved;
+
+    private CoachPrecomputeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new CoachPrecomputeScheduler(
+                dailyLogRepository, checkpointRepository, feedbackService, null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        ReflectionTestUtils.setField(scheduler, "concurrency", 1);
+        ReflectionTestUtils.setField(scheduler, "batchDelay", Duration.ZERO);
+        ReflectionTestUtils.setField(scheduler, "maxRun", Duration.ofMinutes(1));
+
+        when(checkpointRepository.findByTargetDate(TARGET)).thenAnswer(inv -> Optional.ofNullable(saved));
+        when(checkpointRepository.save(any())).thenAnswer(inv -> saved = inv.getArgument(0));
+
+        // DailyLog 가 있는 사용자 1~5 중 afterUserId 뒤에서 피드백이 최신이 아닌 사용자
+        when(dailyLogRepository.findUserIdsNeedingCoachFeedback(eq(TARGET), anyLong(), any(), any()))
+                .thenAnswer(inv -> {
+                    long after = inv.getArgument(1);
+                    Pageable page = inv.getArgument(3);
+                    return List.of(1L, 2L, 3L, 4L, 5L).stream()
+                            .filter(id -> id > after && !fresh.contains(id))
+                            .limit(page.getPageSize())
+                            .toList();
+                });
+    }
+
+    @Test
+    void precompute_failingUserTriedOncePerRunAndCheckpointStaysBeforeIt() {
+        when(feedbackService.precompute(anyLong(), eq(TARGET))).thenAnswer(inv -> {
+            long userId = inv.getArgument(0);
+            if (userId == 2L) throw new RuntimeException("AI 응답 실패 (fallback)");
+            fresh.add(userId);
+            return true;
+        });
+
+        scheduler.precompute(TARGET);
+
+        verify(feedbackService, times(1)).precompute(2L, TARGET);
+        assertThat(saved.isCompleted()).isFalse();
+        assertThat(saved.getLastUserId()).isEqualTo(1L);
+        assertThat(saved.getGenerated()).isEqualTo(4);
+        assertThat(saved.getFailed()).isEqualTo(1);
+
+        // 다음 실행 — 실패했던 사용자부터 다시 시도, 성공하면 완료
+        reset(feedbackService);
+        when(feedbackService.precompute(anyLong(), eq(TARGET))).thenAnswer(inv -> {
+            fresh.add(inv.getArgument(0));
+            return true;
+        });
+
+        scheduler.precompute(TARGET);
+
+        verify(feedbackService, times(1)).precompute(2L, TARGET);
+        verify(feedbackService, times(1)).precompute(anyLong(), eq(TARGET));
+        assertThat(saved.isCompleted()).isTrue();
+        assertThat(saved.getGenerated()).isEqualTo(5);
+    }
+
+    @Test
+    void precompute_unchangedUsersCountedSeparately() {
+        when(feedbackService.precompute(anyLong(), eq(TARGET))).thenAnswer(inv -> {
+            long userId = inv.getArgument(0);
+            fresh.add(userId);
+            return userId % 2 == 0;
+        });
+
+        scheduler.precompute(TARGET);
+
+        verify(feedbackService, times(5)).precompute(anyLong(), eq(TARGET));
+        assertThat(saved.isCompleted()).isTrue();
+        assertThat(saved.getGenerated()).isEqualTo(2);
+        assertThat(saved.getUnchanged()).isEqualTo(3);
+        assertThat(saved.getFailed()).isZero();
+    }
+
+    @Test
+    void precompute_wholeBatchFailureStopsWithoutAdvancing() {
+        when(feedbackService.precompute(anyLong(), eq(TARGET))).thenThrow(new RuntimeException("서킷 오픈"));
+
+        scheduler.precompute(TARGET);
+
+        verify(feedbackService, times(2)).precompute(anyLong(), eq(TARGET));
+        assertThat(saved.isCompleted()).isFalse();
+        assertThat(saved.getLastUserId()).isZero();
+        assertThat(saved.getFailed()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,65 @@
+package com.healthchat.backend.service;
+
+import com.healthchat.backend.service.GeminiRoutingService.RoutingResult;
+import com.healthchat.backend.service.routing.IntentMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiRoutingServiceTest {
+
+    private GeminiRoutingService routingService;
+
+    @BeforeEach
+    void setUp() {
+        IntentMatcher intentMatcher = new IntentMatcher();
+        ReflectionTestUtils.invokeMethod(intentMatcher, "load");
+
+        // 삭제 명령 감지는 구문표만 사용 (Gemini/사전 라우터 불필요)
+        routingService = new GeminiRoutingService(null, null, intentMatcher);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "오늘 기록 다 지워줘",
+            "오늘기록다지워줘",
+            "오늘  기록 다   지워 줘",
+            "기록 싹 지워",
+            "모든 기록 삭제해줘",
+    })
+    void detectDeleteCommand_deleteAll(String text) {
+        assertThat(routingService.detectDeleteCommand(text))
+                .contains(new RoutingResult("DELETE_ALL", "DELETE_ALL", "DELETE_ALL"));
+    }
+
+    /** 전체 삭제 구문이 있어도 영역 단어가 함께 있으면 전체 삭제가 아님 */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "운동 기록 다 지워       | ''          | ''              | ''",
+            "식단 기록 전체 삭제     | ''          | ''              | ''",
+            "식단 기록 지워줘 전부 다 지워 | DELETE_MEAL | ''          | ''",
+            "오늘 운동 기록 삭제하고 기록 다 지워 | ''   | DELETE_EXERCISE | ''",
+            "감정 기록 삭제, 기록 싹 지워 | ''       | ''              | DELETE_EMOTION",
+    })
+    void detectDeleteCommand_domainKeywordExcludesDeleteAll(String text, String meal, String exercise, String emotion) {
+        Optional<RoutingResult> result = routingService.detectDeleteCommand(text);
+
+        if (meal.isEmpty() && exercise.isEmpty() && emotion.isEmpty()) {
+            assertThat(result).isEmpty();
+        } else {
+            assertThat(result).contains(new RoutingResult(meal, exercise, emotion));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"오늘 점심 김밥 먹었어", "기록 다 봤어", "지워진 기억이 떠올라 우울해"})
+    void detectDeleteCommand_ignoresOrdinaryDiary(String text) {
+        assertThat(routingService.detectDeleteCommand(text)).isEmpty();
+    }
+}
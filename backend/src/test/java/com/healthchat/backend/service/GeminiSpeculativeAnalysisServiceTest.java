@@ -0,0 +1,113 @@
+package com.healthchat.backend.service;
+
+import com.healthchat.backend.dto.DailyAnalysis;
+import com.healthchat.backend.dto.EmotionAnalysisResult;
+import com.healthchat.backend.entity.User;
+import com.healthchat.backend.service.GeminiRoutingService.RoutingResult;
+import com.healthchat.backend.service.GeminiSpeculativeAnalysisService.Speculation;
+import com.healthchat.backend.service.routing.LocalPreRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GeminiSpeculativeAnalysisServiceTest {
+
+    private final GeminiRoutingService routingService = mock(GeminiRoutingService.class);
+    private final GeminiMealAnalysisService mealService = mock(GeminiMealAnalysisService.class);
+    private final GeminiExerciseAnalysisService exerciseService = mock(GeminiExerciseAnalysisService.class);
+    private final GeminiEmotionAnalysisService emotionService = mock(GeminiEmotionAnalysisService.class);
+    private final DailyExerciseService dailyExerciseService = mock(DailyExerciseService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final User user = User.builder().id(1L).build();
+    private GeminiSpeculativeAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        LocalPreRouter preRouter = new LocalPreRouter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(preRouter, "enabled", true);
+        ReflectionTestUtils.setField(preRouter, "minConfidence", 0.9);
+        ReflectionTestUtils.invokeMethod(preRouter, "load");
+
+        service = new GeminiSpeculativeAnalysisService(routingService, preRouter,
+                mealService, exerciseService, emotionService, dailyExerciseService, meterRegistry);
+
+        when(mealService.analyzeDailyLog(any(), anyString())).thenAnswer(inv -> new CompletableFuture<DailyAnalysis>());
+        when(emotionService.analyzeEmotion(anyString())).thenAnswer(inv -> new CompletableFuture<EmotionAnalysisResult>());
+    }
+
+    @Test
+    void singleSignal_routedVerbatim_reusesSpeculation() {
+        String text = "커피 안 마셨어";
+        when(routingService.routeWithGemini(text)).thenReturn(Mono.just(new RoutingResult("커피 안 마셨어.", "", "")));
+
+        Speculation speculation = service.start(user, text);
+        RoutingResult routed = speculation.awaitRouting();
+
+        assertThat(speculation.takeMeal(routed)).isNotNull();
+        speculation.discardRest();
+
+        verify(mealService).analyzeDailyLog(user, text);
+        assertThat(count("meal", "hit")).isEqualTo(1.0);
+        assertThat(count("meal", "waste")).isZero();
+    }
+
+    @Test
+    void singleSignal_routedRewritten_discardsSpeculation() {
+        String text = "김밥 먹고 친구 만났어";
+        when(routingService.routeWithGemini(text)).thenReturn(Mono.just(new RoutingResult("김밥", "", "")));
+
+        Speculation speculation = service.start(user, text);
+        RoutingResult routed = speculation.awaitRouting();
+
+        assertThat(speculation.takeMeal(routed)).isNull();
+        speculation.discardRest();
+
+        assertThat(count("meal", "hit")).isZero();
+        assertThat(count("meal", "waste")).isEqualTo(1.0);
+    }
+
+    @Test
+    void multipleSignals_startsNoAnalyzer() {
+        String text = "밥맛이 없어서 우울해";
+        when(routingService.routeWithGemini(text)).thenReturn(Mono.just(new RoutingResult("", "", text)));
+
+        Speculation speculation = service.start(user, text);
+        RoutingResult routed = speculation.awaitRouting();
+
+        assertThat(speculation.takeEmotion(routed)).isNull();
+        speculation.discardRest();
+
+        verifyNoInteractions(mealService, emotionService, exerciseService);
+        assertThat(count("emotion", "miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void awaitRouting_failureCancelsStartedAnalyses() {
+        String text = "커피 안 마셨어";
+        CompletableFuture<DailyAnalysis> started = new CompletableFuture<>();
+        when(mealService.analyzeDailyLog(any(), anyString())).thenReturn(started);
+        when(routingService.routeWithGemini(text)).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        Speculation speculation = service.start(user, text);
+
+        assertThatThrownBy(speculation::awaitRouting)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(started).isCancelled();
+        assertThat(count("meal", "waste")).isEqualTo(1.0);
+    }
+
+    private double count(String domain, String result) {
+        var counter = meterRegistry.find("gemini.speculation").tags("domain", domain, "result", result).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+}
@@ -0,0 +1,87 @@
+package com.healthchat.backend.service.rag;
+
+import com.healthchat.backend.entity.GuidelineChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EmbeddingQuantizerTest {
+
+    @Test
+    void toInt8_roundTripWithinHalfStep() {
+        Random random = new Random(1);
+        for (int t = 0; t < 100; t++) {
+            float[] v = randomVector(random, 96);
+            EmbeddingQuantizer.Int8Code code = EmbeddingQuantizer.toInt8(v);
+
+            for (int i = 0; i < v.length; i++) {
+                assertThat(code.codes()[i] * code.scale()).isCloseTo(v[i], within(code.scale() / 2 + 1e-6f));
+            }
+        }
+    }
+
+    @Test
+    void toInt8_largestMagnitudeMapsTo127() {
+        float[] v = {0.1f, -0.8f, 0.4f, 0f};
+        EmbeddingQuantizer.Int8Code code = EmbeddingQuantizer.toInt8(v);
+
+        assertThat(code.scale()).isCloseTo(0.8f / 127f, within(1e-9f));
+        assertThat(code.codes()).containsExactly(16, -127, 64, 0);
+    }
+
+    @Test
+    void toInt8_zeroVectorHasZeroScale() {
+        EmbeddingQuantizer.Int8Code code = EmbeddingQuantizer.toInt8(new float[4]);
+
+        assertThat(code.scale()).isZero();
+        assertThat(code.codes()).containsExactly(0, 0, 0, 0);
+    }
+
+    @Test
+    void toSignBits_littleEndianBitPerDimension() {
+        // 차원 0, 3, 8 양수 / 0 은 음수 취급
+        float[] v = new float[10];
+        v[0] = 0.5f;
+        v[1] = -0.5f;
+        v[3] = 0.1f;
+        v[8] = 1f;
+
+        byte[] bits = EmbeddingQuantizer.toSignBits(v);
+
+        assertThat(bits).containsExactly(0b0000_1001, 0b0000_0001);
+    }
+
+    @Test
+    void toWords_packsBytesLittleEndian() {
+        byte[] bits = new byte[9];
+        bits[0] = 0x01;
+        bits[7] = (byte) 0x80;
+        bits[8] = 0x02;
+
+        long[] words = EmbeddingQuantizer.toWords(bits);
+
+        assertThat(words).containsExactly(0x8000_0000_0000_0001L, 0x02L);
+    }
+
+    @Test
+    void fill_storesCodesOfNormalizedEmbedding() {
+        float[] embedding = {3f, -4f};
+        GuidelineChunk chunk = new GuidelineChunk();
+
+        EmbeddingQuantizer.fill(chunk, embedding);
+
+        assertThat(chunk.getEmbeddingDim()).isEqualTo(2);
+        assertThat(chunk.getEmbeddingInt8()).containsExactly(95, -127);
+        assertThat(chunk.getEmbeddingScale()).isCloseTo(0.8f / 127f, within(1e-7f));
+        assertThat(chunk.getEmbeddingBits()).containsExactly(0b01);
+    }
+
+    private static float[] randomVector(Random random, int dim) {
+        float[] v = new float[dim];
+        for (int d = 0; d < dim; d++) v[d] = (float) random.nextGaussian();
+        return EmbeddingUtil.normalize(v);
+    }
+}
@@ -0,0 +1,95 @@
+package com.healthchat.backend.service.rag.index;
+
+import com.healthchat.backend.service.rag.EmbeddingUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddingSnapshotTest {
+
+    private static final int DIM = 19;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void append_keepsBaseRowsAndAddsNewRows() throws Exception {
+        Random random = new Random(1);
+        List<EmbeddingSnapshot.Row> first = rows(random, 1, 30, "a.pdf");
+        List<EmbeddingSnapshot.Row> second = rows(random, 31, 10, "b.pdf");
+
+        Path path = dir.resolve("emb.snap");
+        EmbeddingSnapshot.write(path, DIM, first);
+        EmbeddingSnapshot base = EmbeddingSnapshot.open(path);
+
+        EmbeddingSnapshot.append(path, base, second);
+        EmbeddingSnapshot appended = EmbeddingSnapshot.open(path);
+
+        List<EmbeddingSnapshot.Row> all = new ArrayList<>(first);
+        all.addAll(second);
+        Path fullPath = dir.resolve("full.snap");
+        EmbeddingSnapshot.write(fullPath, DIM, all);
+        EmbeddingSnapshot full = EmbeddingSnapshot.open(fullPath);
+
+        assertThat(appended.size()).isEqualTo(40);
+        assertThat(appended.maxId()).isEqualTo(40);
+        assertThat(appended.dimension()).isEqualTo(DIM);
+        assertThat(appended.sources()).isEqualTo(Set.of("a.pdf", "b.pdf"));
+
+        Map<Long, float[]> vectors = appended.vectors(List.of(5L, 35L));
+        assertThat(vectors.get(5L)).containsExactly(first.get(4).vector());
+        assertThat(vectors.get(35L)).containsExactly(second.get(4).vector());
+
+        for (EmbeddingSnapshot.Row row : all) {
+            assertThat(appended.search(row.vector(), 3))
+                    .isEqualTo(full.search(row.vector(), 3));
+            assertThat(appended.search(row.vector(), 1).get(0).chunkId()).isEqualTo(row.id());
+        }
+    }
+
+    @Test
+    void append_rejectsRowsNotAfterBase() throws Exception {
+        Random random = new Random(2);
+        Path path = dir.resolve("emb.snap");
+        EmbeddingSnapshot.write(path, DIM, rows(random, 1, 5, "a.pdf"));
+        EmbeddingSnapshot base = EmbeddingSnapshot.open(path);
+
+        assertThatThrownBy(() -> EmbeddingSnapshot.append(path, base, rows(random, 5, 1, "b.pdf")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void appendTo_insertsOnlyRowsAfterTargetMaxId() throws Exception {
+        Random random = new Random(3);
+        List<EmbeddingSnapshot.Row> rows = rows(random, 1, 12, "a.pdf");
+        Path path = dir.resolve("emb.snap");
+        EmbeddingSnapshot.write(path, DIM, rows);
+
+        VectorIndex target = new BruteForceVectorIndex();
+        for (EmbeddingSnapshot.Row row : rows.subList(0, 4)) target.add(row.id(), row.source(), row.vector());
+
+        EmbeddingSnapshot.open(path).appendTo(target);
+
+        assertThat(target.size()).isEqualTo(12);
+        assertThat(target.maxId()).isEqualTo(12);
+    }
+
+    private static List<EmbeddingSnapshot.Row> rows(Random random, long firstId, int count, String source) {
+        List<EmbeddingSnapshot.Row> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            float[] v = new float[DIM];
+            for (int d = 0; d < DIM; d++) v[d] = (float) random.nextGaussian();
+            rows.add(new EmbeddingSnapshot.Row(firstId + i, source, EmbeddingUtil.normalize(v)));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,135 @@
+package com.healthchat.backend.service.rag.index;
+
+import com.healthchat.backend.service.rag.EmbeddingUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HnswVectorIndexTest {
+
+    private static final int DIM = 32;
+    private static final int K = 10;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void search_recallAgainstBruteForce() {
+        Random random = new Random(1);
+        HnswVectorIndex hnsw = new HnswVectorIndex(16, 100, 64);
+        BruteForceVectorIndex exact = new BruteForceVectorIndex();
+
+        for (long id = 1; id <= 2000; id++) {
+            float[] v = randomVector(random);
+            hnsw.add(id, "a.pdf", v);
+            exact.add(id, "a.pdf", v);
+        }
+
+        int found = 0;
+        int total = 0;
+        for (int q = 0; q < 100; q++) {
+            float[] query = randomVector(random);
+            Set<Long> expected = chunkIds(exact.search(query, K));
+            for (VectorHit hit : hnsw.search(query, K)) {
+                if (expected.contains(hit.chunkId())) found++;
+            }
+            total += expected.size();
+        }
+
+        assertThat((double) found / total).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void search_findsInsertedVectorItself() {
+        Random random = new Random(2);
+        HnswVectorIndex hnsw = new HnswVectorIndex(8, 64, 32);
+        List<float[]> vectors = new ArrayList<>();
+
+        for (long id = 1; id <= 300; id++) {
+            float[] v = randomVector(random);
+            vectors.add(v);
+            hnsw.add(id, "a.pdf", v);
+        }
+
+        for (int i = 0; i < vectors.size(); i++) {
+            assertThat(hnsw.search(vectors.get(i), 1).get(0).chunkId()).isEqualTo(i + 1L);
+        }
+    }
+
+    @Test
+    void saveLoad_roundTripKeepsSearchResults() throws Exception {
+        Random random = new Random(3);
+        HnswVectorIndex original = new HnswVectorIndex(8, 64, 32);
+        for (long id = 1; id <= 500; id++) {
+            original.add(id, id % 2 == 0 ? "a.pdf" : "b.pdf", randomVector(random));
+        }
+
+        Path path = dir.resolve("guideline.hnsw");
+        original.save(path);
+        HnswVectorIndex loaded = HnswVectorIndex.load(path, 64, 32);
+
+        assertThat(loaded.size()).isEqualTo(original.size());
+        assertThat(loaded.dimension()).isEqualTo(DIM);
+        assertThat(loaded.maxId()).isEqualTo(500);
+
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector(random);
+            assertThat(loaded.search(query, K)).isEqualTo(original.search(query, K));
+        }
+    }
+
+    @Test
+    void saveLoad_insertsAfterLoadMatchIndexBuiltInOnePass() throws Exception {
+        List<float[]> vectors = new ArrayList<>();
+        Random random = new Random(4);
+        for (int i = 0; i < 400; i++) vectors.add(randomVector(random));
+
+        HnswVectorIndex onePass = new HnswVectorIndex(8, 64, 32);
+        for (int i = 0; i < vectors.size(); i++) onePass.add(i + 1L, "a.pdf", vectors.get(i));
+
+        HnswVectorIndex partial = new HnswVectorIndex(8, 64, 32);
+        for (int i = 0; i < 200; i++) partial.add(i + 1L, "a.pdf", vectors.get(i));
+
+        Path path = dir.resolve("guideline.hnsw");
+        partial.save(path);
+        HnswVectorIndex resumed = HnswVectorIndex.load(path, 64, 32);
+        for (int i = 200; i < vectors.size(); i++) resumed.add(i + 1L, "a.pdf", vectors.get(i));
+
+        // 복원 후 레벨 난수가 이어지면 같은 그래프 → 같은 검색 결과
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector(random);
+            assertThat(resumed.search(query, K)).isEqualTo(onePass.search(query, K));
+        }
+    }
+
+    @Test
+    void load_rejectsOtherFiles() throws Exception {
+        Path path = dir.resolve("emb.snap");
+        EmbeddingSnapshot.write(path, DIM, List.of(new EmbeddingSnapshot.Row(1, "a.pdf", randomVector(new Random(5)))));
+
+        assertThatThrownBy(() -> HnswVectorIndex.load(path, 64, 32))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static Set<Long> chunkIds(List<VectorHit> hits) {
+        Set<Long> ids = new HashSet<>();
+        for (VectorHit hit : hits) ids.add(hit.chunkId());
+        return ids;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] v = new float[DIM];
+        for (int d = 0; d < DIM; d++) v[d] = (float) random.nextGaussian();
+        return EmbeddingUtil.normalize(v);
+    }
+}
@@ -0,0 +1,160 @@
+package com.healthchat.backend.service.rag.index;
+
+import com.healthchat.backend.service.rag.EmbeddingQuantizer;
+import com.healthchat.backend.service.rag.EmbeddingUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantizedVectorIndexTest {
+
+    private static final int DIM = 64;
+    private static final int K = 10;
+
+    @Test
+    void int8_rerankedRecallAgainstBruteForce() {
+        assertThat(recall(QuantizedVectorIndex.Mode.INT8, 4)).isGreaterThanOrEqualTo(0.98);
+    }
+
+    @Test
+    void binary_rerankedRecallAgainstBruteForce() {
+        assertThat(recall(QuantizedVectorIndex.Mode.BINARY, 8)).isGreaterThanOrEqualTo(0.8);
+    }
+
+    @Test
+    void rerank_returnsExactSimilarities() {
+        Random random = new Random(3);
+        Map<Long, float[]> vectors = new HashMap<>();
+        BruteForceVectorIndex exact = new BruteForceVectorIndex();
+        QuantizedVectorIndex quantized = new QuantizedVectorIndex(QuantizedVectorIndex.Mode.INT8, 4, loader(vectors));
+
+        for (long id = 1; id <= 300; id++) {
+            float[] v = randomVector(random);
+            vectors.put(id, v);
+            exact.add(id, id % 2 == 0 ? "a.pdf" : "b.pdf", v);
+            quantized.add(id, id % 2 == 0 ? "a.pdf" : "b.pdf", v);
+        }
+
+        float[] query = randomVector(random);
+        Map<Long, Double> expected = new HashMap<>();
+        for (VectorHit hit : exact.search(query, 300)) expected.put(hit.chunkId(), hit.similarity());
+
+        List<VectorHit> hits = quantized.search(query, K);
+        assertThat(hits).hasSize(K);
+        for (VectorHit hit : hits) {
+            assertThat(hit.similarity()).isCloseTo(expected.get(hit.chunkId()), within(1e-5));
+            assertThat(hit.source()).isEqualTo(hit.chunkId() % 2 == 0 ? "a.pdf" : "b.pdf");
+        }
+        assertThat(hits).isSortedAccordingTo(Comparator.comparingDouble(VectorHit::similarity).reversed());
+    }
+
+    @Test
+    void withoutLoader_returnsCoarseTopK() {
+        Random random = new Random(4);
+        QuantizedVectorIndex quantized = new QuantizedVectorIndex(QuantizedVectorIndex.Mode.INT8, 4, null);
+        List<float[]> vectors = new ArrayList<>();
+
+        for (long id = 1; id <= 200; id++) {
+            float[] v = randomVector(random);
+            vectors.add(v);
+            quantized.add(id, "a.pdf", v);
+        }
+
+        // 자기 자신은 int8 근사로도 최상위
+        for (int i = 0; i < vectors.size(); i += 20) {
+            List<VectorHit> hits = quantized.search(vectors.get(i), K);
+            assertThat(hits).hasSize(K);
+            assertThat(hits.get(0).chunkId()).isEqualTo(i + 1L);
+        }
+    }
+
+    @Test
+    void storedCodes_matchVectorInsert() {
+        Random random = new Random(5);
+        QuantizedVectorIndex fromVectors = new QuantizedVectorIndex(QuantizedVectorIndex.Mode.BINARY, 4, null);
+        QuantizedVectorIndex fromCodes = new QuantizedVectorIndex(QuantizedVectorIndex.Mode.BINARY, 4, null);
+
+        for (long id = 1; id <= 100; id++) {
+            float[] v = randomVector(random);
+            fromVectors.add(id, "a.pdf", v);
+            fromCodes.addBits(id, "a.pdf", DIM, EmbeddingQuantizer.toSignBits(v));
+        }
+
+        for (int q = 0; q < 20; q++) {
+            float[] query = randomVector(random);
+            assertThat(fromCodes.search(query, K)).isEqualTo(fromVectors.search(query, K));
+        }
+        assertThat(fromCodes.maxId()).isEqualTo(100);
+        assertThat(fromCodes.dimension()).isEqualTo(DIM);
+    }
+
+    @Test
+    void add_rejectsDimensionMismatch() {
+        QuantizedVectorIndex quantized = new QuantizedVectorIndex(QuantizedVectorIndex.Mode.INT8, 4, null);
+        quantized.add(1, "a.pdf", randomVector(new Random(6)));
+
+        assertThatThrownBy(() -> quantized.add(2, "a.pdf", new float[DIM / 2]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(quantized.search(new float[DIM / 2], K)).isEmpty();
+    }
+
+    private static double recall(QuantizedVectorIndex.Mode mode, int rerankFactor) {
+        Random random = new Random(1);
+        List<float[]> topics = new ArrayList<>();
+        for (int t = 0; t < 50; t++) topics.add(randomVector(random));
+
+        Map<Long, float[]> vectors = new HashMap<>();
+        QuantizedVectorIndex quantized = new QuantizedVectorIndex(mode, rerankFactor, loader(vectors));
+        BruteForceVectorIndex exact = new BruteForceVectorIndex();
+
+        for (long id = 1; id <= 2000; id++) {
+            float[] v = near(topics.get(random.nextInt(topics.size())), random);
+            vectors.put(id, v);
+            quantized.add(id, "a.pdf", v);
+            exact.add(id, "a.pdf", v);
+        }
+
+        int found = 0;
+        int total = 0;
+        for (int q = 0; q < 100; q++) {
+            float[] query = near(topics.get(random.nextInt(topics.size())), random);
+            Set<Long> expected = chunkIds(exact.search(query, K));
+            for (VectorHit hit : quantized.search(query, K)) {
+                if (expected.contains(hit.chunkId())) found++;
+            }
+            total += expected.size();
+        }
+        return (double) found / total;
+    }
+
+    private static QuantizedVectorIndex.FullVectorLoader loader(Map<Long, float[]> vectors) {
+        return ids -> {
+            Map<Long, float[]> loaded = new HashMap<>();
+            for (Long id : ids) loaded.put(id, vectors.get(id));
+            return loaded;
+        };
+    }
+
+    private static Set<Long> chunkIds(List<VectorHit> hits) {
+        Set<Long> ids = new HashSet<>();
+        for (VectorHit hit : hits) ids.add(hit.chunkId());
+        return ids;
+    }
+
+    /** 주제 벡터 주변에 모인 벡터 — 실제 문헌 임베딩처럼 군집을 이룬 분포 */
+    private static float[] near(float[] topic, Random random) {
+        float[] v = new float[DIM];
+        for (int d = 0; d < DIM; d++) v[d] = topic[d] + 0.15f * (float) random.nextGaussian();
+        return EmbeddingUtil.normalize(v);
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] v = new float[DIM];
+        for (int d = 0; d < DIM; d++) v[d] = (float) random.nextGaussian();
+        return EmbeddingUtil.normalize(v);
+    }
+}
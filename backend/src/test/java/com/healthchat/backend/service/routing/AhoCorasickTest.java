@@ -0,0 +1,95 @@
+package com.healthchat.backend.service.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickTest {
+
+    @Test
+    void findAll_reportsNestedPatternsEndingInsideLongerOne() {
+        AhoCorasick<String> ac = AhoCorasick.<String>builder()
+                .add("기록 다 지워", "short")
+                .add("오늘 기록 다 지워줘", "long")
+                .build();
+
+        // "기록다지워" 가 끝나는 위치에서 short, 마지막 "줘" 에서 long
+        assertThat(ac.findAll("오늘 기록 다 지워줘")).containsExactly("short", "long");
+        assertThat(ac.findAll("기록 다 지워")).containsExactly("short");
+        assertThat(ac.findAll("오늘 기록 다 지워")).containsExactly("short");
+    }
+
+    @Test
+    void findAll_followsFailureLinksForOverlappingPatterns() {
+        AhoCorasick<String> ac = AhoCorasick.<String>builder()
+                .add("he", "he")
+                .add("she", "she")
+                .add("his", "his")
+                .add("hers", "hers")
+                .build();
+
+        assertThat(ac.findAll("ushers")).containsExactly("she", "he", "hers");
+        assertThat(ac.findAll("ahishers")).containsExactly("his", "she", "he", "hers");
+    }
+
+    @Test
+    void findAll_reportsEveryOccurrence() {
+        AhoCorasick<String> ac = AhoCorasick.<String>builder()
+                .add("지워", "erase")
+                .build();
+
+        assertThat(ac.findAll("지워 지워 또 지워")).hasSize(3);
+        assertThat(ac.findDistinct("지워 지워 또 지워")).containsExactly("erase");
+    }
+
+    @Test
+    void matching_ignoresWhitespaceInPatternAndText() {
+        AhoCorasick<String> ac = AhoCorasick.<String>builder()
+                .add("식단 기록 삭제", "meal")
+                .add("운동기록  리셋", "exercise")
+                .build();
+
+        assertThat(ac.findAll("식단기록삭제")).containsExactly("meal");
+        assertThat(ac.findAll("식단  기록\t삭제\n해줘")).containsExactly("meal");
+        assertThat(ac.findAll("운동 기록 리셋")).containsExactly("exercise");
+        assertThat(ac.findAll(" 운 동 기 록 리 셋 ")).containsExactly("exercise");
+    }
+
+    @Test
+    void findAllInWords_doesNotMatchAcrossWordBoundaries() {
+        AhoCorasick<String> ac = AhoCorasick.<String>builder()
+                .add("운동", "exercise")
+                .add("밥", "rice")
+                .build();
+
+        assertThat(ac.findAll("행운 동전")).containsExactly("exercise");
+        assertThat(ac.findAllInWords("행운 동전")).isEmpty();
+        assertThat(ac.findAllInWords("운동장 비빔밥")).containsExactly("exercise", "rice");
+    }
+
+    @Test
+    void matching_ignoresCase() {
+        AhoCorasick<String> ac = AhoCorasick.<String>builder()
+                .add("Reset", "reset")
+                .build();
+
+        assertThat(ac.matches("RESET 해줘")).isTrue();
+        assertThat(ac.matches("reset")).isTrue();
+        assertThat(ac.matches("re set")).isTrue();
+        assertThat(ac.matches("rest")).isFalse();
+    }
+
+    @Test
+    void blankPatternsAndEmptyTextMatchNothing() {
+        AhoCorasick<String> ac = AhoCorasick.<String>builder()
+                .add("   ", "blank")
+                .add("밥", "rice")
+                .build();
+
+        assertThat(ac.size()).isEqualTo(1);
+        assertThat(ac.findAll(null)).isEmpty();
+        assertThat(ac.findAll("")).isEmpty();
+        assertThat(ac.findAll("   ")).isEmpty();
+        assertThat(ac.findAll("국수")).isEmpty();
+    }
+}
@@ -0,0 +1,128 @@
+package com.healthchat.backend.service.routing;
+
+import com.healthchat.backend.service.GeminiRoutingService.RoutingResult;
+import com.healthchat.backend.service.routing.LocalPreRouter.Category;
+import com.healthchat.backend.service.routing.LocalPreRouter.Decision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalPreRouterTest {
+
+    private LocalPreRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new LocalPreRouter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(router, "enabled", true);
+        ReflectionTestUtils.setField(router, "minConfidence", 0.9);
+        ReflectionTestUtils.invokeMethod(router, "load");
+    }
+
+    /** 절 분리 — 기대 절은 '/' 로 구분 */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "김밥 두 줄 먹고 조깅했어               | 김밥 두 줄 먹고 / 조깅했어",
+            "점심에 비빔밥 먹었어. 저녁엔 요가!      | 점심에 비빔밥 먹었어 / 저녁엔 요가",
+            "치킨 먹었어 그리고 산책했어             | 치킨 먹었어 / 산책했어",
+            "운동하고 나니 개운해                    | 운동하고 나니 개운해",
+            "헬스장 가서 스쿼트 하고 기분 좋았어     | 헬스장 가서 스쿼트 하고 / 기분 좋았어",
+            "많이 피곤했지만   30분 걸었어~          | 많이 피곤했지만 / 30분 걸었어",
+            // 어절 하나뿐인 절은 뒤 절에 이어 붙임
+            "피곤했지만 30분 걸었어                  | 피곤했지만 30분 걸었어",
+            "라면 먹었어\\n그래서 우울해             | 라면 먹었어 / 우울해",
+    })
+    void splitClauses(String text, String expected) {
+        List<String> clauses = Arrays.stream(expected.split("/")).map(String::trim).toList();
+
+        assertThat(router.splitClauses(text.replace("\\n", "\n"))).isEqualTo(clauses);
+    }
+
+    /** 절마다 한 영역으로 확실히 나뉘는 입력 — LLM 없이 로컬 결과 */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "점심에 비빔밥 먹었어               | 점심에 비빔밥 먹었어 | ''                | ''",
+            "30분 달리기 했어                   | ''                   | 30분 달리기 했어  | ''",
+            "오늘 너무 우울해                   | ''                   | ''                | 오늘 너무 우울해",
+            "김밥 두 줄 먹고 조깅했어           | 김밥 두 줄 먹고      | 조깅했어          | ''",
+            "헬스에서 스쿼트 하고 기분이 개운해 | ''                   | 헬스에서 스쿼트 하고 | 기분이 개운해",
+            "편안 마음으로 잤어                 | ''                   | ''                | 편안 마음으로 잤어",
+    })
+    void classify_confidentRouting(String text, String meal, String exercise, String emotion) {
+        Decision decision = router.classify(text);
+
+        assertThat(decision.reason()).isEqualTo("classified");
+        assertThat(decision.confidence()).isEqualTo(1.0);
+        assertThat(decision.result()).isEqualTo(new RoutingResult(meal, exercise, emotion));
+        assertThat(router.route(text)).contains(new RoutingResult(meal, exercise, emotion));
+    }
+
+    /** LLM 으로 넘겨야 하는 입력 — reason: 보류 표현 / 어휘 없는 절 / 한 절에 여러 영역 */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            // 한 절에 여러 영역 — 신뢰도 0.5
+            "운동하니까 기분 좋아                | classified",
+            "치킨 먹으며 축구 봤어               | classified",
+            "운동하고 나니 개운해                | classified",
+            // 어휘가 없는 절
+            "김밥 먹고 친구 만났어               | unknown",
+            "오늘 회의가 길었어                  | unknown",
+            // 보류 표현 (부정/미래/질문/삭제)
+            "오늘 운동 못했어                    | defer-term",
+            "커피 안 마셨어                      | defer-term",
+            "내일 헬스 할거야                    | defer-term",
+            "점심 뭐 먹을까?                     | defer-term",
+            "오늘 먹은 거 지워줘                 | defer-term",
+    })
+    void classify_defersToLlm(String text, String reason) {
+        Decision decision = router.classify(text);
+
+        assertThat(decision.reason()).isEqualTo(reason);
+        assertThat(decision.confidence()).isLessThan(0.9);
+        assertThat(router.route(text)).isEmpty();
+    }
+
+    /** 짧은 어휘가 어절 경계를 넘거나 다른 단어 안에서 적중하는 오탐 */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            // "행운 동전" 의 "운 동" 이 "운동" 으로 적중하면 안 됨
+            "행운 동전을 주웠어                  | unknown",
+            "오늘 가운 동생 줬어                 | unknown",
+            // "안마" 는 부정("안 마셨")이 아닌 마사지 — 보류 표현이 아니라 어휘 없는 절
+            "안마 받고 잤어                      | unknown",
+            // "밥맛" 은 식사 기록이 아님
+            "밥맛이 없어서 우울해                | defer-term",
+            // 운동장 = 장소, 운동 + 감정 혼합 → 신뢰도 부족
+            "운동장에서 친구 만나 기분 좋았어    | classified",
+    })
+    void classify_wordBoundaryFalsePositivesGoToLlm(String text, String reason) {
+        Decision decision = router.classify(text);
+
+        assertThat(decision.reason()).isEqualTo(reason);
+        assertThat(router.route(text)).isEmpty();
+    }
+
+    @Test
+    void signals_matchWithinWordsOnly() {
+        assertThat(router.signals("행운 동전")).isEmpty();
+        assertThat(router.signals("비빔밥 먹고 운동")).containsExactlyInAnyOrder(Category.MEAL, Category.EXERCISE);
+        assertThat(router.signals(null)).isEmpty();
+    }
+
+    @Test
+    void route_disabledOrBlankGoesToLlm() {
+        assertThat(router.route("  ")).isEmpty();
+        assertThat(router.route(null)).isEmpty();
+
+        ReflectionTestUtils.setField(router, "enabled", false);
+        assertThat(router.route("점심에 비빔밥 먹었어")).isEmpty();
+    }
+}